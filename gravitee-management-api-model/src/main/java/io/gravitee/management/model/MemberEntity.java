@@ -15,7 +15,10 @@
  */
 package io.gravitee.management.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.gravitee.management.model.permissions.PermissionMask;
+import io.gravitee.management.model.permissions.RoleScope;
 
 import java.util.Date;
 import java.util.Map;
@@ -37,6 +40,15 @@ public class MemberEntity {
 
     private Map<String, char[]> permissions;
 
+    /**
+     * Scope of the role, needed to build the permission mask.
+     */
+    @JsonIgnore
+    private RoleScope scope;
+
+    @JsonIgnore
+    private PermissionMask permissionMask;
+
     @JsonProperty("created_at")
     private Date createdAt;
 
@@ -97,6 +109,32 @@ public class MemberEntity {
 
     public void setPermissions(Map<String, char[]> permissions) {
         this.permissions = permissions;
+        this.permissionMask = null;
+    }
+
+    @JsonIgnore
+    public RoleScope getScope() {
+        return scope;
+    }
+
+    public void setScope(RoleScope scope) {
+        this.scope = scope;
+        this.permissionMask = null;
+    }
+
+    /**
+     * @return the permissions of the member as a bitmask, built from the permissions map when not already known.
+     */
+    @JsonIgnore
+    public PermissionMask getPermissionMask() {
+        if (permissionMask == null && scope != null) {
+            permissionMask = PermissionMask.of(scope, permissions);
+        }
+        return permissionMask;
+    }
+
+    public void setPermissionMask(PermissionMask permissionMask) {
+        this.permissionMask = permissionMask;
     }
 
     @Override
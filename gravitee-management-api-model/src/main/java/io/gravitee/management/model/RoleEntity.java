@@ -15,7 +15,9 @@
  */
 package io.gravitee.management.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.gravitee.management.model.permissions.PermissionMask;
 import io.gravitee.management.model.permissions.RoleScope;
 
 import java.util.Map;
@@ -34,6 +36,8 @@ public class RoleEntity {
     private boolean defaultRole;
     private boolean system;
     private Map<String, char[]> permissions;
+    @JsonIgnore
+    private PermissionMask permissionMask;
 
     public String getName() {
         return name;
@@ -55,6 +59,7 @@ public class RoleEntity {
     }
     public void setScope(RoleScope scope) {
         this.scope = scope;
+        this.permissionMask = null;
     }
 
     public Map<String, char[]> getPermissions() {
@@ -62,6 +67,21 @@ public class RoleEntity {
     }
     public void setPermissions(Map<String, char[]> permissions) {
         this.permissions = permissions;
+        this.permissionMask = null;
+    }
+
+    /**
+     * @return the permissions of the role as a bitmask, built from the permissions map when not already known.
+     */
+    @JsonIgnore
+    public PermissionMask getPermissionMask() {
+        if (permissionMask == null && scope != null) {
+            permissionMask = PermissionMask.of(scope, permissions);
+        }
+        return permissionMask;
+    }
+    public void setPermissionMask(PermissionMask permissionMask) {
+        this.permissionMask = permissionMask;
     }
 
     public boolean isDefaultRole() {
@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.common;
+
+import io.gravitee.common.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * A page of results which also provides the cursor to use to fetch the next page.
+ *
+ * @author GraviteeSource Team
+ */
+public class CursorPage<T> extends Page<T> {
+
+    private final String cursor;
+
+    public CursorPage(List<T> content, int pageNumber, int pageElements, long totalElements, String cursor) {
+        super(content, pageNumber, pageElements, totalElements);
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return the cursor to use to fetch the next page, or <code>null</code> if there is no next page.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+}
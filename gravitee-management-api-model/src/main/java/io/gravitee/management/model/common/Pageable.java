@@ -24,4 +24,12 @@ public interface Pageable {
     int getPageNumber();
 
     int getPageSize();
+
+    /**
+     * @return the cursor returned with the previous page, if any, allowing the next page to be fetched without
+     * going through the previous ones again.
+     */
+    default String getCursor() {
+        return null;
+    }
 }
@@ -23,10 +23,16 @@ public class PageableImpl implements Pageable {
 
     private final int pageNumber;
     private final int pageSize;
+    private final String cursor;
 
     public PageableImpl(final int pageNumber, final int pageSize) {
+        this(pageNumber, pageSize, null);
+    }
+
+    public PageableImpl(final int pageNumber, final int pageSize, final String cursor) {
         this.pageNumber = pageNumber;
         this.pageSize = pageSize;
+        this.cursor = cursor;
     }
 
     @Override
@@ -38,4 +44,9 @@ public class PageableImpl implements Pageable {
     public int getPageSize() {
         return pageSize;
     }
+
+    @Override
+    public String getCursor() {
+        return cursor;
+    }
 }
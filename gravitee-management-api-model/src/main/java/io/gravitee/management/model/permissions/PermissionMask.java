@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.permissions;
+
+import java.util.*;
+
+/**
+ * Immutable bitmask representation of the permissions of a role (or of the union of several roles) in a scope.
+ *
+ * Permissions are indexed by their position in the enum of the scope: the mask holds one <code>long</code> per
+ * {@link RolePermissionAction}, in which the bit of a permission is set when the action is granted.
+ *
+ * @author GraviteeSource Team
+ */
+public final class PermissionMask {
+
+    private static final RolePermissionAction[] ACTIONS = RolePermissionAction.values();
+
+    private static final Map<RoleScope, Class<?>> PERMISSION_TYPES = new EnumMap<>(RoleScope.class);
+    private static final Map<RoleScope, Permission[]> PERMISSIONS = new EnumMap<>(RoleScope.class);
+    private static final Map<RoleScope, Map<String, Integer>> INDEXES_BY_NAME = new EnumMap<>(RoleScope.class);
+    private static final Map<RoleScope, Map<Integer, Integer>> INDEXES_BY_MASK = new EnumMap<>(RoleScope.class);
+    private static final Map<RoleScope, PermissionMask> EMPTY = new EnumMap<>(RoleScope.class);
+
+    static {
+        for (RoleScope scope : RoleScope.values()) {
+            Permission[] permissions = Permission.findByScope(scope);
+            if (permissions.length > Long.SIZE) {
+                throw new IllegalStateException("Too many permissions in scope " + scope);
+            }
+
+            Map<String, Integer> byName = new HashMap<>();
+            Map<Integer, Integer> byMask = new HashMap<>();
+            for (int i = 0; i < permissions.length; i++) {
+                byName.put(permissions[i].getName(), i);
+                byMask.put(permissions[i].getMask() / 100, i);
+            }
+
+            PERMISSION_TYPES.put(scope, permissions.getClass().getComponentType());
+            PERMISSIONS.put(scope, permissions);
+            INDEXES_BY_NAME.put(scope, byName);
+            INDEXES_BY_MASK.put(scope, byMask);
+            EMPTY.put(scope, new PermissionMask(scope, new long[ACTIONS.length]));
+        }
+    }
+
+    private final RoleScope scope;
+    private final long[] actions;
+
+    private PermissionMask(RoleScope scope, long[] actions) {
+        this.scope = scope;
+        this.actions = actions;
+    }
+
+    public static PermissionMask empty(RoleScope scope) {
+        return EMPTY.get(Objects.requireNonNull(scope, "Scope must not be null"));
+    }
+
+    /**
+     * Builds the mask of permissions given as a map of permission names to CRUD actions
+     * (e.g. <code>"SUBSCRIPTION" -> ['C', 'R', 'U']</code>). Unknown permissions and actions are ignored.
+     */
+    public static PermissionMask of(RoleScope scope, Map<String, char[]> permissions) {
+        if (permissions == null || permissions.isEmpty()) {
+            return empty(scope);
+        }
+
+        final Map<String, Integer> indexes = INDEXES_BY_NAME.get(scope);
+        final long[] actions = new long[ACTIONS.length];
+        for (Map.Entry<String, char[]> entry : permissions.entrySet()) {
+            Integer index = indexes.get(entry.getKey());
+            if (index != null && entry.getValue() != null) {
+                for (char crud : entry.getValue()) {
+                    for (RolePermissionAction action : ACTIONS) {
+                        if (action.getId() == crud) {
+                            actions[action.ordinal()] |= 1L << index;
+                        }
+                    }
+                }
+            }
+        }
+
+        return new PermissionMask(scope, actions);
+    }
+
+    /**
+     * Builds the mask of permissions as stored by the repository, each of them being the mask of the permission plus
+     * the masks of its actions. Unknown permissions are ignored.
+     */
+    public static PermissionMask of(RoleScope scope, int[] permissions) {
+        if (permissions == null || permissions.length == 0) {
+            return empty(scope);
+        }
+
+        final Map<Integer, Integer> indexes = INDEXES_BY_MASK.get(scope);
+        final long[] actions = new long[ACTIONS.length];
+        for (int permission : permissions) {
+            Integer index = indexes.get(permission / 100);
+            if (index != null) {
+                int crud = permission % 100;
+                for (RolePermissionAction action : ACTIONS) {
+                    if ((crud & action.getMask()) != 0) {
+                        actions[action.ordinal()] |= 1L << index;
+                    }
+                }
+            }
+        }
+
+        return new PermissionMask(scope, actions);
+    }
+
+    public RoleScope getScope() {
+        return scope;
+    }
+
+    /**
+     * @return <code>true</code> if at least one of the actions is granted on the permission. A permission which does
+     * not belong to the scope of this mask is never granted.
+     */
+    public boolean hasPermission(Permission permission, RolePermissionAction... acls) {
+        if (permission == null || acls == null || !PERMISSION_TYPES.get(scope).isInstance(permission)) {
+            return false;
+        }
+
+        final long bit = 1L << ((Enum<?>) permission).ordinal();
+        for (RolePermissionAction acl : acls) {
+            if ((actions[acl.ordinal()] & bit) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasPermission(RolePermission permission, RolePermissionAction... acls) {
+        return permission != null && permission.getScope() == scope && hasPermission(permission.getPermission(), acls);
+    }
+
+    /**
+     * @return the permissions granted either by this mask or by the other one, as for a user inheriting roles from
+     * several groups.
+     */
+    public PermissionMask union(PermissionMask other) {
+        if (other == null || other == this) {
+            return this;
+        }
+        if (other.scope != scope) {
+            throw new IllegalArgumentException("Unable to merge permissions of scope " + other.scope + " into " + scope);
+        }
+
+        final long[] merged = new long[ACTIONS.length];
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = actions[i] | other.actions[i];
+        }
+        return new PermissionMask(scope, merged);
+    }
+
+    public boolean isEmpty() {
+        for (long action : actions) {
+            if (action != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the permissions as a map of permission names to CRUD actions, the actions being in C, R, U, D order.
+     */
+    public Map<String, char[]> toMap() {
+        final Permission[] permissions = PERMISSIONS.get(scope);
+        final Map<String, char[]> map = new HashMap<>();
+        for (int i = 0; i < permissions.length; i++) {
+            final long bit = 1L << i;
+            final char[] crud = new char[ACTIONS.length];
+            int size = 0;
+            for (RolePermissionAction action : ACTIONS) {
+                if ((actions[action.ordinal()] & bit) != 0) {
+                    crud[size++] = action.getId();
+                }
+            }
+            if (size > 0) {
+                map.put(permissions[i].getName(), Arrays.copyOf(crud, size));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PermissionMask that = (PermissionMask) o;
+        return scope == that.scope && Arrays.equals(actions, that.actions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * scope.hashCode() + Arrays.hashCode(actions);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PermissionMask{scope=").append(scope);
+        toMap().forEach((name, crud) -> sb.append(", ").append(name).append('=').append(crud));
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.platform;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Metrics of the calls made by this node to a repository method.
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositoryMetricsEntity {
+
+    private String repository;
+
+    private String method;
+
+    private long calls;
+
+    private long errors;
+
+    /**
+     * Mean duration of a call, in milliseconds.
+     */
+    @JsonProperty("mean_time")
+    private double meanTime;
+
+    /**
+     * Maximum duration of a call, in milliseconds.
+     */
+    @JsonProperty("max_time")
+    private double maxTime;
+
+    @JsonProperty("percentile_50")
+    private double percentile50;
+
+    @JsonProperty("percentile_95")
+    private double percentile95;
+
+    @JsonProperty("percentile_99")
+    private double percentile99;
+
+    /**
+     * Mean number of items returned by a call, for the methods returning a collection or a page.
+     */
+    @JsonProperty("mean_result_size")
+    private double meanResultSize;
+
+    @JsonProperty("max_result_size")
+    private long maxResultSize;
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public void setCalls(long calls) {
+        this.calls = calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public void setErrors(long errors) {
+        this.errors = errors;
+    }
+
+    public double getMeanTime() {
+        return meanTime;
+    }
+
+    public void setMeanTime(double meanTime) {
+        this.meanTime = meanTime;
+    }
+
+    public double getMaxTime() {
+        return maxTime;
+    }
+
+    public void setMaxTime(double maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    public double getPercentile50() {
+        return percentile50;
+    }
+
+    public void setPercentile50(double percentile50) {
+        this.percentile50 = percentile50;
+    }
+
+    public double getPercentile95() {
+        return percentile95;
+    }
+
+    public void setPercentile95(double percentile95) {
+        this.percentile95 = percentile95;
+    }
+
+    public double getPercentile99() {
+        return percentile99;
+    }
+
+    public void setPercentile99(double percentile99) {
+        this.percentile99 = percentile99;
+    }
+
+    public double getMeanResultSize() {
+        return meanResultSize;
+    }
+
+    public void setMeanResultSize(double meanResultSize) {
+        this.meanResultSize = meanResultSize;
+    }
+
+    public long getMaxResultSize() {
+        return maxResultSize;
+    }
+
+    public void setMaxResultSize(long maxResultSize) {
+        this.maxResultSize = maxResultSize;
+    }
+}
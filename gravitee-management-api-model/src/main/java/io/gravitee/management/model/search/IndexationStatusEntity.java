@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.search;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Date;
+
+/**
+ * Progress of the indexation of the entities into the search engine.
+ *
+ * @author GraviteeSource Team
+ */
+public class IndexationStatusEntity {
+
+    private boolean running;
+
+    @JsonProperty("started_at")
+    private Date startedAt;
+
+    @JsonProperty("ended_at")
+    private Date endedAt;
+
+    /**
+     * Number of entities (APIs and users) to process, known so far.
+     */
+    private long total;
+
+    /**
+     * Number of entities already processed.
+     */
+    private long processed;
+
+    /**
+     * Number of documents sent to the index.
+     */
+    private long indexed;
+
+    @JsonProperty("documents_per_second")
+    private double documentsPerSecond;
+
+    /**
+     * Number of times the index searcher has been reopened to see the latest changes.
+     */
+    @JsonProperty("searcher_refresh_count")
+    private long searcherRefreshCount;
+
+    @JsonProperty("searcher_last_refresh_at")
+    private Date searcherLastRefreshAt;
+
+    /**
+     * Duration (in milliseconds) of the last refresh of the index searcher.
+     */
+    @JsonProperty("searcher_last_refresh_time")
+    private long searcherLastRefreshTime;
+
+    @JsonProperty("searcher_average_refresh_time")
+    private long searcherAverageRefreshTime;
+
+    @JsonProperty("searcher_max_refresh_time")
+    private long searcherMaxRefreshTime;
+
+    /**
+     * <code>false</code> when the last batch of index operations could not be fully applied and committed.
+     */
+    @JsonProperty("index_healthy")
+    private boolean indexHealthy;
+
+    /**
+     * Number of index operations waiting to be applied, including the failed ones to be retried.
+     */
+    @JsonProperty("index_pending")
+    private long indexPending;
+
+    @JsonProperty("index_failures")
+    private long indexFailures;
+
+    /**
+     * Number of index operations given up after all their retries failed.
+     */
+    @JsonProperty("index_dropped")
+    private long indexDropped;
+
+    @JsonProperty("index_last_failure")
+    private String indexLastFailure;
+
+    @JsonProperty("index_last_failure_at")
+    private Date indexLastFailureAt;
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(Date endedAt) {
+        this.endedAt = endedAt;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(long indexed) {
+        this.indexed = indexed;
+    }
+
+    public long getRemaining() {
+        return Math.max(0, total - processed);
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+
+    public long getSearcherRefreshCount() {
+        return searcherRefreshCount;
+    }
+
+    public void setSearcherRefreshCount(long searcherRefreshCount) {
+        this.searcherRefreshCount = searcherRefreshCount;
+    }
+
+    public Date getSearcherLastRefreshAt() {
+        return searcherLastRefreshAt;
+    }
+
+    public void setSearcherLastRefreshAt(Date searcherLastRefreshAt) {
+        this.searcherLastRefreshAt = searcherLastRefreshAt;
+    }
+
+    public long getSearcherLastRefreshTime() {
+        return searcherLastRefreshTime;
+    }
+
+    public void setSearcherLastRefreshTime(long searcherLastRefreshTime) {
+        this.searcherLastRefreshTime = searcherLastRefreshTime;
+    }
+
+    public long getSearcherAverageRefreshTime() {
+        return searcherAverageRefreshTime;
+    }
+
+    public void setSearcherAverageRefreshTime(long searcherAverageRefreshTime) {
+        this.searcherAverageRefreshTime = searcherAverageRefreshTime;
+    }
+
+    public long getSearcherMaxRefreshTime() {
+        return searcherMaxRefreshTime;
+    }
+
+    public void setSearcherMaxRefreshTime(long searcherMaxRefreshTime) {
+        this.searcherMaxRefreshTime = searcherMaxRefreshTime;
+    }
+
+    public boolean isIndexHealthy() {
+        return indexHealthy;
+    }
+
+    public void setIndexHealthy(boolean indexHealthy) {
+        this.indexHealthy = indexHealthy;
+    }
+
+    public long getIndexPending() {
+        return indexPending;
+    }
+
+    public void setIndexPending(long indexPending) {
+        this.indexPending = indexPending;
+    }
+
+    public long getIndexFailures() {
+        return indexFailures;
+    }
+
+    public void setIndexFailures(long indexFailures) {
+        this.indexFailures = indexFailures;
+    }
+
+    public long getIndexDropped() {
+        return indexDropped;
+    }
+
+    public void setIndexDropped(long indexDropped) {
+        this.indexDropped = indexDropped;
+    }
+
+    public String getIndexLastFailure() {
+        return indexLastFailure;
+    }
+
+    public void setIndexLastFailure(String indexLastFailure) {
+        this.indexLastFailure = indexLastFailure;
+    }
+
+    public Date getIndexLastFailureAt() {
+        return indexLastFailureAt;
+    }
+
+    public void setIndexLastFailureAt(Date indexLastFailureAt) {
+        this.indexLastFailureAt = indexLastFailureAt;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexationStatusEntity{" +
+                "running=" + running +
+                ", startedAt=" + startedAt +
+                ", endedAt=" + endedAt +
+                ", total=" + total +
+                ", processed=" + processed +
+                ", indexed=" + indexed +
+                ", documentsPerSecond=" + documentsPerSecond +
+                ", searcherRefreshCount=" + searcherRefreshCount +
+                ", indexHealthy=" + indexHealthy +
+                ", indexFailures=" + indexFailures +
+                ", indexDropped=" + indexDropped +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+/**
+ * Sends the invalidations of the repository caches to the other management nodes of the cluster.
+ *
+ * No implementation is provided: when a bean implementing this interface is declared, it is notified each time a
+ * cache is cleared after a write, and the other nodes are expected to call
+ * {@link RepositoryCacheManager#onRemoteInvalidation(String)} when they receive the invalidation.
+ *
+ * @author GraviteeSource Team
+ */
+public interface CacheInvalidationBroadcaster {
+
+    void broadcast(String cacheName);
+}
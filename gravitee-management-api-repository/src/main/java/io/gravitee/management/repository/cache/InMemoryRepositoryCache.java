@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least recently used cache, kept in memory, whose entries expire after a time to live.
+ *
+ * Values are loaded outside of the lock, so that a slow repository does not block the readers of the other keys. A
+ * value loaded while the cache is cleared is not cached, since it may have been read before the write which caused
+ * the clear.
+ *
+ * @author GraviteeSource Team
+ */
+public class InMemoryRepositoryCache implements RepositoryCache {
+
+    private final String name;
+    private final long ttl;
+    private final int maxSize;
+
+    private final Map<Object, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Incremented each time the cache is cleared.
+     */
+    private long generation;
+
+    public InMemoryRepositoryCache(String name, long ttl, int maxSize) {
+        this.name = name;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > InMemoryRepositoryCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> V get(Object key, Loader<V> loader) throws TechnicalException {
+        final long loadGeneration;
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expireAt > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return (V) entry.value;
+                }
+
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+
+            misses.incrementAndGet();
+            loadGeneration = generation;
+        }
+
+        V value = loader.load();
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(value, System.currentTimeMillis() + ttl));
+            }
+        }
+
+        return value;
+    }
+
+    @Override
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new CacheStatistics(hits.get(), misses.get(), evictions.get(), size);
+    }
+
+    private static class Entry {
+
+        private final Object value;
+        private final long expireAt;
+
+        Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
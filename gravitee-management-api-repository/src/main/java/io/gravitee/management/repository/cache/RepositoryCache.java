@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+
+/**
+ * Cache of the results read from a repository.
+ *
+ * @author GraviteeSource Team
+ */
+public interface RepositoryCache {
+
+    /**
+     * @return the name of the cached repository.
+     */
+    String getName();
+
+    /**
+     * Returns the value cached for the given key, or loads it from the repository and caches it.
+     */
+    <V> V get(Object key, Loader<V> loader) throws TechnicalException;
+
+    /**
+     * Removes all the values from the cache.
+     */
+    void clear();
+
+    CacheStatistics getStatistics();
+
+    @FunctionalInterface
+    interface Loader<V> {
+
+        V load() throws TechnicalException;
+    }
+}
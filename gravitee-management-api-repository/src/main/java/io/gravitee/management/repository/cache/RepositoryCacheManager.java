@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the repository caches enabled in the configuration:
+ *
+ * <pre>
+ * repositories:
+ *   cache:
+ *     role:
+ *       enabled: true
+ *       ttl: 60000
+ *       maxSize: 1000
+ * </pre>
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class RepositoryCacheManager {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(RepositoryCacheManager.class);
+
+    private static final String PROPERTY_PREFIX = "repositories.cache.";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired(required = false)
+    private CacheInvalidationBroadcaster broadcaster;
+
+    private final Map<String, RepositoryCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @return the cache of the given repository, <code>null</code> if it is not enabled.
+     */
+    public RepositoryCache getCache(String name) {
+        final String prefix = PROPERTY_PREFIX + name;
+        if (!environment.getProperty(prefix + ".enabled", Boolean.class, false)) {
+            return null;
+        }
+
+        return caches.computeIfAbsent(name, cacheName -> {
+            long ttl = environment.getProperty(prefix + ".ttl", Long.class, 60000L);
+            int maxSize = environment.getProperty(prefix + ".maxSize", Integer.class, 1000);
+            logger.info("Cache of the {} repository is enabled (ttl: {} ms, maxSize: {})", cacheName, ttl, maxSize);
+            return new InMemoryRepositoryCache(cacheName, ttl, maxSize);
+        });
+    }
+
+    /**
+     * Clears the given cache after its repository has been written, on this node and on the other nodes of the
+     * cluster if a {@link CacheInvalidationBroadcaster} is available.
+     */
+    public void invalidate(String name) {
+        RepositoryCache cache = caches.get(name);
+        if (cache != null) {
+            cache.clear();
+
+            if (broadcaster != null) {
+                try {
+                    broadcaster.broadcast(name);
+                } catch (Exception ex) {
+                    logger.error("Unable to broadcast the invalidation of the {} cache", name, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the given cache after its repository has been written by another node.
+     */
+    public void onRemoteInvalidation(String name) {
+        RepositoryCache cache = caches.get(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the statistics of the enabled caches, by repository.
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        Map<String, CacheStatistics> statistics = new TreeMap<>();
+        caches.forEach((name, cache) -> statistics.put(name, cache.getStatistics()));
+        return statistics;
+    }
+
+    public void setBroadcaster(CacheInvalidationBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import io.gravitee.common.data.domain.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Measures the calls made to a repository.
+ *
+ * The metrics of all the methods of the repository are created upfront, so that measuring a call only consists in a
+ * lookup and a few counter increments. A call through the dynamic proxy is not free of allocations though: the proxy
+ * allocates the array of arguments, and boxes the primitive arguments and results.
+ *
+ * @author GraviteeSource Team
+ */
+class InstrumentedRepositoryHandler implements InvocationHandler {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(InstrumentedRepositoryHandler.class);
+
+    private final Object target;
+    private final Map<Method, MethodMetrics> metrics;
+    private final long slowThreshold;
+
+    InstrumentedRepositoryHandler(Object target, Map<Method, MethodMetrics> metrics, long slowThreshold) {
+        this.target = target;
+        this.metrics = metrics;
+        this.slowThreshold = slowThreshold * 1_000_000;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final MethodMetrics methodMetrics = metrics.get(method);
+        if (methodMetrics == null) {
+            // equals, hashCode, toString
+            return invokeTarget(method, args);
+        }
+
+        final long start = System.nanoTime();
+        boolean error = true;
+        try {
+            Object result = invokeTarget(method, args);
+            error = false;
+
+            if (result instanceof Collection) {
+                methodMetrics.recordResultSize(((Collection) result).size());
+            } else if (result instanceof Page) {
+                Collection content = ((Page) result).getContent();
+                methodMetrics.recordResultSize(content == null ? 0 : content.size());
+            }
+
+            return result;
+        } finally {
+            final long elapsed = System.nanoTime() - start;
+            methodMetrics.record(elapsed, error);
+
+            if (elapsed >= slowThreshold) {
+                logger.warn("Slow call to {}.{}: {} ms", methodMetrics.getRepository(), methodMetrics.getMethod(),
+                        elapsed / 1_000_000);
+            }
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+}
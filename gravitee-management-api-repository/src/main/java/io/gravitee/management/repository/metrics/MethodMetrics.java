@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MethodMetrics implements MethodMetricsMXBean {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    private static final double MICROS_PER_MILLI = 1_000d;
+
+    private final String repository;
+    private final String method;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final AtomicLong maxTime = new AtomicLong();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private final LongAdder sizedCalls = new LongAdder();
+    private final LongAdder totalResultSize = new LongAdder();
+    private final AtomicLong maxResultSize = new AtomicLong();
+
+    MethodMetrics(String repository, String method) {
+        this.repository = repository;
+        this.method = method;
+    }
+
+    void record(long nanos, boolean error) {
+        calls.increment();
+        if (error) {
+            errors.increment();
+        }
+        totalTime.add(nanos);
+        histogram.record(nanos);
+
+        long max = maxTime.get();
+        while (nanos > max && !maxTime.compareAndSet(max, nanos)) {
+            max = maxTime.get();
+        }
+    }
+
+    void recordResultSize(int size) {
+        sizedCalls.increment();
+        totalResultSize.add(size);
+
+        long max = maxResultSize.get();
+        while (size > max && !maxResultSize.compareAndSet(max, size)) {
+            max = maxResultSize.get();
+        }
+    }
+
+    @Override
+    public String getRepository() {
+        return repository;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanTime() {
+        long count = calls.sum();
+        return count == 0 ? 0 : totalTime.sum() / NANOS_PER_MILLI / count;
+    }
+
+    @Override
+    public double getMaxTime() {
+        return maxTime.get() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getPercentile50() {
+        return histogram.getValueAtPercentile(50) / MICROS_PER_MILLI;
+    }
+
+    @Override
+    public double getPercentile95() {
+        return histogram.getValueAtPercentile(95) / MICROS_PER_MILLI;
+    }
+
+    @Override
+    public double getPercentile99() {
+        return histogram.getValueAtPercentile(99) / MICROS_PER_MILLI;
+    }
+
+    @Override
+    public double getMeanResultSize() {
+        long count = sizedCalls.sum();
+        return count == 0 ? 0 : (double) totalResultSize.sum() / count;
+    }
+
+    @Override
+    public long getMaxResultSize() {
+        return maxResultSize.get();
+    }
+}
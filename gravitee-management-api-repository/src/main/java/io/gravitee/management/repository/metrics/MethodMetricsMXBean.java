@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+/**
+ * Metrics of the calls to a repository method, exposed through JMX.
+ *
+ * @author GraviteeSource Team
+ */
+public interface MethodMetricsMXBean {
+
+    String getRepository();
+
+    String getMethod();
+
+    long getCalls();
+
+    long getErrors();
+
+    /**
+     * @return the mean duration of a call, in milliseconds.
+     */
+    double getMeanTime();
+
+    /**
+     * @return the maximum duration of a call, in milliseconds.
+     */
+    double getMaxTime();
+
+    double getPercentile50();
+
+    double getPercentile95();
+
+    double getPercentile99();
+
+    /**
+     * @return the mean number of items returned by a call, for the methods returning a collection or a page.
+     */
+    double getMeanResultSize();
+
+    long getMaxResultSize();
+}
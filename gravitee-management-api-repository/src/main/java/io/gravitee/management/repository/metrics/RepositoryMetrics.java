@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the calls to the repositories: number of calls and errors, latency distribution and size of the returned
+ * collections, by method. Each method is also registered as a MBean in the platform MBean server, and a warning is
+ * logged for each call lasting more than the slow threshold.
+ *
+ * Disabled by default: once enabled, every repository call goes through a dynamic proxy.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class RepositoryMetrics implements DisposableBean {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(RepositoryMetrics.class);
+
+    private static final String JMX_DOMAIN = "io.gravitee.management";
+
+    @Value("${repositories.metrics.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Calls lasting more than this threshold (in milliseconds) are logged.
+     */
+    @Value("${repositories.metrics.slowThreshold:1000}")
+    private long slowThreshold = 1000;
+
+    @Value("${repositories.metrics.jmx:true}")
+    private boolean jmx = true;
+
+    private final List<MethodMetrics> metrics = new CopyOnWriteArrayList<>();
+
+    private final List<ObjectName> registeredNames = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return a proxy measuring the calls to the given repository, or the repository itself if metrics are disabled.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T instrument(Class<T> repositoryClass, T repository) {
+        if (!enabled || !repositoryClass.isInterface()) {
+            return repository;
+        }
+
+        final String repositoryName = repositoryClass.getSimpleName();
+        final Map<Method, MethodMetrics> methodMetrics = new HashMap<>();
+        final Set<String> overloaded = overloadedMethods(repositoryClass);
+
+        for (Method method : repositoryClass.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+
+            String methodName = overloaded.contains(method.getName()) ? signature(method) : method.getName();
+            MethodMetrics metric = new MethodMetrics(repositoryName, methodName);
+            methodMetrics.put(method, metric);
+            metrics.add(metric);
+            register(metric);
+        }
+
+        return (T) Proxy.newProxyInstance(
+                repositoryClass.getClassLoader(),
+                new Class<?>[]{repositoryClass},
+                new InstrumentedRepositoryHandler(repository, methodMetrics, slowThreshold));
+    }
+
+    /**
+     * @return the metrics of the methods which have been called at least once, by repository and method.
+     */
+    public List<MethodMetrics> getMetrics() {
+        return metrics
+                .stream()
+                .filter(metric -> metric.getCalls() > 0)
+                .sorted(Comparator.comparing(MethodMetrics::getRepository).thenComparing(MethodMetrics::getMethod))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void destroy() {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredNames) {
+            try {
+                mBeanServer.unregisterMBean(name);
+            } catch (Exception ex) {
+                logger.debug("Unable to unregister MBean {}", name, ex);
+            }
+        }
+        registeredNames.clear();
+    }
+
+    private void register(MethodMetrics metric) {
+        if (!jmx) {
+            return;
+        }
+
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=Repository" +
+                    ",repository=" + metric.getRepository() +
+                    ",method=" + ObjectName.quote(metric.getMethod()));
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (!mBeanServer.isRegistered(name)) {
+                mBeanServer.registerMBean(metric, name);
+                registeredNames.add(name);
+            }
+        } catch (Exception ex) {
+            logger.warn("Unable to register the metrics of {}.{} in JMX", metric.getRepository(), metric.getMethod(), ex);
+        }
+    }
+
+    private static Set<String> overloadedMethods(Class<?> repositoryClass) {
+        Set<String> names = new HashSet<>();
+        Set<String> overloaded = new HashSet<>();
+        for (Method method : repositoryClass.getMethods()) {
+            if (!names.add(method.getName())) {
+                overloaded.add(method.getName());
+            }
+        }
+        return overloaded;
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+}
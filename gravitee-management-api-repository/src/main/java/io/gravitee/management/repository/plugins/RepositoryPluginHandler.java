@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.repository.plugins;
 
+import io.gravitee.management.repository.metrics.RepositoryMetrics;
 import io.gravitee.management.repository.proxy.AbstractProxy;
 import io.gravitee.plugin.core.api.*;
 import io.gravitee.plugin.core.internal.AnnotationBasedPluginContextConfigurer;
@@ -55,6 +56,9 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private RepositoryMetrics repositoryMetrics;
+
     private final Map<Scope, Repository> repositories = new HashMap<>();
     private final Map<Scope, String> repositoryTypeByScope = new HashMap<>();
     private final Map<String, Collection<Scope>> scopeByRepositoryType = new HashMap<>();
@@ -133,7 +137,7 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
                         Object proxyRepository = beanFactory.getBean(repositoryItfClass);
                         if (proxyRepository instanceof AbstractProxy) {
                             AbstractProxy proxy = (AbstractProxy) proxyRepository;
-                            proxy.setTarget(repositoryClassInstance);
+                            proxy.setTarget(instrument(repositoryItfClass, repositoryClassInstance));
                         }
                     } catch (NoSuchBeanDefinitionException nsbde) {
                         LOGGER.debug("Unable to proxify {} [{}]", beanName, repositoryItfClass);
@@ -145,6 +149,10 @@ public class RepositoryPluginHandler implements PluginHandler, InitializingBean
         }
     }
 
+    private <T> T instrument(Class<T> repositoryClass, Object repository) {
+        return repositoryMetrics.instrument(repositoryClass, repositoryClass.cast(repository));
+    }
+
     private String lookForRepositoryType(Scope scope) throws Exception {
         String repositoryType = environment.getProperty(scope.getName() + ".type");
         LOGGER.info("Loading repository for scope {}: {}", scope, repositoryType);
@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.proxy;
+
+import io.gravitee.management.repository.cache.RepositoryCache;
+import io.gravitee.management.repository.cache.RepositoryCacheManager;
+import io.gravitee.repository.exceptions.TechnicalException;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * Proxy whose reads can be cached, the cache being cleared each time the repository is written.
+ *
+ * Cached values are shared by all the callers: the values which can be modified by the callers, such as models, must
+ * be read with {@link #cached(UnaryOperator, RepositoryCache.Loader, Object...)} so that each caller gets its own copy.
+ *
+ * @author GraviteeSource Team
+ */
+public abstract class AbstractCachingProxy<T> extends AbstractProxy<T> implements InitializingBean {
+
+    private final String cacheName;
+
+    @Autowired
+    private RepositoryCacheManager cacheManager;
+
+    private RepositoryCache cache;
+
+    protected AbstractCachingProxy(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = cacheManager.getCache(cacheName);
+    }
+
+    protected <V> V cached(RepositoryCache.Loader<V> loader, Object... key) throws TechnicalException {
+        return cache == null ? loader.load() : cache.get(Arrays.asList(key), loader);
+    }
+
+    /**
+     * @param copy copies the value returned by the repository, applied to each value read from the cache.
+     */
+    protected <V> V cached(UnaryOperator<V> copy, RepositoryCache.Loader<V> loader, Object... key) throws TechnicalException {
+        return cache == null ? loader.load() : copy.apply(cache.get(Arrays.asList(key), loader));
+    }
+
+    protected void invalidate() {
+        if (cache != null) {
+            cacheManager.invalidate(cacheName);
+        }
+    }
+}
@@ -19,47 +19,100 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.GroupRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.model.Group;
+import io.gravitee.repository.management.model.GroupEventRule;
 import io.gravitee.repository.management.model.Membership;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com) 
  * @author GraviteeSource Team
  */
 @Component
-public class GroupRepositoryProxy extends AbstractProxy<GroupRepository> implements GroupRepository {
+public class GroupRepositoryProxy extends AbstractCachingProxy<GroupRepository> implements GroupRepository {
+
+    public GroupRepositoryProxy() {
+        super("group");
+    }
+
     @Override
     public Optional<Group> findById(String id) throws TechnicalException {
-        return target.findById(id);
+        return cached(group -> group.map(GroupRepositoryProxy::copy), () -> target.findById(id), "findById", id);
     }
 
     @Override
     public Group create(Group item) throws TechnicalException {
-        return target.create(item);
+        try {
+            return target.create(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Group update(Group item) throws TechnicalException {
-        return target.update(item);
+        try {
+            return target.update(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
-        target.delete(s);
+        try {
+            target.delete(s);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Set<Group> findAll() throws TechnicalException {
-        return target.findAll();
+        return cached(GroupRepositoryProxy::copy, target::findAll, "findAll");
     }
 
     @Override
     public Set<Group> findByIds(Set<String> ids) throws TechnicalException {
-        return target.findByIds(ids);
+        return cached(GroupRepositoryProxy::copy, () -> target.findByIds(ids), "findByIds", ids == null ? null : new HashSet<>(ids));
+    }
+
+    private static Set<Group> copy(Set<Group> groups) {
+        return groups.stream().map(GroupRepositoryProxy::copy).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Group copy(Group group) {
+        Group copy = new Group();
+        copy.setId(group.getId());
+        copy.setName(group.getName());
+        if (group.getEventRules() != null) {
+            copy.setEventRules(group.getEventRules()
+                    .stream()
+                    .map(rule -> {
+                        GroupEventRule copyRule = new GroupEventRule();
+                        copyRule.setEvent(rule.getEvent());
+                        return copyRule;
+                    })
+                    .collect(Collectors.toList()));
+        }
+        if (group.getRoles() != null) {
+            copy.setRoles(new HashMap<>(group.getRoles()));
+        }
+        copy.setCreatedAt(group.getCreatedAt());
+        copy.setUpdatedAt(group.getUpdatedAt());
+        copy.setMaxInvitation(group.getMaxInvitation());
+        copy.setLockApiRole(group.isLockApiRole());
+        copy.setLockApplicationRole(group.isLockApplicationRole());
+        copy.setSystemInvitation(group.isSystemInvitation());
+        copy.setEmailInvitation(group.isEmailInvitation());
+        return copy;
     }
 }
@@ -20,38 +20,93 @@ import io.gravitee.repository.management.api.ParameterRepository;
 import io.gravitee.repository.management.model.Parameter;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * @author Azize ELAMRANI (azize at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class ParameterRepositoryProxy extends AbstractProxy<ParameterRepository> implements ParameterRepository {
+public class ParameterRepositoryProxy extends AbstractCachingProxy<ParameterRepository> implements ParameterRepository {
+
+    /**
+     * Parameters shared by the nodes of a cluster (such as the leader lease) are written concurrently by the other
+     * nodes, they are never cached, and writing them does not clear the cache.
+     */
+    private static final String CLUSTER_PARAMETERS_PREFIX = "cluster.";
+
+    public ParameterRepositoryProxy() {
+        super("parameter");
+    }
 
     @Override
     public Optional<Parameter> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        if (isClusterParameter(s)) {
+            return target.findById(s);
+        }
+        return cached(parameter -> parameter.map(ParameterRepositoryProxy::copy), () -> target.findById(s), "findById", s);
     }
 
     @Override
     public List<Parameter> findAll(List<String> keys) throws TechnicalException {
-        return target.findAll(keys);
+        if (keys != null && keys.stream().anyMatch(ParameterRepositoryProxy::isClusterParameter)) {
+            return target.findAll(keys);
+        }
+        return cached(parameters -> parameters.stream().map(ParameterRepositoryProxy::copy).collect(Collectors.toList()),
+                () -> target.findAll(keys), "findAll", keys == null ? null : new ArrayList<>(keys));
     }
 
     @Override
     public Parameter create(Parameter item) throws TechnicalException {
-        return target.create(item);
+        if (isClusterParameter(item.getKey())) {
+            return target.create(item);
+        }
+
+        try {
+            return target.create(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Parameter update(Parameter item) throws TechnicalException {
-        return target.update(item);
+        if (isClusterParameter(item.getKey())) {
+            return target.update(item);
+        }
+
+        try {
+            return target.update(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
-        target.delete(s);
+        if (isClusterParameter(s)) {
+            target.delete(s);
+            return;
+        }
+
+        try {
+            target.delete(s);
+        } finally {
+            invalidate();
+        }
+    }
+
+    private static Parameter copy(Parameter parameter) {
+        Parameter copy = new Parameter();
+        copy.setKey(parameter.getKey());
+        copy.setValue(parameter.getValue());
+        return copy;
+    }
+
+    private static boolean isClusterParameter(String key) {
+        return key != null && key.startsWith(CLUSTER_PARAMETERS_PREFIX);
     }
 }
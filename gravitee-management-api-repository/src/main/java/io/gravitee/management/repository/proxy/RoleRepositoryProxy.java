@@ -21,43 +21,73 @@ import io.gravitee.repository.management.model.Role;
 import io.gravitee.repository.management.model.RoleScope;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class RoleRepositoryProxy extends AbstractProxy<RoleRepository> implements RoleRepository {
+public class RoleRepositoryProxy extends AbstractCachingProxy<RoleRepository> implements RoleRepository {
+
+    public RoleRepositoryProxy() {
+        super("role");
+    }
 
     @Override
     public Optional<Role> findById(RoleScope scope, String name) throws TechnicalException {
-        return target.findById(scope, name);
+        return cached(role -> role.map(RoleRepositoryProxy::copy), () -> target.findById(scope, name), "findById", scope, name);
     }
 
     @Override
     public Role create(Role item) throws TechnicalException {
-        return target.create(item);
+        try {
+            return target.create(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Role update(Role item) throws TechnicalException {
-        return target.update(item);
+        try {
+            return target.update(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Set<Role> findAll() throws TechnicalException {
-        return target.findAll();
+        return cached(RoleRepositoryProxy::copy, target::findAll, "findAll");
     }
 
     @Override
     public void delete(RoleScope scope, String name) throws TechnicalException {
-        target.delete(scope, name);
+        try {
+            target.delete(scope, name);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Set<Role> findByScope(RoleScope scope) throws TechnicalException {
-        return target.findByScope(scope);
+        return cached(RoleRepositoryProxy::copy, () -> target.findByScope(scope), "findByScope", scope);
+    }
+
+    private static Set<Role> copy(Set<Role> roles) {
+        return roles.stream().map(RoleRepositoryProxy::copy).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Role copy(Role role) {
+        Role copy = new Role(role);
+        if (role.getPermissions() != null) {
+            copy.setPermissions(role.getPermissions().clone());
+        }
+        return copy;
     }
 }
@@ -20,6 +20,7 @@ import io.gravitee.repository.management.api.TagRepository;
 import io.gravitee.repository.management.model.Tag;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -28,30 +29,46 @@ import java.util.Set;
  * @author GraviteeSource Team
  */
 @Component
-public class TagRepositoryProxy extends AbstractProxy<TagRepository> implements TagRepository {
+public class TagRepositoryProxy extends AbstractCachingProxy<TagRepository> implements TagRepository {
+
+    public TagRepositoryProxy() {
+        super("tag");
+    }
 
     @Override
     public Optional<Tag> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cached(() -> target.findById(s), "findById", s);
     }
 
     @Override
     public Tag create(Tag item) throws TechnicalException {
-        return target.create(item);
+        try {
+            return target.create(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Tag update(Tag item) throws TechnicalException {
-        return target.update(item);
+        try {
+            return target.update(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Set<Tag> findAll() throws TechnicalException {
-        return target.findAll();
+        return new LinkedHashSet<>(cached(target::findAll, "findAll"));
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
-        target.delete(s);
+        try {
+            target.delete(s);
+        } finally {
+            invalidate();
+        }
     }
 }
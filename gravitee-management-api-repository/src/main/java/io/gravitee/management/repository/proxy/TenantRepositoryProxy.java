@@ -20,6 +20,7 @@ import io.gravitee.repository.management.api.TenantRepository;
 import io.gravitee.repository.management.model.Tenant;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -28,30 +29,46 @@ import java.util.Set;
  * @author GraviteeSource Team
  */
 @Component
-public class TenantRepositoryProxy extends AbstractProxy<TenantRepository> implements TenantRepository {
+public class TenantRepositoryProxy extends AbstractCachingProxy<TenantRepository> implements TenantRepository {
+
+    public TenantRepositoryProxy() {
+        super("tenant");
+    }
 
     @Override
     public Optional<Tenant> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cached(() -> target.findById(s), "findById", s);
     }
 
     @Override
     public Tenant create(Tenant item) throws TechnicalException {
-        return target.create(item);
+        try {
+            return target.create(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Tenant update(Tenant item) throws TechnicalException {
-        return target.update(item);
+        try {
+            return target.update(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Set<Tenant> findAll() throws TechnicalException {
-        return target.findAll();
+        return new LinkedHashSet<>(cached(target::findAll, "findAll"));
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
-        target.delete(s);
+        try {
+            target.delete(s);
+        } finally {
+            invalidate();
+        }
     }
 }
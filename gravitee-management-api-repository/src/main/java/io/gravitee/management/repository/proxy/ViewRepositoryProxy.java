@@ -20,6 +20,7 @@ import io.gravitee.repository.management.api.ViewRepository;
 import io.gravitee.repository.management.model.View;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -28,30 +29,46 @@ import java.util.Set;
  * @author GraviteeSource Team
  */
 @Component
-public class ViewRepositoryProxy extends AbstractProxy<ViewRepository> implements ViewRepository {
+public class ViewRepositoryProxy extends AbstractCachingProxy<ViewRepository> implements ViewRepository {
+
+    public ViewRepositoryProxy() {
+        super("view");
+    }
 
     @Override
     public Optional<View> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cached(() -> target.findById(s), "findById", s);
     }
 
     @Override
     public View create(View item) throws TechnicalException {
-        return target.create(item);
+        try {
+            return target.create(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public View update(View item) throws TechnicalException {
-        return target.update(item);
+        try {
+            return target.update(item);
+        } finally {
+            invalidate();
+        }
     }
 
     @Override
     public Set<View> findAll() throws TechnicalException {
-        return target.findAll();
+        return new LinkedHashSet<>(cached(target::findAll, "findAll"));
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
-        target.delete(s);
+        try {
+            target.delete(s);
+        } finally {
+            invalidate();
+        }
     }
 }
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InMemoryRepositoryCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void shouldLoadOnMissAndReturnCachedValueOnHit() throws Exception {
+        InMemoryRepositoryCache cache = new InMemoryRepositoryCache("role", 60000, 10);
+
+        assertEquals("value-1", cache.get("key", this::load));
+        assertEquals("value-1", cache.get("key", this::load));
+
+        assertEquals(1, loads.get());
+        assertStatistics(cache, 1, 1, 0, 1);
+    }
+
+    @Test
+    public void shouldLoadExpiredValueAgain() throws Exception {
+        InMemoryRepositoryCache cache = new InMemoryRepositoryCache("role", 0, 10);
+
+        assertEquals("value-1", cache.get("key", this::load));
+        assertEquals("value-2", cache.get("key", this::load));
+
+        assertStatistics(cache, 0, 2, 1, 1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedValue() throws Exception {
+        InMemoryRepositoryCache cache = new InMemoryRepositoryCache("role", 60000, 2);
+
+        cache.get("key-a", this::load);
+        cache.get("key-b", this::load);
+        cache.get("key-a", this::load);
+        cache.get("key-c", this::load);
+
+        assertStatistics(cache, 1, 3, 1, 2);
+
+        // key-a has been read after key-b, so key-b has been evicted
+        assertEquals("value-1", cache.get("key-a", this::load));
+        assertEquals("value-4", cache.get("key-b", this::load));
+    }
+
+    @Test
+    public void shouldLoadAgainAfterClear() throws Exception {
+        InMemoryRepositoryCache cache = new InMemoryRepositoryCache("role", 60000, 10);
+
+        cache.get("key", this::load);
+        cache.clear();
+
+        assertStatistics(cache, 0, 1, 0, 0);
+        assertEquals("value-2", cache.get("key", this::load));
+    }
+
+    @Test
+    public void shouldNotCacheValueLoadedDuringClear() throws Exception {
+        InMemoryRepositoryCache cache = new InMemoryRepositoryCache("role", 60000, 10);
+
+        // The repository is written, and the cache cleared, while the value is being read
+        assertEquals("value-1", cache.get("key", () -> {
+            String value = load();
+            cache.clear();
+            return value;
+        }));
+
+        assertEquals(0, cache.getStatistics().getSize());
+        assertEquals("value-2", cache.get("key", this::load));
+    }
+
+    private String load() {
+        return "value-" + loads.incrementAndGet();
+    }
+
+    private static void assertStatistics(RepositoryCache cache, long hits, long misses, long evictions, int size) {
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals("hits", hits, statistics.getHits());
+        assertEquals("misses", misses, statistics.getMisses());
+        assertEquals("evictions", evictions, statistics.getEvictions());
+        assertEquals("size", size, statistics.getSize());
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RepositoryCacheManagerTest {
+
+    private final RepositoryCacheManager cacheManager = new RepositoryCacheManager();
+
+    private final List<String> broadcasts = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("repositories.cache.role.enabled", "true")
+                .withProperty("repositories.cache.role.maxSize", "1");
+        setField(cacheManager, "environment", environment);
+        cacheManager.setBroadcaster(broadcasts::add);
+    }
+
+    @Test
+    public void shouldCreateEnabledCachesOnly() throws Exception {
+        RepositoryCache cache = cacheManager.getCache("role");
+
+        assertNotNull(cache);
+        assertSame(cache, cacheManager.getCache("role"));
+        assertNull(cacheManager.getCache("group"));
+
+        cache.get("key-a", () -> "value-a");
+        cache.get("key-b", () -> "value-b");
+        assertEquals(1, cacheManager.getStatistics().get("role").getEvictions());
+        assertEquals(Collections.singleton("role"), cacheManager.getStatistics().keySet());
+    }
+
+    @Test
+    public void shouldClearAndBroadcastOnInvalidation() throws Exception {
+        RepositoryCache cache = cacheManager.getCache("role");
+        cache.get("key", () -> "value");
+
+        cacheManager.invalidate("role");
+        cacheManager.invalidate("group");
+
+        assertEquals(0, cache.getStatistics().getSize());
+        assertEquals(Collections.singletonList("role"), broadcasts);
+    }
+
+    @Test
+    public void shouldNotBroadcastRemoteInvalidation() throws Exception {
+        RepositoryCache cache = cacheManager.getCache("role");
+        cache.get("key", () -> "value");
+
+        cacheManager.onRemoteInvalidation("role");
+
+        assertEquals(0, cache.getStatistics().getSize());
+        assertTrue(broadcasts.isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void shouldReturnZeroWhenEmpty() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void shouldRecordInMicroseconds() {
+        histogram.record(1_500);
+        histogram.record(-1);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(1, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void shouldKeepSmallValuesExact() {
+        for (long value = 0; value < 8; value++) {
+            assertEquals(value, LatencyHistogram.highestValue(LatencyHistogram.index(value)));
+        }
+    }
+
+    @Test
+    public void shouldBoundValuesWithinPrecision() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            long highest = LatencyHistogram.highestValue(LatencyHistogram.index(value));
+            assertTrue(value + " <= " + highest, value <= highest);
+            assertTrue(highest + " within 12.5% of " + value, highest - value <= value / 8);
+        }
+
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void shouldUseContiguousBuckets() {
+        for (int index = 0; index < LatencyHistogram.index(Long.MAX_VALUE); index++) {
+            long highest = LatencyHistogram.highestValue(index);
+            assertEquals(index, LatencyHistogram.index(highest));
+            assertEquals(index + 1, LatencyHistogram.index(highest + 1));
+        }
+    }
+
+    @Test
+    public void shouldReturnValueAtPercentile() {
+        for (int i = 0; i < 90; i++) {
+            histogram.record(100_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(10_000_000);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertBucketOf(100, histogram.getValueAtPercentile(50));
+        assertBucketOf(100, histogram.getValueAtPercentile(90));
+        assertBucketOf(10_000, histogram.getValueAtPercentile(91));
+        assertBucketOf(10_000, histogram.getValueAtPercentile(99));
+        assertBucketOf(10_000, histogram.getValueAtPercentile(150));
+    }
+
+    private static void assertBucketOf(long micros, long value) {
+        assertEquals(LatencyHistogram.highestValue(LatencyHistogram.index(micros)), value);
+    }
+}
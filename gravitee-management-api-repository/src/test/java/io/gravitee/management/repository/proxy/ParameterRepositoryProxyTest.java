@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.proxy;
+
+import io.gravitee.management.repository.cache.RepositoryCacheManager;
+import io.gravitee.repository.management.api.ParameterRepository;
+import io.gravitee.repository.management.model.Parameter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ParameterRepositoryProxyTest {
+
+    private static final String PORTAL_KEY = "portal.title";
+    private static final String CLUSTER_KEY = "cluster.leader";
+
+    private final ParameterRepositoryProxy proxy = new ParameterRepositoryProxy();
+
+    @Mock
+    private ParameterRepository parameterRepository;
+
+    @Before
+    public void setUp() {
+        RepositoryCacheManager cacheManager = new RepositoryCacheManager();
+        setField(cacheManager, "environment", new MockEnvironment().withProperty("repositories.cache.parameter.enabled", "true"));
+        setField(proxy, "cacheManager", cacheManager);
+        proxy.afterPropertiesSet();
+        proxy.setTarget(parameterRepository);
+    }
+
+    @Test
+    public void shouldKeepCacheOnClusterParameterWrite() throws Exception {
+        when(parameterRepository.findById(PORTAL_KEY)).thenReturn(Optional.of(parameter(PORTAL_KEY, "Portal")));
+
+        proxy.findById(PORTAL_KEY);
+        proxy.create(parameter(CLUSTER_KEY, "node-1"));
+        proxy.update(parameter(CLUSTER_KEY, "node-2"));
+        proxy.delete(CLUSTER_KEY);
+        proxy.findById(PORTAL_KEY);
+
+        verify(parameterRepository, times(1)).findById(PORTAL_KEY);
+    }
+
+    @Test
+    public void shouldClearCacheOnParameterWrite() throws Exception {
+        when(parameterRepository.findById(PORTAL_KEY)).thenReturn(Optional.of(parameter(PORTAL_KEY, "Portal")));
+
+        proxy.findById(PORTAL_KEY);
+        proxy.update(parameter(PORTAL_KEY, "Developer portal"));
+        proxy.findById(PORTAL_KEY);
+
+        verify(parameterRepository, times(2)).findById(PORTAL_KEY);
+    }
+
+    @Test
+    public void shouldNotCacheClusterParameters() throws Exception {
+        when(parameterRepository.findById(CLUSTER_KEY)).thenReturn(Optional.of(parameter(CLUSTER_KEY, "node-1")));
+        when(parameterRepository.findAll(Collections.singletonList(CLUSTER_KEY)))
+                .thenReturn(Collections.singletonList(parameter(CLUSTER_KEY, "node-1")));
+
+        proxy.findById(CLUSTER_KEY);
+        proxy.findById(CLUSTER_KEY);
+        proxy.findAll(Collections.singletonList(CLUSTER_KEY));
+        proxy.findAll(Collections.singletonList(CLUSTER_KEY));
+
+        verify(parameterRepository, times(2)).findById(CLUSTER_KEY);
+        verify(parameterRepository, times(2)).findAll(Collections.singletonList(CLUSTER_KEY));
+    }
+
+    @Test
+    public void shouldNotShareCachedParameters() throws Exception {
+        when(parameterRepository.findById(PORTAL_KEY)).thenReturn(Optional.of(parameter(PORTAL_KEY, "Portal")));
+
+        proxy.findById(PORTAL_KEY).get().setValue("Modified");
+
+        assertEquals("Portal", proxy.findById(PORTAL_KEY).get().getValue());
+        verify(parameterRepository, times(1)).findById(PORTAL_KEY);
+    }
+
+    private static Parameter parameter(String key, String value) {
+        Parameter parameter = new Parameter();
+        parameter.setKey(key);
+        parameter.setValue(value);
+        return parameter;
+    }
+}
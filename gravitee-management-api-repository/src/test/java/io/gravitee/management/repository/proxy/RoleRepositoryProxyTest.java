@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.proxy;
+
+import io.gravitee.management.repository.cache.RepositoryCacheManager;
+import io.gravitee.repository.management.api.RoleRepository;
+import io.gravitee.repository.management.model.Role;
+import io.gravitee.repository.management.model.RoleScope;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RoleRepositoryProxyTest {
+
+    private final RoleRepositoryProxy proxy = new RoleRepositoryProxy();
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Before
+    public void setUp() {
+        RepositoryCacheManager cacheManager = new RepositoryCacheManager();
+        setField(cacheManager, "environment", new MockEnvironment().withProperty("repositories.cache.role.enabled", "true"));
+        setField(proxy, "cacheManager", cacheManager);
+        proxy.afterPropertiesSet();
+        proxy.setTarget(roleRepository);
+    }
+
+    @Test
+    public void shouldReadRepositoryOnce() throws Exception {
+        when(roleRepository.findById(RoleScope.API, "USER")).thenReturn(Optional.of(role("USER")));
+
+        assertEquals("USER", proxy.findById(RoleScope.API, "USER").get().getName());
+        assertEquals("USER", proxy.findById(RoleScope.API, "USER").get().getName());
+
+        verify(roleRepository, times(1)).findById(RoleScope.API, "USER");
+    }
+
+    @Test
+    public void shouldReadRepositoryAgainAfterWrite() throws Exception {
+        Role role = role("USER");
+        when(roleRepository.findByScope(RoleScope.API)).thenReturn(Collections.singleton(role));
+
+        proxy.findByScope(RoleScope.API);
+        proxy.update(role);
+        proxy.findByScope(RoleScope.API);
+
+        verify(roleRepository, times(2)).findByScope(RoleScope.API);
+    }
+
+    @Test
+    public void shouldReadRepositoryAgainAfterFailedWrite() throws Exception {
+        Role role = role("USER");
+        when(roleRepository.findAll()).thenReturn(Collections.singleton(role));
+        when(roleRepository.create(role)).thenThrow(new IllegalStateException("Write failure"));
+
+        proxy.findAll();
+        try {
+            proxy.create(role);
+            fail("The failure should be thrown");
+        } catch (IllegalStateException ise) {
+            // The write may have been applied anyway
+        }
+        proxy.findAll();
+
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    public void shouldNotShareCachedRoles() throws Exception {
+        Role role = role("USER");
+        role.setPermissions(new int[]{15});
+        when(roleRepository.findAll()).thenReturn(Collections.singleton(role));
+
+        Set<Role> roles = proxy.findAll();
+        Role cachedRole = roles.iterator().next();
+        cachedRole.setName("ADMIN");
+        cachedRole.getPermissions()[0] = 0;
+        roles.clear();
+
+        Role readAgain = proxy.findAll().iterator().next();
+        assertEquals("USER", readAgain.getName());
+        assertArrayEquals(new int[]{15}, readAgain.getPermissions());
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    private static Role role(String name) {
+        Role role = new Role();
+        role.setScope(RoleScope.API);
+        role.setName(name);
+        return role;
+    }
+}
@@ -42,6 +42,9 @@ public class Pageable {
     @Min(value = 1, message = "Page number should not be lesser than 1")
     private int page = DEFAULT_PAGE_NUMBER;
 
+    @QueryParam("cursor")
+    private String cursor;
+
     public int getSize() {
         return size;
     }
@@ -58,7 +61,15 @@ public class Pageable {
         this.page = page;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
     public io.gravitee.management.model.common.Pageable toPageable() {
-        return new PageableImpl(this.getPage(), this.getSize());
+        return new PageableImpl(this.getPage(), this.getSize(), this.getCursor());
     }
 }
@@ -15,7 +15,9 @@
  */
 package io.gravitee.management.rest.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.gravitee.management.model.common.CursorPage;
 
 import java.util.Collection;
 import java.util.Map;
@@ -29,6 +31,8 @@ public class PagedResult<T> {
     private final Collection<T> data;
     private Map<String, Map<String, Object>> metadata;
     private final Page page;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String cursor;
 
     public PagedResult(Collection<T> data, int pageNumber, int perPage, int totalElements) {
         this.data = data;
@@ -41,6 +45,9 @@ public class PagedResult<T> {
 
     public PagedResult(io.gravitee.common.data.domain.Page<T> page, int perPage) {
         this(page.getContent(), page.getPageNumber(), perPage, (int) page.getTotalElements());
+        if (page instanceof CursorPage) {
+            this.cursor = ((CursorPage<T>) page).getCursor();
+        }
     }
 
     public Collection<T> getData() {
@@ -59,6 +66,13 @@ public class PagedResult<T> {
         return page;
     }
 
+    /**
+     * @return the cursor to send with the next page request to fetch it efficiently, if any.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
     public class Page {
         /**
          * the current page number. Start to 1
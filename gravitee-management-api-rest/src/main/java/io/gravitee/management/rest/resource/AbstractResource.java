@@ -41,6 +41,8 @@ public abstract class AbstractResource {
     public final static String MANAGEMENT_ADMIN = RoleScope.MANAGEMENT.name() + ':' + SystemRole.ADMIN.name();
     public final static String PORTAL_ADMIN = RoleScope.PORTAL.name() + ':' + SystemRole.ADMIN.name();
 
+    public final static String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     @Context
     protected SecurityContext securityContext;
 
@@ -16,12 +16,14 @@
 package io.gravitee.management.rest.resource;
 
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.ImportSwaggerDescriptorEntity;
 import io.gravitee.management.model.RatingSummaryEntity;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.api.ApiListItem;
 import io.gravitee.management.model.api.ApiQuery;
+import io.gravitee.management.model.common.PageableImpl;
 import io.gravitee.management.model.api.NewApiEntity;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
@@ -41,6 +43,7 @@ import io.swagger.annotations.*;
 
 import javax.inject.Inject;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
 import javax.ws.rs.container.ResourceContext;
@@ -50,7 +53,6 @@ import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import java.net.URI;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static io.gravitee.management.model.Visibility.PUBLIC;
 import static io.gravitee.repository.management.model.View.ALL_ID;
@@ -124,11 +126,10 @@ public class ApisResource extends AbstractResource {
                     .collect(toList());
         }
 
-        return apis.stream()
+        return setManageable(apis.stream()
                 .map(this::convert)
-                .map(this::setManageable)
                 .sorted((o1, o2) -> String.CASE_INSENSITIVE_ORDER.compare(o1.getName(), o2.getName()))
-                .collect(toList());
+                .collect(toList()));
     }
 
     /**
@@ -234,32 +235,36 @@ public class ApisResource extends AbstractResource {
     @ApiOperation(value = "Search for API using the search engine")
     @ApiResponses({
             @ApiResponse(code = 200, message = "List accessible APIs for current user", response = ApiListItem.class, responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Invalid page or size"),
             @ApiResponse(code = 500, message = "Internal server error")})
     public Response searchApis(
             @ApiParam(name = "q", required = true)
-            @NotNull @QueryParam("q") String query) {
+            @NotNull @QueryParam("q") String query,
+            @ApiParam(name = "size", value = "Number of APIs per page, all the matching APIs are returned if not set")
+            @Min(1) @QueryParam("size") Integer size,
+            @ApiParam(name = "page", value = "Page number, starting from 1")
+            @Min(1) @QueryParam("page") @DefaultValue("1") int page) {
         try {
-            final Collection<ApiEntity> apis;
-            if (isAdmin()) {
-                apis = apiService.search(new ApiQuery());
-            } else {
-                if (isAuthenticated()) {
-                    apis = apiService.findByUser(getAuthenticatedUser(), new ApiQuery());
-                } else {
-                    ApiQuery apiQuery = new ApiQuery();
-                    apiQuery.setVisibility(PUBLIC);
-                    apis = apiService.search(apiQuery);
-                }
+            Map<String, Object> filters = new HashMap<>();
+            if (!isAdmin()) {
+                // Only APIs visible by the current user, public ones for an anonymous user
+                filters.put("visibleBy", isAuthenticated() ? getAuthenticatedUser() : null);
             }
 
-            Map<String, Object> filters = new HashMap<>();
-            filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
+            if (size == null) {
+                return Response.ok().entity(setManageable(apiService.search(query, filters)
+                        .stream()
+                        .map(this::convert)
+                        .collect(toList()))).build();
+            }
 
-            return Response.ok().entity(apiService.search(query, filters)
+            Page<ApiEntity> apisPage = apiService.search(query, filters, new PageableImpl(page, size));
+            return Response.ok().entity(setManageable(apisPage.getContent()
                     .stream()
                     .map(this::convert)
-                    .map(this::setManageable)
-                    .collect(toList())).build();
+                    .collect(toList())))
+                    .header(TOTAL_COUNT_HEADER, apisPage.getTotalElements())
+                    .build();
         } catch (TechnicalException te) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(te).build();
         }
@@ -319,10 +324,19 @@ public class ApisResource extends AbstractResource {
         return apiItem;
     }
 
-    private ApiListItem setManageable(ApiListItem api) {
-        api.setManageable(isAuthenticated() &&
-                (isAdmin() || hasPermission(RolePermission.API_GATEWAY_DEFINITION, api.getId(), RolePermissionAction.READ))
-        );
-        return api;
+    private List<ApiListItem> setManageable(List<ApiListItem> apis) {
+        if (!isAuthenticated() || apis.isEmpty()) {
+            return apis;
+        }
+
+        if (isAdmin()) {
+            apis.forEach(api -> api.setManageable(true));
+        } else {
+            // permissions of the user are resolved once for all the APIs
+            final Set<String> manageableApis = permissionService.hasPermissions(RolePermission.API_GATEWAY_DEFINITION,
+                    apis.stream().map(ApiListItem::getId).collect(toList()), RolePermissionAction.READ);
+            apis.forEach(api -> api.setManageable(manageableApis.contains(api.getId())));
+        }
+        return apis;
     }
 }
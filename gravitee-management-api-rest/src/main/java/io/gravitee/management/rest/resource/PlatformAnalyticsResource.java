@@ -36,6 +36,7 @@ import javax.ws.rs.BeanParam;
 import javax.ws.rs.GET;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -83,18 +84,20 @@ public class PlatformAnalyticsResource extends AbstractResource  {
             List<String> ids = null;
             if ("api".equals(analyticsParam.getField()) || "tenant".equals(analyticsParam.getField())) {
                 fieldName = "api";
-                ids = apiService.findByUser(getAuthenticatedUser(), null)
-                        .stream()
-                        .filter(api -> permissionService.hasPermission(API_ANALYTICS, api.getId(), READ))
-                        .map(ApiEntity::getId)
-                        .collect(Collectors.toList());
+                ids = new ArrayList<>(permissionService.hasPermissions(API_ANALYTICS,
+                        apiService.findByUser(getAuthenticatedUser(), null)
+                                .stream()
+                                .map(ApiEntity::getId)
+                                .collect(Collectors.toList()),
+                        READ));
             } else if ("application".equals(analyticsParam.getField())) {
                 fieldName = analyticsParam.getField();
-                ids = applicationService.findByUser(getAuthenticatedUser())
-                        .stream()
-                        .filter(app -> permissionService.hasPermission(APPLICATION_ANALYTICS, app.getId(), READ))
-                        .map(ApplicationEntity::getId)
-                        .collect(Collectors.toList());
+                ids = new ArrayList<>(permissionService.hasPermissions(APPLICATION_ANALYTICS,
+                        applicationService.findByUser(getAuthenticatedUser())
+                                .stream()
+                                .map(ApplicationEntity::getId)
+                                .collect(Collectors.toList()),
+                        READ));
             }
 
             if (fieldName != null) {
@@ -70,10 +70,11 @@ public class PlatformEventsResource  extends AbstractResource {
         } else if (!isAdmin()) {
             properties.put(
                     Event.EventProperties.API_ID.getValue(),
-                    apiService.findByUser(getAuthenticatedUser(), null)
-                            .stream()
-                            .filter(api -> permissionService.hasPermission(API_ANALYTICS, api.getId(), READ))
-                            .map(ApiEntity::getId).collect(Collectors.joining(",")));
+                    String.join(",", permissionService.hasPermissions(API_ANALYTICS,
+                            apiService.findByUser(getAuthenticatedUser(), null)
+                                    .stream()
+                                    .map(ApiEntity::getId).collect(Collectors.toList()),
+                            READ)));
         }
 
         Page<EventEntity> events = eventService.search(
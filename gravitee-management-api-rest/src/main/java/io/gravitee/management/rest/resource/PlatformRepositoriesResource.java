@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource;
+
+import io.gravitee.common.http.MediaType;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.model.platform.RepositoryCacheEntity;
+import io.gravitee.management.model.platform.RepositoryMetricsEntity;
+import io.gravitee.management.rest.security.Permission;
+import io.gravitee.management.rest.security.Permissions;
+import io.gravitee.management.service.RepositoryMetricsService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Api(tags = {"Gateway"})
+public class PlatformRepositoriesResource extends AbstractResource {
+
+    @Inject
+    private RepositoryMetricsService repositoryMetricsService;
+
+    @GET
+    @Path("metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the number of calls, latencies and result sizes of the repository methods called by this node")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Repository metrics", response = RepositoryMetricsEntity.class, responseContainer = "List"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public List<RepositoryMetricsEntity> getMetrics() {
+        return repositoryMetricsService.findMetrics();
+    }
+
+    @GET
+    @Path("caches")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the hits, misses and evictions of the repository caches of this node")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Repository caches statistics"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, RepositoryCacheEntity> getCaches() {
+        return repositoryMetricsService.findCaches();
+    }
+}
@@ -47,4 +47,9 @@ public class PlatformResource {
     public PlatformTicketsResource getPlatformTicketsResource() {
         return resourceContext.getResource(PlatformTicketsResource.class);
     }
+
+    @Path("repositories")
+    public PlatformRepositoriesResource getPlatformRepositoriesResource() {
+        return resourceContext.getResource(PlatformRepositoriesResource.class);
+    }
 }
@@ -16,11 +16,12 @@
 package io.gravitee.management.rest.resource.portal;
 
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.RatingSummaryEntity;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.api.ApiListItem;
-import io.gravitee.management.model.api.ApiQuery;
+import io.gravitee.management.model.common.PageableImpl;
 import io.gravitee.management.rest.resource.AbstractResource;
 import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.RatingService;
@@ -28,6 +29,7 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.swagger.annotations.*;
 
 import javax.inject.Inject;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
 import javax.ws.rs.container.ResourceContext;
@@ -35,12 +37,9 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
-import static io.gravitee.management.model.Visibility.PUBLIC;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -70,31 +69,36 @@ public class PortalApisResource extends AbstractResource {
     @ApiOperation(value = "Search for API using the search engine")
     @ApiResponses({
             @ApiResponse(code = 200, message = "List accessible APIs for current user", response = ApiListItem.class, responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Invalid page or size"),
             @ApiResponse(code = 500, message = "Internal server error")})
     public Response searchPortalApis(
             @ApiParam(name = "q", required = true)
-            @NotNull @QueryParam("q") String query) {
+            @NotNull @QueryParam("q") String query,
+            @ApiParam(name = "size", value = "Number of APIs per page, all the matching APIs are returned if not set")
+            @Min(1) @QueryParam("size") Integer size,
+            @ApiParam(name = "page", value = "Page number, starting from 1")
+            @Min(1) @QueryParam("page") @DefaultValue("1") int page) {
         try {
-            final Collection<ApiEntity> apis;
-            if (isAdmin()) {
-                apis = apiService.search(new ApiQuery());
-            } else {
-                if (isAuthenticated()) {
-                    apis = apiService.findByUser(getAuthenticatedUser(), new ApiQuery());
-                } else {
-                    ApiQuery apiQuery = new ApiQuery();
-                    apiQuery.setVisibility(PUBLIC);
-                    apis = apiService.search(apiQuery);
-                }
+            Map<String, Object> filters = new HashMap<>();
+            if (!isAdmin()) {
+                // Only APIs visible by the current user, public ones for an anonymous user
+                filters.put("visibleBy", isAuthenticated() ? getAuthenticatedUser() : null);
             }
 
-            Map<String, Object> filters = new HashMap<>();
-            filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
+            if (size == null) {
+                return Response.ok().entity(apiService.search(query, filters)
+                        .stream()
+                        .map(this::convert)
+                        .collect(toList())).build();
+            }
 
-            return Response.ok().entity(apiService.search(query, filters)
+            Page<ApiEntity> apisPage = apiService.search(query, filters, new PageableImpl(page, size));
+            return Response.ok().entity(apisPage.getContent()
                     .stream()
                     .map(this::convert)
-                    .collect(toList())).build();
+                    .collect(toList()))
+                    .header(TOTAL_COUNT_HEADER, apisPage.getTotalElements())
+                    .build();
         } catch (TechnicalException te) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(te).build();
         }
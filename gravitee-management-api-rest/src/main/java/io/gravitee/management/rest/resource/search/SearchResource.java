@@ -36,4 +36,9 @@ public class SearchResource {
     public SearchUsersResource getSearchUsersResource() {
         return resourceContext.getResource(SearchUsersResource.class);
     }
+
+    @Path("indexation")
+    public SearchIndexationResource getSearchIndexationResource() {
+        return resourceContext.getResource(SearchIndexationResource.class);
+    }
 }
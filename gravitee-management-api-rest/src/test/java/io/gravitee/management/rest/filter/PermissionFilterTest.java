@@ -15,20 +15,12 @@
  */
 package io.gravitee.management.rest.filter;
 
-import io.gravitee.management.model.api.ApiEntity;
-import io.gravitee.management.model.ApplicationEntity;
-import io.gravitee.management.model.RoleEntity;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
-import io.gravitee.management.service.ApiService;
-import io.gravitee.management.service.ApplicationService;
-import io.gravitee.management.service.MembershipService;
-import io.gravitee.management.service.RoleService;
+import io.gravitee.management.service.PermissionEngine;
 import io.gravitee.management.service.exceptions.ForbiddenAccessException;
-import io.gravitee.repository.management.model.MembershipReferenceType;
-import io.gravitee.repository.management.model.RoleScope;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -43,6 +35,7 @@ import java.security.Principal;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -55,20 +48,11 @@ public class PermissionFilterTest {
     @InjectMocks
     protected PermissionsFilter permissionFilter;
 
-    @Mock
-    protected ApiService apiService;
-
-    @Mock
-    protected ApplicationService applicationService;
-
     @Mock
     protected SecurityContext securityContext;
 
     @Mock
-    protected MembershipService membershipService;
-
-    @Mock
-    protected RoleService roleService;
+    protected PermissionEngine permissionEngine;
 
     @Mock
     protected Permissions permissions;
@@ -87,40 +71,34 @@ public class PermissionFilterTest {
         initMocks(this);
     }
 
-    /**
-     * API Tests
-     */
-    private ApiEntity initApiMocks() {
-        ApiEntity api = new ApiEntity();
-        api.setId(API_ID);
+    private void initMocks(RolePermission rolePermission, String key, String referenceId) {
         Principal user = () -> USERNAME;
-        when(apiService.findById(api.getId())).thenReturn(api);
         when(securityContext.getUserPrincipal()).thenReturn(user);
         Permission perm = mock(Permission.class);
-        when(perm.value()).thenReturn(RolePermission.API_ANALYTICS);
+        when(perm.value()).thenReturn(rolePermission);
         when(perm.acls()).thenReturn(new RolePermissionAction[]{RolePermissionAction.UPDATE});
         when(permissions.value()).thenReturn(new Permission[]{perm});
         UriInfo uriInfo = mock(UriInfo.class);
         MultivaluedHashMap<String, String> map = new MultivaluedHashMap<>();
-        map.put("api", Collections.singletonList(api.getId()));
+        if (key != null) {
+            map.put(key, Collections.singletonList(referenceId));
+        }
         when(uriInfo.getPathParameters()).thenReturn(map);
         when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        return api;
     }
 
+    /**
+     * API Tests
+     */
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoApiPermissions() {
-        ApiEntity api = initApiMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        initMocks(RolePermission.API_ANALYTICS, "api", API_ID);
+        when(permissionEngine.hasPermission(any(), any(), any(), any())).thenReturn(false);
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
-            verify(apiService, times(1)).findById(api.getId());
-            verify(applicationService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, times(1)).getMemberPermissions(api, USERNAME);
-            verify(membershipService, never()).getRole(any(), any(), any(), any());
+            verify(permissionEngine, times(1)).hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.UPDATE);
             throw e;
         }
 
@@ -129,51 +107,25 @@ public class PermissionFilterTest {
 
     @Test
     public void shouldBeAuthorizedWhenApiPermissions() {
-        ApiEntity api = initApiMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        initMocks(RolePermission.API_ANALYTICS, "api", API_ID);
+        when(permissionEngine.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.UPDATE)).thenReturn(true);
 
         permissionFilter.filter(permissions, containerRequestContext);
-        verify(apiService, times(1)).findById(api.getId());
-        verify(applicationService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, times(1)).getMemberPermissions(api, USERNAME);
-        verify(membershipService, never()).getRole(any(), any(), any(), any());
+        verify(permissionEngine, times(1)).hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.UPDATE);
     }
 
     /**
      * APPLICATION Tests
      */
-    private ApplicationEntity initApplicationMocks() {
-        ApplicationEntity application = new ApplicationEntity();
-        application.setId(APPLICATION_ID);
-        Principal user = () -> USERNAME;
-        when(applicationService.findById(application.getId())).thenReturn(application);
-        when(securityContext.getUserPrincipal()).thenReturn(user);
-        Permission perm = mock(Permission.class);
-        when(perm.value()).thenReturn(RolePermission.APPLICATION_ANALYTICS);
-        when(perm.acls()).thenReturn(new RolePermissionAction[]{RolePermissionAction.UPDATE});
-        when(permissions.value()).thenReturn(new Permission[]{perm});
-        UriInfo uriInfo = mock(UriInfo.class);
-        MultivaluedHashMap<String, String> map = new MultivaluedHashMap<>();
-        map.put("application", Collections.singletonList(application.getId()));
-        when(uriInfo.getPathParameters()).thenReturn(map);
-        when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        return application;
-    }
-
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoApplicationPermissions() {
-        ApplicationEntity application = initApplicationMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        initMocks(RolePermission.APPLICATION_ANALYTICS, "application", APPLICATION_ID);
+        when(permissionEngine.hasPermission(any(), any(), any(), any())).thenReturn(false);
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
-            verify(applicationService, times(1)).findById(application.getId());
-            verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, times(1)).getMemberPermissions(application, USERNAME);
-            verify(membershipService, never()).getRole(any(), any(), any(), any());
+            verify(permissionEngine, times(1)).hasPermission(USERNAME, RolePermission.APPLICATION_ANALYTICS, APPLICATION_ID, RolePermissionAction.UPDATE);
             throw e;
         }
 
@@ -182,47 +134,25 @@ public class PermissionFilterTest {
 
     @Test
     public void shouldBeAuthorizedWhenApplicationPermissions() {
-        ApplicationEntity application = initApplicationMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        initMocks(RolePermission.APPLICATION_ANALYTICS, "application", APPLICATION_ID);
+        when(permissionEngine.hasPermission(USERNAME, RolePermission.APPLICATION_ANALYTICS, APPLICATION_ID, RolePermissionAction.UPDATE)).thenReturn(true);
 
         permissionFilter.filter(permissions, containerRequestContext);
-        verify(apiService, never()).findById(any());
-        verify(applicationService, times(1)).findById(application.getId());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, times(1)).getMemberPermissions(application, USERNAME);
-        verify(membershipService, never()).getRole(any(), any(), any(), any());
+        verify(permissionEngine, times(1)).hasPermission(USERNAME, RolePermission.APPLICATION_ANALYTICS, APPLICATION_ID, RolePermissionAction.UPDATE);
     }
 
     /**
      * MANAGEMENT Tests
      */
-
-    private void initManagementMocks() {
-        Principal user = () -> USERNAME;
-        when(securityContext.getUserPrincipal()).thenReturn(user);
-        Permission perm = mock(Permission.class);
-        when(perm.value()).thenReturn(RolePermission.MANAGEMENT_API);
-        when(perm.acls()).thenReturn(new RolePermissionAction[]{RolePermissionAction.UPDATE});
-        when(permissions.value()).thenReturn(new Permission[]{perm});
-        UriInfo uriInfo = mock(UriInfo.class);
-        when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        when(membershipService.getRole(any(), any(), any(), any())).thenReturn(mock(RoleEntity.class));
-    }
-
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoManagementPermissions() {
-        initManagementMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        initMocks(RolePermission.MANAGEMENT_API, null, null);
+        when(permissionEngine.hasPermission(any(), any(), any(), any())).thenReturn(false);
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
-            verify(applicationService, never()).findById(any());
-            verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-            verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.MANAGEMENT), any(), any(), eq(RoleScope.MANAGEMENT));
+            verify(permissionEngine, times(1)).hasPermission(eq(USERNAME), eq(RolePermission.MANAGEMENT_API), isNull(), eq(RolePermissionAction.UPDATE));
             throw e;
         }
 
@@ -231,49 +161,26 @@ public class PermissionFilterTest {
 
     @Test
     public void shouldBeAuthorizedWhenManagementPermissions() {
-        initManagementMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        initMocks(RolePermission.MANAGEMENT_API, null, null);
+        when(permissionEngine.hasPermission(eq(USERNAME), eq(RolePermission.MANAGEMENT_API), isNull(), eq(RolePermissionAction.UPDATE))).thenReturn(true);
 
         permissionFilter.filter(permissions, containerRequestContext);
 
-        verify(applicationService, never()).findById(any());
-        verify(apiService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-        verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.MANAGEMENT), any(), any(), eq(RoleScope.MANAGEMENT));
+        verify(permissionEngine, times(1)).hasPermission(eq(USERNAME), eq(RolePermission.MANAGEMENT_API), isNull(), eq(RolePermissionAction.UPDATE));
     }
 
     /**
      * PORTAL Tests
      */
-
-    private void initPortalMocks() {
-        Principal user = () -> USERNAME;
-        when(securityContext.getUserPrincipal()).thenReturn(user);
-        Permission perm = mock(Permission.class);
-        when(perm.value()).thenReturn(RolePermission.PORTAL_METADATA);
-        when(perm.acls()).thenReturn(new RolePermissionAction[]{RolePermissionAction.UPDATE});
-        when(permissions.value()).thenReturn(new Permission[]{perm});
-        UriInfo uriInfo = mock(UriInfo.class);
-        when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        when(membershipService.getRole(any(), any(), any(), any())).thenReturn(mock(RoleEntity.class));
-    }
-
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoPortalPermissions() {
-        initPortalMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        initMocks(RolePermission.PORTAL_METADATA, null, null);
+        when(permissionEngine.hasPermission(any(), any(), any(), any())).thenReturn(false);
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
-            verify(applicationService, never()).findById(any());
-            verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-            verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.PORTAL), any(), any(), eq(RoleScope.PORTAL));
+            verify(permissionEngine, times(1)).hasPermission(eq(USERNAME), eq(RolePermission.PORTAL_METADATA), isNull(), eq(RolePermissionAction.UPDATE));
             throw e;
         }
 
@@ -282,16 +189,11 @@ public class PermissionFilterTest {
 
     @Test
     public void shouldBeAuthorizedWhenPortalPermissions() {
-        initPortalMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        initMocks(RolePermission.PORTAL_METADATA, null, null);
+        when(permissionEngine.hasPermission(eq(USERNAME), eq(RolePermission.PORTAL_METADATA), isNull(), eq(RolePermissionAction.UPDATE))).thenReturn(true);
 
         permissionFilter.filter(permissions, containerRequestContext);
 
-        verify(applicationService, never()).findById(any());
-        verify(apiService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-        verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.PORTAL), any(), any(), eq(RoleScope.PORTAL));
+        verify(permissionEngine, times(1)).hasPermission(eq(USERNAME), eq(RolePermission.PORTAL_METADATA), isNull(), eq(RolePermissionAction.UPDATE));
     }
 }
@@ -102,6 +102,9 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
     @Autowired
     protected PermissionService permissionService;
 
+    @Autowired
+    protected PermissionEngine permissionEngine;
+
     @Autowired
     protected NotifierService notifierService;
 
@@ -183,6 +186,11 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
             return mock(PermissionService.class);
         }
 
+        @Bean
+        public PermissionEngine permissionEngine() {
+            return mock(PermissionEngine.class);
+        }
+
         @Bean
         public NotifierService notifierService() {
             return mock(NotifierService.class);
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.permissions.ApiPermission;
+import io.gravitee.management.model.permissions.PermissionMask;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.model.permissions.RoleScope;
+import io.gravitee.management.service.impl.RoleServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the permission checks made against the permissions map of a role with the ones made against its bitmask.
+ * Each invocation checks every API permission against the given actions.
+ *
+ * @author GraviteeSource Team
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoleServiceHasPermissionBenchmark {
+
+    @Param({"R", "U", "CUD"})
+    private String actions;
+
+    private final RoleService roleService = new RoleServiceImpl();
+
+    private Map<String, char[]> permissions;
+
+    private PermissionMask mask;
+
+    private RolePermissionAction[] acls;
+
+    @Setup
+    public void setup() {
+        permissions = new HashMap<>();
+        for (ApiPermission permission : ApiPermission.values()) {
+            permissions.put(permission.getName(), permission.ordinal() % 2 == 0 ? new char[]{'R'} : new char[]{'C', 'R', 'U', 'D'});
+        }
+        mask = PermissionMask.of(RoleScope.API, permissions);
+
+        acls = new RolePermissionAction[actions.length()];
+        for (int i = 0; i < acls.length; i++) {
+            acls[i] = RolePermissionAction.findById(actions.charAt(i));
+        }
+    }
+
+    @Benchmark
+    public int checkWithMap() {
+        int granted = 0;
+        for (ApiPermission permission : ApiPermission.values()) {
+            if (roleService.hasPermission(permissions, permission, acls)) {
+                granted++;
+            }
+        }
+        return granted;
+    }
+
+    @Benchmark
+    public int checkWithMask() {
+        int granted = 0;
+        for (ApiPermission permission : ApiPermission.values()) {
+            if (roleService.hasPermission(mask, permission, acls)) {
+                granted++;
+            }
+        }
+        return granted;
+    }
+}
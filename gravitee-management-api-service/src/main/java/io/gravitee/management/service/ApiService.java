@@ -15,9 +15,11 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.*;
 import io.gravitee.management.model.api.header.ApiHeaderEntity;
+import io.gravitee.management.model.common.Pageable;
 import io.gravitee.repository.exceptions.TechnicalException;
 
 import java.util.*;
@@ -35,6 +37,8 @@ public interface ApiService {
 
     Set<ApiEntity> findAllLight();
 
+    Page<ApiEntity> findAll(Pageable pageable);
+
     Set<ApiEntity> findByUser(String userId, ApiQuery apiQuery);
 
     Set<ApiEntity> findByVisibility(Visibility visibility);
@@ -110,5 +114,7 @@ public interface ApiService {
 
     Collection<ApiEntity> search(String query, Map<String, Object> filters) throws TechnicalException;
 
+    Page<ApiEntity> search(String query, Map<String, Object> filters, Pageable pageable) throws TechnicalException;
+
     List<ApiHeaderEntity> getPortalHeaders(String apiId);
 }
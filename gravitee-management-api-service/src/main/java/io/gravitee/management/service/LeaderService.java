@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+/**
+ * Elects one management node of the cluster to run the background jobs which must not run on every node
+ * (subscriptions expiration, dynamic properties and dictionaries polling, ...).
+ *
+ * @author GraviteeSource Team
+ */
+public interface LeaderService {
+
+    /**
+     * @return <code>true</code> if this node currently holds the leader lease, or if leader election is disabled.
+     */
+    boolean isLeader();
+
+    /**
+     * @return the identifier of this node in the leader lease.
+     */
+    String getNodeId();
+}
@@ -32,5 +32,12 @@ public interface NotifierService {
      void trigger(final ApiHook hook, final String apiId, Map<String, Object> params);
      void trigger(final ApplicationHook hook, final String applicationId, Map<String, Object> params);
      void trigger(final PortalHook hook, Map<String, Object> params);
+
+     /**
+      * Triggers the same hook for several notifications (one per element of <code>params</code>), looking for the
+      * recipients of the API only once.
+      */
+     void trigger(final ApiHook hook, final String apiId, List<Map<String, Object>> params);
+     void trigger(final ApplicationHook hook, final String applicationId, List<Map<String, Object>> params);
      List<NotifierEntity> list(NotificationReferenceType referenceType, String referenceId);
 }
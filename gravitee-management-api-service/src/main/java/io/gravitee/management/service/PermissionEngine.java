@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Resolves the permissions of a user on a reference (the platform, the portal, an API, an application or a group)
+ * from the memberships of the user on the reference and on the groups of the reference.
+ *
+ * Resolved permissions are cached, the cache being invalidated when memberships, roles or groups of references change.
+ *
+ * @author GraviteeSource Team
+ */
+public interface PermissionEngine {
+
+    /**
+     * @param referenceId the API, application or group the permission applies to, ignored for the management and
+     *                    portal permissions.
+     * @return <code>true</code> if the user has one of the given actions on the permission.
+     */
+    boolean hasPermission(String userId, RolePermission permission, String referenceId, RolePermissionAction... acls);
+
+    /**
+     * Bulk version of {@link #hasPermission(String, RolePermission, String, RolePermissionAction...)}: the permissions
+     * which are not cached yet are resolved with the direct and the group memberships of the user, read once for all
+     * the references.
+     *
+     * @return the identifiers of the references on which the user has one of the given actions on the permission.
+     */
+    Set<String> hasPermissions(String userId, RolePermission permission, Collection<String> referenceIds, RolePermissionAction... acls);
+
+    /**
+     * Forgets the permissions of a user, after one of its memberships changed.
+     */
+    void invalidateUser(String userId);
+
+    /**
+     * Forgets the permissions of all the users on a reference, after the groups of the reference changed.
+     */
+    void invalidateReference(MembershipReferenceType referenceType, String referenceId);
+
+    /**
+     * Forgets all the permissions, after a role or a group changed.
+     */
+    void invalidateAll();
+}
@@ -18,6 +18,9 @@ package io.gravitee.management.service;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * @author Nicolas GERAUD(nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
@@ -25,4 +28,12 @@ import io.gravitee.management.model.permissions.RolePermissionAction;
 public interface PermissionService {
 
     boolean hasPermission(RolePermission permission, String referenceId, RolePermissionAction... acls);
+
+    /**
+     * Bulk version of {@link #hasPermission(RolePermission, String, RolePermissionAction...)}, resolving the direct
+     * and the group memberships of the authenticated user once for all the references.
+     *
+     * @return the identifiers of the references on which the authenticated user has the permission.
+     */
+    Set<String> hasPermissions(RolePermission permission, Collection<String> referenceIds, RolePermissionAction... acls);
 }
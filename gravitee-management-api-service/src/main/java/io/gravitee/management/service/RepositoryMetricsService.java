@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.platform.RepositoryCacheEntity;
+import io.gravitee.management.model.platform.RepositoryMetricsEntity;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author GraviteeSource Team
+ */
+public interface RepositoryMetricsService {
+
+    /**
+     * @return the metrics of the repository methods called by this node, sorted by repository and method. Empty when
+     * the instrumentation of the repositories is disabled.
+     */
+    List<RepositoryMetricsEntity> findMetrics();
+
+    /**
+     * @return the statistics of the repository caches of this node, by cache name.
+     */
+    Map<String, RepositoryCacheEntity> findCaches();
+}
@@ -18,6 +18,7 @@ package io.gravitee.management.service;
 import io.gravitee.management.model.NewRoleEntity;
 import io.gravitee.management.model.RoleEntity;
 import io.gravitee.management.model.permissions.Permission;
+import io.gravitee.management.model.permissions.PermissionMask;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.repository.management.model.RoleScope;
 import io.gravitee.management.model.UpdateRoleEntity;
@@ -40,4 +41,5 @@ public interface RoleService {
     List<RoleEntity> findByScope(RoleScope scope);
     List<RoleEntity> findDefaultRoleByScopes(RoleScope... scopes);
     boolean hasPermission(Map<String, char[]> userPermissions, Permission permission, RolePermissionAction[] acls);
+    boolean hasPermission(PermissionMask userPermissions, Permission permission, RolePermissionAction... acls);
 }
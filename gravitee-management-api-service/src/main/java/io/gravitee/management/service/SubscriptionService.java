@@ -57,6 +57,13 @@ public interface SubscriptionService {
 
     SubscriptionEntity close(String subscription);
 
+    /**
+     * Closes the given subscriptions, skipping those which are not found or not closable.
+     *
+     * @return the closed subscriptions.
+     */
+    Collection<SubscriptionEntity> closeAll(Collection<String> subscriptions);
+
     void delete(String subscription);
 
     Collection<SubscriptionEntity> search(SubscriptionQuery query);
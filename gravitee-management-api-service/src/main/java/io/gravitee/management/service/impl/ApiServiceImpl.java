@@ -54,6 +54,7 @@ import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.api.search.ApiCriteria;
 import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.Api;
 import io.gravitee.repository.management.model.Visibility;
 import io.gravitee.repository.management.model.*;
@@ -142,6 +143,8 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
     private ReferenceSerializer referenceSerializer;
     @Autowired
     private ParameterService parameterService;
+    @Autowired(required = false)
+    private PermissionEngine permissionEngine;
 
     private static final Pattern LOGGING_MAX_DURATION_PATTERN = Pattern.compile("(?<before>.*)\\#request.timestamp\\s*\\<\\=?\\s*(?<timestamp>\\d*)l(?<after>.*)");
     private static final String LOGGING_MAX_DURATION_CONDITION = "#request.timestamp <= %dl";
@@ -558,6 +561,25 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         }
     }
 
+    @Override
+    public io.gravitee.common.data.domain.Page<ApiEntity> findAll(io.gravitee.management.model.common.Pageable pageable) {
+        try {
+            LOGGER.debug("Find all APIs by page {}", pageable.getPageNumber());
+            io.gravitee.common.data.domain.Page<Api> apis = apiRepository.search(null, new PageableBuilder()
+                    .pageNumber(pageable.getPageNumber() - 1)
+                    .pageSize(pageable.getPageSize())
+                    .build());
+
+            return new io.gravitee.common.data.domain.Page<>(new ArrayList<>(convert(apis.getContent())),
+                    apis.getPageNumber() + 1,
+                    (int) apis.getPageElements(),
+                    apis.getTotalElements());
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find all APIs by page", ex);
+            throw new TechnicalManagementException("An error occurs while trying to find all APIs by page", ex);
+        }
+    }
+
     @Override
     public Set<ApiEntity> findByUser(String userId, ApiQuery apiQuery) {
         try {
@@ -651,6 +673,9 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                 }
 
                 Api updatedApi = apiRepository.update(api);
+                if (permissionEngine != null) {
+                    permissionEngine.invalidateReference(MembershipReferenceType.API, apiId);
+                }
 
                 // Audit
                 auditService.createApiAuditLog(
@@ -714,6 +739,9 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
 
                 // Delete API
                 apiRepository.delete(apiId);
+                if (permissionEngine != null) {
+                    permissionEngine.invalidateReference(MembershipReferenceType.API, apiId);
+                }
                 // Delete top API
                 topApiService.delete(apiId);
                 // Audit
@@ -1283,6 +1311,23 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         return matchApis.getDocuments().stream().map(this::findById).collect(toList());
     }
 
+    @Override
+    public io.gravitee.common.data.domain.Page<ApiEntity> search(String query, Map<String, Object> filters,
+                                                                  io.gravitee.management.model.common.Pageable pageable) {
+        Query<ApiEntity> apiQuery = QueryBuilder.create(ApiEntity.class)
+                .setQuery(query)
+                .setFilters(filters)
+                .setPage(pageable)
+                .build();
+
+        SearchResult matchApis = searchEngineService.search(apiQuery);
+        List<ApiEntity> apis = matchApis.getDocuments().stream().map(this::findById).collect(toList());
+
+        // API searches are collapsed by API, they do not provide any cursor
+        return new io.gravitee.common.data.domain.Page<>(apis, pageable.getPageNumber(), pageable.getPageSize(),
+                matchApis.getHits());
+    }
+
     @Override
     public List<ApiHeaderEntity> getPortalHeaders(String apiId) {
             List<ApiHeaderEntity> entities = apiHeaderService.findAll();
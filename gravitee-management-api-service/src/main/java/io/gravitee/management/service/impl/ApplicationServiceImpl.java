@@ -81,6 +81,9 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
     @Autowired
     private GenericNotificationConfigService genericNotificationConfigService;
 
+    @Autowired(required = false)
+    private PermissionEngine permissionEngine;
+
     @Override
     public ApplicationEntity findById(String applicationId) {
         try {
@@ -300,6 +303,9 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
             application.setUpdatedAt(new Date());
 
             Application updatedApplication =  applicationRepository.update(application);
+            if (permissionEngine != null) {
+                permissionEngine.invalidateReference(MembershipReferenceType.APPLICATION, application.getId());
+            }
 
             // Audit
             auditService.createApplicationAuditLog(
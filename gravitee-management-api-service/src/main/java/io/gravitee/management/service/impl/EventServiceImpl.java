@@ -16,10 +16,12 @@
 package io.gravitee.management.service.impl;
 
 import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
 import io.gravitee.management.service.EventService;
 import io.gravitee.management.service.UserService;
+import io.gravitee.management.service.event.ManagementEvent;
 import io.gravitee.management.service.exceptions.EventNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.exceptions.UserNotFoundException;
@@ -55,6 +57,8 @@ public class EventServiceImpl extends TransactionalService implements EventServi
     private EventRepository eventRepository;
     @Autowired
     private UserService userService;
+    @Autowired
+    private EventManager eventManager;
 
     @Override
     public EventEntity findById(String id) {
@@ -91,8 +95,10 @@ public class EventServiceImpl extends TransactionalService implements EventServi
             event.setUpdatedAt(event.getCreatedAt());
 
             Event createdEvent = eventRepository.create(event);
+            EventEntity createdEventEntity = convert(createdEvent);
+            eventManager.publishEvent(ManagementEvent.CREATED, createdEventEntity);
 
-            return convert(createdEvent);
+            return createdEventEntity;
         } catch (UnknownHostException e) {
             LOGGER.error("An error occurs while getting the server IP address", e);
             throw new TechnicalManagementException("An error occurs while getting the server IP address", e);
@@ -21,14 +21,18 @@ import io.gravitee.management.model.Visibility;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.SystemRole;
+import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.GroupService;
 import io.gravitee.management.service.MembershipService;
+import io.gravitee.management.service.PermissionEngine;
 import io.gravitee.management.service.PermissionService;
 import io.gravitee.management.service.exceptions.GroupNameAlreadyExistsException;
 import io.gravitee.management.service.exceptions.GroupNotFoundException;
 import io.gravitee.management.service.exceptions.GroupsNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.impl.search.lucene.filter.ApiVisibilityFilterCache;
+import io.gravitee.management.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.ApplicationRepository;
@@ -71,6 +75,14 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
     private AuditService auditService;
     @Autowired
     private PermissionService permissionService;
+    @Autowired(required = false)
+    private PermissionEngine permissionEngine;
+    @Autowired
+    private ApiService apiService;
+    @Autowired
+    private SearchEngineService searchEngineService;
+    @Autowired
+    private ApiVisibilityFilterCache apiVisibilityFilterCache;
 
     @Override
     public List<GroupEntity> findAll() {
@@ -280,6 +292,7 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
                     .forEach(member -> {
                         try {
                             membershipRepository.delete(member);
+                            apiVisibilityFilterCache.invalidate(member.getUserId());
                         } catch (TechnicalException ex) {
                             logger.error("An error occurs while trying to delete a group", ex);
                             throw new TechnicalManagementException("An error occurs while trying to delete a group", ex);
@@ -293,6 +306,8 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
                 api.setUpdatedAt(updatedDate);
                 try {
                     apiRepository.update(api);
+                    // The groups of an API are indexed to filter the APIs a user can find
+                    searchEngineService.index(apiService.findById(api.getId()));
                 } catch (TechnicalException ex) {
                     logger.error("An error occurs while trying to delete a group", ex);
                     throw new TechnicalManagementException("An error occurs while trying to delete a group", ex);
@@ -310,6 +325,9 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
             });
             //remove group
             groupRepository.delete(groupId);
+            if (permissionEngine != null) {
+                permissionEngine.invalidateAll();
+            }
 
             // Audit
             auditService.createPortalAuditLog(
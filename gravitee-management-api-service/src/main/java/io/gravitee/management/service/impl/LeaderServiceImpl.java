@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.utils.UUID;
+import io.gravitee.management.service.LeaderService;
+import io.gravitee.management.service.event.LeaderEvent;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ParameterRepository;
+import io.gravitee.repository.management.model.Parameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leader election based on a lease stored as a parameter of the management repository.
+ *
+ * The leader renews its lease every third of the lease duration, and the other nodes try to take it over at the same
+ * rate once it has expired. The repository does not provide any compare-and-set operation, so each write is checked
+ * by reading the lease again; a node also stops considering itself as the leader as soon as its own lease expires,
+ * even if it was not able to reach the repository.
+ *
+ * A {@link LeaderEvent} is published each time this node becomes or stops being the leader.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class LeaderServiceImpl implements LeaderService, InitializingBean, DisposableBean {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(LeaderServiceImpl.class);
+
+    public static final String LEASE_KEY = "cluster.leader";
+
+    private static final char SEPARATOR = ';';
+
+    @Autowired
+    private ParameterRepository parameterRepository;
+
+    @Autowired
+    private EventManager eventManager;
+
+    @Value("${cluster.leader.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cluster.leader.ttl:30000}")
+    private long ttl;
+
+    private final String nodeId = hostname() + '-' + UUID.toString(UUID.random());
+
+    private ScheduledExecutorService executor;
+
+    private volatile boolean leader;
+
+    private volatile long leaseExpiresAt;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled) {
+            logger.info("Leader election enabled for node {} with a lease of {} ms", nodeId, ttl);
+
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "leader-election");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::renew, 0, Math.max(1, ttl / 3), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        release();
+    }
+
+    @Override
+    public boolean isLeader() {
+        return !enabled || (leader && System.currentTimeMillis() < leaseExpiresAt);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Acquires or renews the lease of this node, if it is not held by another node.
+     */
+    public synchronized void renew() {
+        long now = System.currentTimeMillis();
+
+        try {
+            Optional<Parameter> optLease = parameterRepository.findById(LEASE_KEY);
+
+            if (optLease.isPresent()) {
+                Lease lease = Lease.parse(optLease.get().getValue());
+                if (lease != null && !nodeId.equals(lease.owner) && lease.expiresAt > now) {
+                    setLeader(false, 0);
+                    return;
+                }
+
+                parameterRepository.update(lease(now + ttl));
+            } else {
+                try {
+                    parameterRepository.create(lease(now + ttl));
+                } catch (TechnicalException te) {
+                    // The lease has just been created by another node
+                    logger.debug("Unable to create the leader lease", te);
+                    setLeader(false, 0);
+                    return;
+                }
+            }
+
+            // Another node may have written the lease at the same time
+            Lease written = parameterRepository.findById(LEASE_KEY)
+                    .map(parameter -> Lease.parse(parameter.getValue()))
+                    .orElse(null);
+
+            boolean owner = written != null && nodeId.equals(written.owner);
+            setLeader(owner, owner ? now + ttl : 0);
+        } catch (Exception ex) {
+            logger.error("Unable to renew the leader lease of node {}", nodeId, ex);
+
+            if (leader && now >= leaseExpiresAt) {
+                setLeader(false, 0);
+            }
+        }
+    }
+
+    /**
+     * Releases the lease of this node so that another node can take it over without waiting for its expiration.
+     */
+    public synchronized void release() {
+        if (!leader) {
+            return;
+        }
+
+        try {
+            Optional<Parameter> optLease = parameterRepository.findById(LEASE_KEY);
+            if (optLease.isPresent()) {
+                Lease lease = Lease.parse(optLease.get().getValue());
+                if (lease != null && nodeId.equals(lease.owner)) {
+                    parameterRepository.delete(LEASE_KEY);
+                }
+            }
+        } catch (TechnicalException te) {
+            logger.error("Unable to release the leader lease of node {}", nodeId, te);
+        } finally {
+            setLeader(false, 0);
+        }
+    }
+
+    private void setLeader(boolean leader, long leaseExpiresAt) {
+        final boolean changed = leader != this.leader;
+
+        this.leaseExpiresAt = leaseExpiresAt;
+        this.leader = leader;
+
+        if (changed) {
+            logger.info("Node {} is {} the leader", nodeId, leader ? "now" : "no longer");
+            eventManager.publishEvent(leader ? LeaderEvent.ELECTED : LeaderEvent.REVOKED, nodeId);
+        }
+    }
+
+    private Parameter lease(long expiresAt) {
+        Parameter parameter = new Parameter();
+        parameter.setKey(LEASE_KEY);
+        parameter.setValue(nodeId + SEPARATOR + expiresAt);
+        return parameter;
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException uhe) {
+            return "unknown";
+        }
+    }
+
+    private static class Lease {
+
+        private final String owner;
+
+        private final long expiresAt;
+
+        private Lease(String owner, long expiresAt) {
+            this.owner = owner;
+            this.expiresAt = expiresAt;
+        }
+
+        private static Lease parse(String value) {
+            if (value == null) {
+                return null;
+            }
+
+            int index = value.lastIndexOf(SEPARATOR);
+            if (index == -1) {
+                return null;
+            }
+
+            try {
+                return new Lease(value.substring(0, index), Long.parseLong(value.substring(index + 1)));
+            } catch (NumberFormatException nfe) {
+                return null;
+            }
+        }
+    }
+}
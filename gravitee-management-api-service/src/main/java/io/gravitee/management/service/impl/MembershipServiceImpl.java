@@ -24,6 +24,7 @@ import io.gravitee.management.model.providers.User;
 import io.gravitee.management.service.*;
 import io.gravitee.management.service.builder.EmailNotificationBuilder;
 import io.gravitee.management.service.exceptions.*;
+import io.gravitee.management.service.impl.search.lucene.filter.ApiVisibilityFilterCache;
 import io.gravitee.management.service.notification.NotificationParamsBuilder;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -84,6 +85,10 @@ public class MembershipServiceImpl extends AbstractService implements Membership
     private NotifierService notifierService;
     @Autowired
     private InvitationService invitationService;
+    @Autowired
+    private ApiVisibilityFilterCache apiVisibilityFilterCache;
+    @Autowired(required = false)
+    private PermissionEngine permissionEngine;
 
     @Override
     public Set<MemberEntity> getMembers(MembershipReferenceType referenceType, String referenceId, RoleScope roleScope) {
@@ -293,6 +298,8 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 }
             }
 
+            onMembershipChanged(userEntity.getId());
+
             return convert(returnedMembership, role.getScope());
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to add member for {} {}", reference.getType(), reference.getId(), ex);
@@ -318,6 +325,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
             Membership membership = new Membership(userId, referenceId, referenceType);
             membershipRepository.delete(membership);
             createAuditLog(MEMBERSHIP_DELETED, new Date(), membership, null);
+            onMembershipChanged(userId);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete member {} for {} {}", userId, referenceType, referenceId, ex);
             throw new TechnicalManagementException("An error occurs while trying to delete member " + userId + " for " + referenceType + " " + referenceId, ex);
@@ -354,6 +362,17 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                         true));
     }
 
+    /**
+     * The APIs a user can find with the search engine and the permissions of the user depend on its memberships: the
+     * search filter and the permissions of the user must be invalidated.
+     */
+    private void onMembershipChanged(String userId) {
+        apiVisibilityFilterCache.invalidate(userId);
+        if (permissionEngine != null) {
+            permissionEngine.invalidateUser(userId);
+        }
+    }
+
     @Override
     public Map<String, char[]> getMemberPermissions(ApiEntity api, String userId) {
         return getMemberPermissions(API,
@@ -395,6 +414,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 } else {
                     membershipRepository.update(membership);
                     createAuditLog(MEMBERSHIP_UPDATED, membership.getUpdatedAt(), previousMembership, membership);
+                    onMembershipChanged(userId);
                     return true;
                 }
             }
@@ -413,6 +433,9 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 membership.getRoles().put(roleScope.getId(), newRole);
                 membershipRepository.update(membership);
             }
+            if (permissionEngine != null) {
+                permissionEngine.invalidateAll();
+            }
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to remove role {} {}", roleScope, roleName, ex);
             throw new TechnicalManagementException("An error occurs while trying to remove role " + roleScope + " " + roleName, ex);
@@ -425,6 +448,10 @@ public class MembershipServiceImpl extends AbstractService implements Membership
             for(Membership membership : membershipRepository.findByUser(userId)) {
                 membershipRepository.delete(membership);
             }
+            apiVisibilityFilterCache.invalidate(userId);
+            if (permissionEngine != null) {
+                permissionEngine.invalidateUser(userId);
+            }
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to remove user {}", userId, ex);
             throw new TechnicalManagementException("An error occurs while trying to remove user " + userId, ex);
@@ -581,6 +608,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
         }
 
         member.setPermissions(role.getPermissions());
+        member.setScope(role.getScope());
         member.setId(membership.getUserId());
         member.setCreatedAt(membership.getCreatedAt());
         member.setUpdatedAt(membership.getUpdatedAt());
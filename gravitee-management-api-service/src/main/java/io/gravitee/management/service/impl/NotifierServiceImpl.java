@@ -38,6 +38,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -76,51 +77,71 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
     @Override
     @Async
     public void trigger(final ApiHook hook, final String apiId, Map<String, Object> params) {
-        triggerPortalNotifications(hook, NotificationReferenceType.API, apiId, params);
-        triggerGenericNotifications(hook, NotificationReferenceType.API, apiId, params);
+        trigger(hook, NotificationReferenceType.API, apiId, Collections.singletonList(params));
     }
 
     @Override
     @Async
     public void trigger(final ApplicationHook hook, final String applicationId, Map<String, Object> params) {
-        triggerPortalNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
-        triggerGenericNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
+        trigger(hook, NotificationReferenceType.APPLICATION, applicationId, Collections.singletonList(params));
     }
 
     @Override
     @Async
     public void trigger(final PortalHook hook, Map<String, Object> params) {
-        triggerPortalNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
-        triggerGenericNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
+        trigger(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), Collections.singletonList(params));
     }
 
-    private void triggerPortalNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final Map<String, Object> params) {
+    @Override
+    @Async
+    public void trigger(final ApiHook hook, final String apiId, List<Map<String, Object>> params) {
+        trigger(hook, NotificationReferenceType.API, apiId, params);
+    }
+
+    @Override
+    @Async
+    public void trigger(final ApplicationHook hook, final String applicationId, List<Map<String, Object>> params) {
+        trigger(hook, NotificationReferenceType.APPLICATION, applicationId, params);
+    }
+
+    private void trigger(final Hook hook, final NotificationReferenceType refType, final String refId, final List<Map<String, Object>> params) {
+        if (params.isEmpty()) {
+            return;
+        }
+
+        triggerPortalNotifications(hook, refType, refId, params);
+        triggerGenericNotifications(hook, refType, refId, params);
+    }
+
+    private void triggerPortalNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final List<Map<String, Object>> params) {
         try {
             List<String> userIds = portalNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId).
                     stream().
                     map(PortalNotificationConfig::getUser).
                     collect(Collectors.toList());
             if (!userIds.isEmpty()) {
-                portalNotificationService.create(hook, userIds, params);
+                params.forEach(notificationParams -> portalNotificationService.create(hook, userIds, notificationParams));
             }
         } catch (TechnicalException e) {
             LOGGER.error("Error looking for PortalNotificationConfig with {}/{}/{}", hook, refType, refId, e);
         }
     }
 
-    private void triggerGenericNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final Map<String, Object> params) {
+    private void triggerGenericNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final List<Map<String, Object>> params) {
         try {
             for (GenericNotificationConfig genericNotificationConfig : genericNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId)) {
-                switch (genericNotificationConfig.getNotifier()) {
-                    case DEFAULT_EMAIL_NOTIFIER_ID:
-                        emailNotifierService.trigger(hook, genericNotificationConfig, params);
-                        break;
-                    case DEFAULT_WEBHOOK_NOTIFIER_ID:
-                        webhookNotifierService.trigger(hook, genericNotificationConfig, params);
-                        break;
-                    default:
-                        LOGGER.error("Unknown notifier {}", genericNotificationConfig.getNotifier());
-                        break;
+                for (Map<String, Object> notificationParams : params) {
+                    switch (genericNotificationConfig.getNotifier()) {
+                        case DEFAULT_EMAIL_NOTIFIER_ID:
+                            emailNotifierService.trigger(hook, genericNotificationConfig, notificationParams);
+                            break;
+                        case DEFAULT_WEBHOOK_NOTIFIER_ID:
+                            webhookNotifierService.trigger(hook, genericNotificationConfig, notificationParams);
+                            break;
+                        default:
+                            LOGGER.error("Unknown notifier {}", genericNotificationConfig.getNotifier());
+                            break;
+                    }
                 }
             }
         } catch (TechnicalException e) {
@@ -826,12 +826,11 @@ public class PageServiceImpl extends TransactionalService implements PageService
 
 		// only members which could modify a page can see an unpublished page
 		return roleService.hasPermission(
-				member.getPermissions(),
+				member.getPermissionMask(),
 				ApiPermission.DOCUMENTATION,
-				new RolePermissionAction[]{
-						RolePermissionAction.UPDATE,
-						RolePermissionAction.CREATE,
-						RolePermissionAction.DELETE});
+				RolePermissionAction.UPDATE,
+				RolePermissionAction.CREATE,
+				RolePermissionAction.DELETE);
 	}
 
 	private static Page convert(NewPageEntity newPageEntity) {
@@ -0,0 +1,421 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import io.gravitee.management.model.permissions.PermissionMask;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.model.permissions.RoleScope;
+import io.gravitee.management.service.PermissionEngine;
+import io.gravitee.management.service.exceptions.ApiNotFoundException;
+import io.gravitee.management.service.exceptions.ApplicationNotFoundException;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.RoleRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static io.gravitee.repository.management.model.MembershipReferenceType.*;
+
+/**
+ * Resolves the permissions of a user on a reference to a {@link PermissionMask}, and keeps them in a LRU cache for a
+ * limited time, so that the changes made by the other nodes of a cluster are taken into account.
+ *
+ * Roles are read from the repository and decoded once, and only the groups of the APIs and applications are read, and
+ * only when the user is not a direct member.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class PermissionEngineImpl implements PermissionEngine {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(PermissionEngineImpl.class);
+
+    @Value("${permissions.cache.size:10000}")
+    private int cacheSize = 10000;
+
+    /**
+     * Duration (in milliseconds) during which resolved permissions are kept.
+     */
+    @Value("${permissions.cache.ttl:10000}")
+    private long cacheTtl = 10000;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ApiRepository apiRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    private final Map<Key, Grant> grants = new LinkedHashMap<Key, Grant>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Grant> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Incremented on each invalidation, so that permissions resolved concurrently with an invalidation are not cached.
+     */
+    private long generation;
+
+    /**
+     * Decoded permissions of the roles, by scope and name, kept as long as the resolved permissions.
+     */
+    private final Map<String, Grant> roles = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean hasPermission(String userId, RolePermission permission, String referenceId, RolePermissionAction... acls) {
+        if (userId == null || permission == null || acls == null) {
+            return false;
+        }
+
+        final RoleScope scope = permission.getScope();
+        if (scope == RoleScope.MANAGEMENT || scope == RoleScope.PORTAL) {
+            referenceId = MembershipDefaultReferenceId.DEFAULT.name();
+        } else if (referenceId == null) {
+            return false;
+        }
+
+        return getPermissions(new Key(userId, scope, referenceId)).hasPermission(permission.getPermission(), acls);
+    }
+
+    @Override
+    public Set<String> hasPermissions(String userId, RolePermission permission, Collection<String> referenceIds,
+                                      RolePermissionAction... acls) {
+        if (userId == null || permission == null || acls == null || referenceIds == null || referenceIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final RoleScope scope = permission.getScope();
+        if (scope == RoleScope.MANAGEMENT || scope == RoleScope.PORTAL) {
+            return hasPermission(userId, permission, null, acls) ? new HashSet<>(referenceIds) : Collections.emptySet();
+        }
+
+        final long now = System.currentTimeMillis();
+        final long resolveGeneration;
+        final Set<String> permitted = new HashSet<>();
+        final Set<String> unresolved = new HashSet<>();
+
+        synchronized (grants) {
+            for (String referenceId : referenceIds) {
+                if (referenceId == null) {
+                    continue;
+                }
+
+                Grant grant = grants.get(new Key(userId, scope, referenceId));
+                if (grant == null || grant.expireAt <= now) {
+                    unresolved.add(referenceId);
+                } else if (grant.permissions.hasPermission(permission.getPermission(), acls)) {
+                    permitted.add(referenceId);
+                }
+            }
+            resolveGeneration = generation;
+        }
+
+        if (unresolved.isEmpty()) {
+            return permitted;
+        }
+
+        try {
+            final Map<String, PermissionMask> resolved = resolve(userId, scope, unresolved);
+            synchronized (grants) {
+                if (resolveGeneration == generation) {
+                    resolved.forEach((referenceId, permissions) ->
+                            grants.put(new Key(userId, scope, referenceId), new Grant(permissions, now + cacheTtl)));
+                }
+            }
+
+            resolved.forEach((referenceId, permissions) -> {
+                if (permissions.hasPermission(permission.getPermission(), acls)) {
+                    permitted.add(referenceId);
+                }
+            });
+            return permitted;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to resolve the permissions of user {} on {} {}",
+                    userId, scope, unresolved, ex);
+            throw new TechnicalManagementException("An error occurs while trying to resolve the permissions of user "
+                    + userId + " on " + scope + " " + unresolved, ex);
+        }
+    }
+
+    @Override
+    public void invalidateUser(String userId) {
+        synchronized (grants) {
+            generation++;
+            grants.keySet().removeIf(key -> key.userId.equals(userId));
+        }
+    }
+
+    @Override
+    public void invalidateReference(MembershipReferenceType referenceType, String referenceId) {
+        final RoleScope scope = RoleScope.valueOf(referenceType.name());
+        synchronized (grants) {
+            generation++;
+            grants.keySet().removeIf(key -> key.scope == scope && key.referenceId.equals(referenceId));
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (grants) {
+            generation++;
+            grants.clear();
+        }
+        roles.clear();
+    }
+
+    private PermissionMask getPermissions(Key key) {
+        final long now = System.currentTimeMillis();
+        final long resolveGeneration;
+
+        synchronized (grants) {
+            Grant grant = grants.get(key);
+            if (grant != null && grant.expireAt > now) {
+                return grant.permissions;
+            }
+            resolveGeneration = generation;
+        }
+
+        try {
+            final PermissionMask permissions = resolve(key);
+            synchronized (grants) {
+                if (resolveGeneration == generation) {
+                    grants.put(key, new Grant(permissions, now + cacheTtl));
+                }
+            }
+            return permissions;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to resolve the permissions of user {} on {} {}",
+                    key.userId, key.scope, key.referenceId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to resolve the permissions of user "
+                    + key.userId + " on " + key.scope + " " + key.referenceId, ex);
+        }
+    }
+
+    private PermissionMask resolve(Key key) throws TechnicalException {
+        final io.gravitee.repository.management.model.RoleScope roleScope =
+                io.gravitee.repository.management.model.RoleScope.valueOf(key.scope.name());
+        final MembershipReferenceType referenceType = MembershipReferenceType.valueOf(key.scope.name());
+
+        // Direct membership
+        Optional<Membership> membership = membershipRepository.findById(key.userId, referenceType, key.referenceId);
+        String role = membership.map(m -> getRoleName(m, roleScope)).orElse(null);
+        if (role != null) {
+            return getRolePermissions(roleScope, role);
+        }
+
+        if (referenceType != API && referenceType != APPLICATION) {
+            return PermissionMask.empty(key.scope);
+        }
+
+        // Memberships inherited from the groups of the API / application
+        Set<String> groups = getGroups(referenceType, key.referenceId);
+        if (groups == null || groups.isEmpty()) {
+            return PermissionMask.empty(key.scope);
+        }
+
+        Set<Membership> groupMemberships = membershipRepository.findByIds(key.userId, GROUP, groups);
+        if (groupMemberships == null || groupMemberships.isEmpty()) {
+            return PermissionMask.empty(key.scope);
+        }
+
+        PermissionMask permissions = PermissionMask.empty(key.scope);
+        for (Membership groupMembership : groupMemberships) {
+            String groupRole = getRoleName(groupMembership, roleScope);
+            if (groupRole != null) {
+                permissions = permissions.union(getRolePermissions(roleScope, groupRole));
+            }
+        }
+
+        return permissions;
+    }
+
+    /**
+     * Resolves the permissions of a user on several references of the same type, with the memberships of the user on
+     * all the references of this type and on all the groups, instead of the memberships on each reference.
+     */
+    private Map<String, PermissionMask> resolve(String userId, RoleScope scope, Set<String> referenceIds)
+            throws TechnicalException {
+        final io.gravitee.repository.management.model.RoleScope roleScope =
+                io.gravitee.repository.management.model.RoleScope.valueOf(scope.name());
+        final MembershipReferenceType referenceType = MembershipReferenceType.valueOf(scope.name());
+        final Map<String, PermissionMask> permissions = new HashMap<>();
+
+        // Direct memberships
+        for (Membership membership : membershipRepository.findByUserAndReferenceType(userId, referenceType)) {
+            String role = getRoleName(membership, roleScope);
+            if (role != null && referenceIds.contains(membership.getReferenceId())) {
+                permissions.put(membership.getReferenceId(), getRolePermissions(roleScope, role));
+            }
+        }
+
+        // Memberships inherited from the groups of the APIs / applications
+        if (permissions.size() < referenceIds.size() && (referenceType == API || referenceType == APPLICATION)) {
+            final Map<String, String> groupRoles = new HashMap<>();
+            for (Membership membership : membershipRepository.findByUserAndReferenceType(userId, GROUP)) {
+                String role = getRoleName(membership, roleScope);
+                if (role != null) {
+                    groupRoles.put(membership.getReferenceId(), role);
+                }
+            }
+
+            if (!groupRoles.isEmpty()) {
+                for (Map.Entry<String, Set<String>> reference : getGroups(referenceType, groupRoles.keySet()).entrySet()) {
+                    if (!referenceIds.contains(reference.getKey()) || permissions.containsKey(reference.getKey())) {
+                        continue;
+                    }
+
+                    PermissionMask referencePermissions = PermissionMask.empty(scope);
+                    for (String group : reference.getValue()) {
+                        String groupRole = groupRoles.get(group);
+                        if (groupRole != null) {
+                            referencePermissions = referencePermissions.union(getRolePermissions(roleScope, groupRole));
+                        }
+                    }
+                    permissions.put(reference.getKey(), referencePermissions);
+                }
+            }
+        }
+
+        for (String referenceId : referenceIds) {
+            permissions.putIfAbsent(referenceId, PermissionMask.empty(scope));
+        }
+
+        return permissions;
+    }
+
+    /**
+     * @return the groups of the APIs / applications belonging to at least one of the given groups, by API / application.
+     */
+    private Map<String, Set<String>> getGroups(MembershipReferenceType referenceType, Set<String> groups)
+            throws TechnicalException {
+        if (referenceType == API) {
+            return apiRepository.search(
+                    new ApiCriteria.Builder().groups(groups.toArray(new String[0])).build(),
+                    new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                    .stream()
+                    .collect(Collectors.toMap(Api::getId, api -> groups(api.getGroups()), (groups1, groups2) -> groups1));
+        }
+
+        return applicationRepository.findByGroups(new ArrayList<>(groups))
+                .stream()
+                .collect(Collectors.toMap(Application::getId, application -> groups(application.getGroups()), (groups1, groups2) -> groups1));
+    }
+
+    private static Set<String> groups(Set<String> groups) {
+        return groups == null ? Collections.emptySet() : groups;
+    }
+
+    private Set<String> getGroups(MembershipReferenceType referenceType, String referenceId) throws TechnicalException {
+        if (referenceType == API) {
+            List<Api> apis = apiRepository.search(new ApiCriteria.Builder().ids(referenceId).build(),
+                    new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build());
+            if (apis == null || apis.isEmpty()) {
+                throw new ApiNotFoundException(referenceId);
+            }
+            return apis.iterator().next().getGroups();
+        }
+
+        return applicationRepository.findById(referenceId)
+                .map(Application::getGroups)
+                .orElseThrow(() -> new ApplicationNotFoundException(referenceId));
+    }
+
+    private static String getRoleName(Membership membership, io.gravitee.repository.management.model.RoleScope roleScope) {
+        return membership.getRoles() == null ? null : membership.getRoles().get(roleScope.getId());
+    }
+
+    private PermissionMask getRolePermissions(io.gravitee.repository.management.model.RoleScope roleScope, String name)
+            throws TechnicalException {
+        final String roleKey = roleScope.name() + ':' + name;
+        final RoleScope scope = RoleScope.valueOf(roleScope.name());
+        final long now = System.currentTimeMillis();
+
+        Grant role = roles.get(roleKey);
+        if (role == null || role.expireAt <= now) {
+            PermissionMask permissions = roleRepository.findById(roleScope, name)
+                    .map(r -> PermissionMask.of(scope, r.getPermissions()))
+                    .orElse(PermissionMask.empty(scope));
+            role = new Grant(permissions, now + cacheTtl);
+            roles.put(roleKey, role);
+        }
+        return role.permissions;
+    }
+
+    public void setCacheTtl(long cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    private static class Key {
+
+        private final String userId;
+        private final RoleScope scope;
+        private final String referenceId;
+
+        Key(String userId, RoleScope scope, String referenceId) {
+            this.userId = userId;
+            this.scope = scope;
+            this.referenceId = referenceId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return userId.equals(key.userId) && scope == key.scope && referenceId.equals(key.referenceId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, scope, referenceId);
+        }
+    }
+
+    private static class Grant {
+
+        private final PermissionMask permissions;
+        private final long expireAt;
+
+        Grant(PermissionMask permissions, long expireAt) {
+            this.permissions = permissions;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import io.gravitee.repository.management.model.MembershipReferenceType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
@@ -48,6 +49,9 @@ public class PermissionServiceImpl extends AbstractService implements Permission
     @Autowired
     RoleService roleService;
 
+    @Autowired
+    PermissionEngine permissionEngine;
+
     @Override
     public boolean hasPermission(RolePermission permission, String referenceId, RolePermissionAction... acls) {
         Optional<String> optionalReferenceId = Optional.ofNullable(referenceId);
@@ -94,10 +98,15 @@ public class PermissionServiceImpl extends AbstractService implements Permission
             }
         }
         for (RoleEntity roleEntity : roles) {
-            if (roleService.hasPermission(roleEntity.getPermissions(), permission.getPermission(), acls)) {
+            if (roleService.hasPermission(roleEntity.getPermissionMask(), permission.getPermission(), acls)) {
                 return true;
             }
         }
         return false;
     }
+
+    @Override
+    public Set<String> hasPermissions(RolePermission permission, Collection<String> referenceIds, RolePermissionAction... acls) {
+        return permissionEngine.hasPermissions(getAuthenticatedUsername(), permission, referenceIds, acls);
+    }
 }
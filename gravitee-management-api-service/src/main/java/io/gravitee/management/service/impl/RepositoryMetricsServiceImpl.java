@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import io.gravitee.management.model.platform.RepositoryCacheEntity;
+import io.gravitee.management.model.platform.RepositoryMetricsEntity;
+import io.gravitee.management.repository.cache.CacheStatistics;
+import io.gravitee.management.repository.cache.RepositoryCacheManager;
+import io.gravitee.management.repository.metrics.MethodMetrics;
+import io.gravitee.management.repository.metrics.RepositoryMetrics;
+import io.gravitee.management.service.RepositoryMetricsService;
+import org.springframework.stereotype.Service;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Service
+public class RepositoryMetricsServiceImpl implements RepositoryMetricsService {
+
+    @Inject
+    private RepositoryMetrics repositoryMetrics;
+
+    @Inject
+    private RepositoryCacheManager repositoryCacheManager;
+
+    @Override
+    public List<RepositoryMetricsEntity> findMetrics() {
+        return repositoryMetrics.getMetrics()
+                .stream()
+                .map(this::convert)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<String, RepositoryCacheEntity> findCaches() {
+        Map<String, RepositoryCacheEntity> caches = new TreeMap<>();
+        repositoryCacheManager.getStatistics().forEach((name, statistics) -> caches.put(name, convert(statistics)));
+        return caches;
+    }
+
+    private RepositoryMetricsEntity convert(MethodMetrics metrics) {
+        RepositoryMetricsEntity entity = new RepositoryMetricsEntity();
+        entity.setRepository(metrics.getRepository());
+        entity.setMethod(metrics.getMethod());
+        entity.setCalls(metrics.getCalls());
+        entity.setErrors(metrics.getErrors());
+        entity.setMeanTime(metrics.getMeanTime());
+        entity.setMaxTime(metrics.getMaxTime());
+        entity.setPercentile50(metrics.getPercentile50());
+        entity.setPercentile95(metrics.getPercentile95());
+        entity.setPercentile99(metrics.getPercentile99());
+        entity.setMeanResultSize(metrics.getMeanResultSize());
+        entity.setMaxResultSize(metrics.getMaxResultSize());
+        return entity;
+    }
+
+    private RepositoryCacheEntity convert(CacheStatistics statistics) {
+        RepositoryCacheEntity entity = new RepositoryCacheEntity();
+        entity.setHits(statistics.getHits());
+        entity.setMisses(statistics.getMisses());
+        entity.setEvictions(statistics.getEvictions());
+        entity.setSize(statistics.getSize());
+        return entity;
+    }
+}
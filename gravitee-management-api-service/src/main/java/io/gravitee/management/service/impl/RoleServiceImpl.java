@@ -21,6 +21,7 @@ import io.gravitee.management.model.UpdateRoleEntity;
 import io.gravitee.management.model.permissions.*;
 import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.MembershipService;
+import io.gravitee.management.service.PermissionEngine;
 import io.gravitee.management.service.RoleService;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -60,6 +61,9 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired(required = false)
+    private PermissionEngine permissionEngine;
+
     @Override
     public RoleEntity findById(final RoleScope scope, final String name) {
         try {
@@ -182,6 +186,9 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             Role updatedRole = convert(roleEntity);
             updatedRole.setCreatedAt(role.getCreatedAt());
             RoleEntity entity = convert(roleRepository.update(updatedRole));
+            if (permissionEngine != null) {
+                permissionEngine.invalidateAll();
+            }
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
                     ROLE_UPDATED,
@@ -220,6 +227,9 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             membershipService.removeRoleUsage(scope, name, defaultRoleByScopes.get(0).getName());
 
             roleRepository.delete(scope, name);
+            if (permissionEngine != null) {
+                permissionEngine.invalidateAll();
+            }
 
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
@@ -270,22 +280,25 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
 
     @Override
     public boolean hasPermission(Map<String, char[]> userPermissions, Permission permission, RolePermissionAction[] acls) {
-        boolean hasPermission = false;
-        if (userPermissions != null) {
-            Iterator<Map.Entry<String, char[]>> it = userPermissions.entrySet().iterator();
-            while (it.hasNext() && !hasPermission) {
-                Map.Entry<String, char[]> entry = it.next();
-                if (permission.getName().equals(entry.getKey())) {
-                    String crud = Arrays.toString(entry.getValue());
-                    for (RolePermissionAction perm : acls) {
-                        if (crud.indexOf(perm.getId()) != -1) {
-                            hasPermission = true;
-                        }
+        if (userPermissions == null) {
+            return false;
+        }
+        final char[] crud = userPermissions.get(permission.getName());
+        if (crud != null) {
+            for (RolePermissionAction perm : acls) {
+                for (char c : crud) {
+                    if (c == perm.getId()) {
+                        return true;
                     }
                 }
             }
         }
-        return hasPermission;
+        return false;
+    }
+
+    @Override
+    public boolean hasPermission(PermissionMask userPermissions, Permission permission, RolePermissionAction... acls) {
+        return userPermissions != null && userPermissions.hasPermission(permission, acls);
     }
 
     private void toggleDefaultRole(RoleScope scope, String newDefaultRoleName) throws TechnicalException {
@@ -346,6 +359,9 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
         roleEntity.setDefaultRole(role.isDefaultRole());
         roleEntity.setSystem(role.isSystem());
         roleEntity.setPermissions(convertPermissions(roleEntity.getScope(), role.getPermissions()));
+        if (roleEntity.getScope() != null) {
+            roleEntity.setPermissionMask(PermissionMask.of(roleEntity.getScope(), role.getPermissions()));
+        }
         return roleEntity;
     }
 
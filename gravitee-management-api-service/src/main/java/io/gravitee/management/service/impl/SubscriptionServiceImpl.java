@@ -16,6 +16,7 @@
 package io.gravitee.management.service.impl;
 
 import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
@@ -23,6 +24,7 @@ import io.gravitee.management.model.common.Pageable;
 import io.gravitee.management.model.pagedresult.Metadata;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
 import io.gravitee.management.service.*;
+import io.gravitee.management.service.event.SubscriptionEvent;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.notification.ApiHook;
 import io.gravitee.management.service.notification.ApplicationHook;
@@ -88,6 +90,9 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
     @Autowired
     private NotifierService notifierService;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public SubscriptionEntity findById(String subscription) {
         try {
@@ -338,7 +343,10 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                     }
                 }
 
-                return convert(subscription);
+                final SubscriptionEntity subscriptionEntity = convert(subscription);
+                eventManager.publishEvent(SubscriptionEvent.UPDATE, subscriptionEntity);
+
+                return subscriptionEntity;
             }
 
             throw new SubscriptionNotUpdatableException(updateSubscription.getId());
@@ -423,6 +431,8 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                 apiKeyService.generate(subscription.getId());
             }
 
+            eventManager.publishEvent(SubscriptionEvent.UPDATE, subscriptionEntity);
+
             return subscriptionEntity;
         } catch (TechnicalException ex) {
             logger.error("An error occurs while trying to process subscription {} by {}",
@@ -445,53 +455,12 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
 
             Subscription subscription = optSubscription.get();
 
-            if (subscription.getStatus() == Subscription.Status.ACCEPTED ||
-                    subscription.getStatus() == Subscription.Status.PAUSED) {
-                Subscription previousSubscription = new Subscription(subscription);
-                final Date now = new Date();
-                subscription.setUpdatedAt(now);
-                subscription.setStatus(Subscription.Status.CLOSED);
-
-                subscription.setClosedAt(new Date());
-
-                subscription = subscriptionRepository.update(subscription);
-
-                // Send an email to subscriber
-                final ApplicationEntity application = applicationService.findById(subscription.getApplication());
-                final PlanEntity plan = planService.findById(subscription.getPlan());
-                String apiId = plan.getApis().iterator().next();
-                final ApiModelEntity api = apiService.findByIdForTemplates(apiId);
-                final PrimaryOwnerEntity owner = application.getPrimaryOwner();
-                final Map<String, Object> params = new NotificationParamsBuilder()
-                        .owner(owner)
-                        .api(api)
-                        .plan(plan)
-                        .application(application)
-                        .build();
-
-                notifierService.trigger(ApiHook.SUBSCRIPTION_CLOSED, apiId, params);
-                notifierService.trigger(ApplicationHook.SUBSCRIPTION_CLOSED, application.getId(), params);
-                createAudit(
-                        apiId,
-                        subscription.getApplication(),
-                        SUBSCRIPTION_CLOSED,
-                        subscription.getUpdatedAt(),
-                        previousSubscription,
-                        subscription);
-
-                // API Keys are automatically revoked
-                Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscription.getId());
-                for (ApiKeyEntity apiKey : apiKeys) {
-                    Date expireAt = apiKey.getExpireAt();
-                    if (!apiKey.isRevoked() && (expireAt == null || expireAt.equals(now) || expireAt.before(now))) {
-                        apiKey.setExpireAt(now);
-                        apiKey.setRevokedAt(now);
-                        apiKey.setRevoked(true);
-                        apiKeyService.revoke(apiKey.getKey(), false);
-                    }
-                }
+            if (isClosable(subscription)) {
+                final ClosingContext context = new ClosingContext();
+                final SubscriptionEntity subscriptionEntity = close(subscription, context);
+                notifyClosed(context);
 
-                return convert(subscription);
+                return subscriptionEntity;
             }
 
             throw new SubscriptionNotClosableException(subscription);
@@ -502,6 +471,109 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         }
     }
 
+    @Override
+    public Collection<SubscriptionEntity> closeAll(Collection<String> subscriptionIds) {
+        logger.debug("Close {} subscriptions", subscriptionIds.size());
+
+        // Applications, plans and APIs are shared by many subscriptions: load each of them only once
+        final ClosingContext context = new ClosingContext();
+        final List<SubscriptionEntity> closedSubscriptions = new ArrayList<>(subscriptionIds.size());
+
+        for (String subscriptionId : subscriptionIds) {
+            try {
+                Optional<Subscription> optSubscription = subscriptionRepository.findById(subscriptionId);
+                if (!optSubscription.isPresent()) {
+                    logger.warn("Unable to close subscription {}: not found", subscriptionId);
+                    continue;
+                }
+
+                Subscription subscription = optSubscription.get();
+                if (!isClosable(subscription)) {
+                    logger.debug("Subscription {} is not closable: {}", subscriptionId, subscription.getStatus());
+                    continue;
+                }
+
+                closedSubscriptions.add(close(subscription, context));
+            } catch (Exception ex) {
+                logger.error("An error occurs while trying to close subscription {}", subscriptionId, ex);
+            }
+        }
+
+        notifyClosed(context);
+
+        return closedSubscriptions;
+    }
+
+    private boolean isClosable(Subscription subscription) {
+        return subscription.getStatus() == Subscription.Status.ACCEPTED ||
+                subscription.getStatus() == Subscription.Status.PAUSED;
+    }
+
+    /**
+     * Closes a closable subscription and revokes its API keys. The notifications are only collected into the given
+     * context, to be sent by {@link #notifyClosed(ClosingContext)}.
+     */
+    private SubscriptionEntity close(Subscription subscription, ClosingContext context) throws TechnicalException {
+        Subscription previousSubscription = new Subscription(subscription);
+        subscription.setUpdatedAt(context.now);
+        subscription.setStatus(Subscription.Status.CLOSED);
+        subscription.setClosedAt(context.now);
+
+        subscription = subscriptionRepository.update(subscription);
+
+        final ApplicationEntity application = context.applications.computeIfAbsent(
+                subscription.getApplication(), applicationService::findById);
+        final PlanEntity plan = context.plans.computeIfAbsent(subscription.getPlan(), planService::findById);
+        String apiId = plan.getApis().iterator().next();
+        final ApiModelEntity api = context.apis.computeIfAbsent(apiId, apiService::findByIdForTemplates);
+
+        final Map<String, Object> params = new NotificationParamsBuilder()
+                .owner(application.getPrimaryOwner())
+                .api(api)
+                .plan(plan)
+                .application(application)
+                .build();
+        context.apiNotifications.computeIfAbsent(apiId, key -> new ArrayList<>()).add(params);
+        context.applicationNotifications.computeIfAbsent(application.getId(), key -> new ArrayList<>()).add(params);
+
+        createAudit(
+                apiId,
+                subscription.getApplication(),
+                SUBSCRIPTION_CLOSED,
+                subscription.getUpdatedAt(),
+                previousSubscription,
+                subscription);
+
+        // API Keys are automatically revoked
+        revokeApiKeys(subscription.getId(), context.now);
+
+        final SubscriptionEntity subscriptionEntity = convert(subscription);
+        eventManager.publishEvent(SubscriptionEvent.UPDATE, subscriptionEntity);
+
+        return subscriptionEntity;
+    }
+
+    private void notifyClosed(ClosingContext context) {
+        // Look for the recipients of each API and application only once
+        context.apiNotifications.forEach((apiId, params) ->
+                notifierService.trigger(ApiHook.SUBSCRIPTION_CLOSED, apiId, params));
+        context.applicationNotifications.forEach((applicationId, params) ->
+                notifierService.trigger(ApplicationHook.SUBSCRIPTION_CLOSED, applicationId, params));
+    }
+
+    private void revokeApiKeys(String subscriptionId, Date now) {
+        Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscriptionId);
+        for (ApiKeyEntity apiKey : apiKeys) {
+            Date expireAt = apiKey.getExpireAt();
+            if (!apiKey.isRevoked() && (expireAt == null || expireAt.equals(now) || expireAt.before(now))) {
+                apiKey.setExpireAt(now);
+                apiKey.setRevokedAt(now);
+                apiKey.setRevoked(true);
+                apiKeyService.revoke(apiKey.getKey(), false);
+            }
+        }
+    }
+
     @Override
     public SubscriptionEntity pause(String subscriptionId) {
         try {
@@ -557,7 +629,10 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                     }
                 }
 
-                return convert(subscription);
+                final SubscriptionEntity subscriptionEntity = convert(subscription);
+                eventManager.publishEvent(SubscriptionEvent.UPDATE, subscriptionEntity);
+
+                return subscriptionEntity;
             }
 
             throw new SubscriptionNotPausableException(subscription);
@@ -623,7 +698,10 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                     }
                 }
 
-                return convert(subscription);
+                final SubscriptionEntity subscriptionEntity = convert(subscription);
+                eventManager.publishEvent(SubscriptionEvent.UPDATE, subscriptionEntity);
+
+                return subscriptionEntity;
             }
 
             throw new SubscriptionNotPausedException(subscription);
@@ -862,4 +940,20 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                 oldValue,
                 newValue);
     }
+
+    /**
+     * The applications, plans and APIs loaded while closing subscriptions, and the notifications to send once they
+     * are closed.
+     */
+    private static class ClosingContext {
+
+        private final Date now = new Date();
+
+        private final Map<String, ApplicationEntity> applications = new HashMap<>();
+        private final Map<String, PlanEntity> plans = new HashMap<>();
+        private final Map<String, ApiModelEntity> apis = new HashMap<>();
+
+        private final Map<String, List<Map<String, Object>>> apiNotifications = new LinkedHashMap<>();
+        private final Map<String, List<Map<String, Object>>> applicationNotifications = new LinkedHashMap<>();
+    }
 }
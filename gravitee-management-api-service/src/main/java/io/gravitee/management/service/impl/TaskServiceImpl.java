@@ -40,6 +40,7 @@ import java.util.stream.Collectors;
 
 import static io.gravitee.management.model.SubscriptionStatus.PENDING;
 import static io.gravitee.management.model.permissions.ApiPermission.SUBSCRIPTION;
+import static io.gravitee.management.model.permissions.RolePermissionAction.UPDATE;
 
 /**
  * @author Nicolas GERAUD(nicolas.geraud at graviteesource.com)
@@ -99,18 +100,16 @@ public class TaskServiceImpl extends AbstractService implements TaskService {
                         roleNameToEntity.put(roleName, roleEntity);
                     }
                     // 4. get apiId or groupIId only if the role has a SUBSCRIPTIONS_UPDATE permission
-                    for (char c : roleEntity.getPermissions().get(SUBSCRIPTION.getName())) {
-                        if (c == 'U') {
-                            switch(membership.getReferenceType()) {
-                                case GROUP:
-                                    groupIds.add(membership.getReferenceId());
-                                    break;
-                                case API:
-                                    apiIds.add(membership.getReferenceId());
-                                    break;
-                                default:
-                                    break;
-                            }
+                    if (roleEntity.getPermissionMask().hasPermission(SUBSCRIPTION, UPDATE)) {
+                        switch(membership.getReferenceType()) {
+                            case GROUP:
+                                groupIds.add(membership.getReferenceId());
+                                break;
+                            case API:
+                                apiIds.add(membership.getReferenceId());
+                                break;
+                            default:
+                                break;
                         }
                     }
                 }
@@ -20,6 +20,7 @@ import com.auth0.jwt.JWTVerifier;
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
+import io.gravitee.management.model.common.CursorPage;
 import io.gravitee.management.model.common.Pageable;
 import io.gravitee.management.model.parameters.Key;
 import io.gravitee.management.service.*;
@@ -583,10 +584,11 @@ public class UserServiceImpl extends AbstractService implements UserService {
 
                 if (results.hasResults()) {
                     List<UserEntity> users = new ArrayList<>((findByIds(results.getDocuments())));
-                    return new Page<>(users,
+                    return new CursorPage<>(users,
                             pageable.getPageNumber(),
                             pageable.getPageSize(),
-                            results.getHits());
+                            results.getHits(),
+                            results.getCursor());
                 } else {
                     return new Page<>(Collections.<UserEntity>emptyList(),
                             1, 0, 0);
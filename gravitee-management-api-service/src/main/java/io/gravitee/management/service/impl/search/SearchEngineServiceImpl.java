@@ -24,7 +24,6 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
@@ -51,7 +50,6 @@ public class SearchEngineServiceImpl implements SearchEngineService {
     @Autowired
     private Collection<DocumentSearcher> searchers;
 
-    @Async
     @Override
     public void index(Indexable source) {
         transformers.stream()
@@ -66,7 +64,6 @@ public class SearchEngineServiceImpl implements SearchEngineService {
                 });
     }
 
-    @Async
     @Override
     public void delete(Indexable source) {
         transformers.stream()
@@ -0,0 +1,374 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl.search;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.management.model.PageEntity;
+import io.gravitee.management.model.PageType;
+import io.gravitee.management.model.UserEntity;
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.common.PageableImpl;
+import io.gravitee.management.model.documentation.PageQuery;
+import io.gravitee.management.model.search.Indexable;
+import io.gravitee.management.model.search.IndexationStatusEntity;
+import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.PageService;
+import io.gravitee.management.service.UserService;
+import io.gravitee.management.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.management.service.impl.search.lucene.SearcherRefreshListener;
+import io.gravitee.management.service.search.SearchEngineService;
+import io.gravitee.management.service.search.SearchIndexationService;
+import io.gravitee.repository.exceptions.TechnicalException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Indexes APIs, published API pages and users in parallel.
+ *
+ * APIs and users are fetched by pages of <code>search.indexation.pageSize</code> entities, and processed (including
+ * the swagger transformation of the API pages) by a bounded pool of <code>search.indexation.threads</code> workers
+ * which all feed the {@link SearchEngineIndexer}. When workers are all busy, the fetching thread processes entities
+ * itself instead of loading more of them. The swagger parsers are not known to be thread-safe, so the swagger
+ * transformations themselves are run one at a time.
+ *
+ * When the index is persistent, only the entities updated since the high-water marks recorded by the previous
+ * indexation are indexed again, and the documents of deleted entities are removed. The marks only cover the
+ * entities which have been indexed without error, and are recorded once all the documents have been applied to
+ * the index, so that a failed entity is indexed again by the next indexation.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class SearchIndexationServiceImpl implements SearchIndexationService {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(SearchIndexationServiceImpl.class);
+
+    private final static String API_TYPE = "api";
+    private final static String PAGE_TYPE = "page";
+    private final static String USER_TYPE = "user";
+
+    @Autowired
+    private ApiService apiService;
+
+    @Autowired
+    private PageService pageService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SearchEngineService searchEngineService;
+
+    @Autowired
+    private SearchEngineIndexer indexer;
+
+    @Autowired
+    private SearcherRefreshListener searcherRefreshListener;
+
+    @Value("${search.indexation.threads:0}")
+    private int threads;
+
+    @Value("${search.indexation.pageSize:100}")
+    private int pageSize;
+
+    private final Object transformLock = new Object();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+
+    private volatile Date startedAt;
+    private volatile Date endedAt;
+
+    @Override
+    public void index() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("An indexation is already running");
+            return;
+        }
+
+        startedAt = new Date();
+        endedAt = null;
+        total.set(0);
+        processed.set(0);
+        indexed.set(0);
+
+        final HighWaterMark apisMark = new HighWaterMark(API_TYPE);
+        final HighWaterMark pagesMark = new HighWaterMark(PAGE_TYPE);
+        final HighWaterMark usersMark = new HighWaterMark(USER_TYPE);
+
+        final long dropped = indexer.getDroppedCount();
+        final ThreadPoolExecutor executor = createExecutor();
+
+        try {
+            // Index APIs
+            int pageNumber = 1;
+            Page<ApiEntity> apis;
+            do {
+                apis = apiService.findAll(new PageableImpl(pageNumber, pageSize));
+                if (pageNumber == 1) {
+                    total.addAndGet(apis.getTotalElements());
+                }
+
+                // APIs without primary owner are not returned
+                processed.addAndGet(apis.getPageElements() - apis.getContent().size());
+                apis.getContent().forEach(api -> executor.execute(() -> indexApi(api, apisMark, pagesMark)));
+            } while (apis.getPageElements() > 0 && (long) pageNumber++ * pageSize < apis.getTotalElements());
+
+            // Index users
+            pageNumber = 1;
+            Page<UserEntity> users;
+            do {
+                users = userService.search(null, new PageableImpl(pageNumber, pageSize));
+                if (pageNumber == 1) {
+                    total.addAndGet(users.getTotalElements());
+                }
+
+                final List<UserEntity> chunk = users.getContent();
+                executor.execute(() -> indexUsers(chunk, usersMark));
+            } while (users.getPageElements() > 0 && (long) pageNumber++ * pageSize < users.getTotalElements());
+
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+            apisMark.retain();
+            pagesMark.retain();
+            usersMark.retain();
+
+            // Apply the documents before recording the marks, fails if the index is unhealthy
+            indexer.flush();
+
+            if (indexer.getDroppedCount() == dropped) {
+                apisMark.commit();
+                pagesMark.commit();
+                usersMark.commit();
+
+                indexer.flush();
+            } else {
+                logger.warn("{} document(s) could not be indexed, high-water marks are kept unchanged",
+                        indexer.getDroppedCount() - dropped);
+            }
+
+            endedAt = new Date();
+            logger.info("Indexation done: {} document(s) indexed in {} ms ({} documents/s)",
+                    indexed.get(), endedAt.getTime() - startedAt.getTime(), String.format("%.1f", getDocumentsPerSecond()));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            logger.error("Indexation has been interrupted", ie);
+        } catch (TechnicalException te) {
+            logger.error("Unexpected error while committing the search index", te);
+        } catch (Exception ex) {
+            logger.error("Unexpected error while indexing entities", ex);
+        } finally {
+            executor.shutdownNow();
+            if (endedAt == null) {
+                endedAt = new Date();
+            }
+            running.set(false);
+        }
+    }
+
+    @Override
+    public IndexationStatusEntity getStatus() {
+        IndexationStatusEntity status = new IndexationStatusEntity();
+        status.setRunning(running.get());
+        status.setStartedAt(startedAt);
+        status.setEndedAt(endedAt);
+        status.setTotal(total.get());
+        status.setProcessed(processed.get());
+        status.setIndexed(indexed.get());
+        status.setDocumentsPerSecond(getDocumentsPerSecond());
+
+        status.setSearcherRefreshCount(searcherRefreshListener.getRefreshCount());
+        long lastRefreshAt = searcherRefreshListener.getLastRefreshAt();
+        status.setSearcherLastRefreshAt(lastRefreshAt == 0 ? null : new Date(lastRefreshAt));
+        status.setSearcherLastRefreshTime(searcherRefreshListener.getLastRefreshTime());
+        status.setSearcherAverageRefreshTime(searcherRefreshListener.getAverageRefreshTime());
+        status.setSearcherMaxRefreshTime(searcherRefreshListener.getMaxRefreshTime());
+
+        status.setIndexHealthy(indexer.isHealthy());
+        status.setIndexPending(indexer.getPendingCount());
+        status.setIndexFailures(indexer.getFailureCount());
+        status.setIndexDropped(indexer.getDroppedCount());
+        Exception lastFailure = indexer.getLastFailure();
+        status.setIndexLastFailure(lastFailure == null ? null : lastFailure.getMessage());
+        long lastFailureAt = indexer.getLastFailureAt();
+        status.setIndexLastFailureAt(lastFailureAt == 0 ? null : new Date(lastFailureAt));
+
+        return status;
+    }
+
+    private void indexApi(ApiEntity api, HighWaterMark apisMark, HighWaterMark pagesMark) {
+        try {
+            // API
+            boolean apiModified = apisMark.track(api.getId(), api.getUpdatedAt());
+            if (apiModified) {
+                index(api);
+            }
+
+            // Pages
+            List<PageEntity> apiPages = pageService.search(new PageQuery.Builder().api(api.getId()).published(true).build());
+            apiPages.forEach(page -> {
+                if (PageType.FOLDER.name().equals(page.getType()) || PageType.ROOT.name().equals(page.getType())) {
+                    return;
+                }
+
+                try {
+                    // Pages content depends on the API (ie. swagger transformation), re-index them with the API
+                    if (pagesMark.track(page.getId(), page.getLastModificationDate()) || apiModified) {
+                        synchronized (transformLock) {
+                            pageService.transformSwagger(page, api.getId());
+                        }
+                        index(page);
+                        pagesMark.applied(page.getLastModificationDate());
+                    }
+                } catch (Exception ex) {
+                    pagesMark.failed(page.getLastModificationDate());
+                    logger.error("Unexpected error while indexing page {} of API {}", page.getId(), api.getId(), ex);
+                }
+            });
+
+            if (apiModified) {
+                apisMark.applied(api.getUpdatedAt());
+            }
+        } catch (Exception ex) {
+            apisMark.failed(api.getUpdatedAt());
+            logger.error("Unexpected error while indexing API {}", api.getId(), ex);
+        } finally {
+            processed.incrementAndGet();
+        }
+    }
+
+    private void indexUsers(List<UserEntity> users, HighWaterMark usersMark) {
+        users.forEach(user -> {
+            try {
+                if (usersMark.track(user.getId(), user.getUpdatedAt())) {
+                    index(user);
+                    usersMark.applied(user.getUpdatedAt());
+                }
+            } catch (Exception ex) {
+                usersMark.failed(user.getUpdatedAt());
+                logger.error("Unexpected error while indexing user {}", user.getId(), ex);
+            } finally {
+                processed.incrementAndGet();
+            }
+        });
+    }
+
+    private void index(Indexable indexable) {
+        searchEngineService.index(indexable);
+        indexed.incrementAndGet();
+    }
+
+    private double getDocumentsPerSecond() {
+        Date start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+
+        Date end = endedAt;
+        long elapsed = (end != null ? end.getTime() : System.currentTimeMillis()) - start.getTime();
+        return elapsed == 0 ? 0 : indexed.get() * 1000.0 / elapsed;
+    }
+
+    private ThreadPoolExecutor createExecutor() {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger counter = new AtomicInteger();
+
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * 4),
+                r -> new Thread(r, "gio-search-indexation-" + counter.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private class HighWaterMark {
+
+        private final String type;
+        private final Long indexedAt;
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+        private final LongAccumulator updatedAt = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator failedAt = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final AtomicLong modified = new AtomicLong();
+
+        HighWaterMark(String type) {
+            this.type = type;
+            this.indexedAt = indexer.getHighWaterMark(type);
+        }
+
+        /**
+         * @return <code>true</code> if the entity has been updated since the last indexation.
+         */
+        boolean track(String id, Date entityUpdatedAt) {
+            ids.add(id);
+
+            if (entityUpdatedAt == null || indexedAt == null || entityUpdatedAt.getTime() >= indexedAt) {
+                modified.incrementAndGet();
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Records an entity which has been submitted to the index.
+         */
+        void applied(Date entityUpdatedAt) {
+            if (entityUpdatedAt != null) {
+                updatedAt.accumulate(entityUpdatedAt.getTime());
+            }
+        }
+
+        /**
+         * Records an entity which could not be indexed: the mark must not go beyond it. An entity without update
+         * date is always indexed again.
+         */
+        void failed(Date entityUpdatedAt) {
+            if (entityUpdatedAt != null) {
+                failedAt.accumulate(entityUpdatedAt.getTime());
+            }
+        }
+
+        void retain() throws TechnicalException {
+            logger.info("    {} {} document(s) indexed, {} updated since last indexation", ids.size(), type, modified.get());
+
+            // Remove the documents of the entities deleted since the last indexation
+            indexer.retain(type, ids);
+        }
+
+        void commit() {
+            indexer.setHighWaterMark(type, Math.min(Math.max(updatedAt.get(), indexedAt == null ? 0 : indexedAt), failedAt.get()));
+        }
+    }
+}
@@ -23,6 +23,8 @@ public class SearchResult {
 
     private long hits;
 
+    private String cursor;
+
     public SearchResult(final List<String> documents) {
         this.documents = documents;
     }
@@ -32,6 +34,12 @@ public class SearchResult {
         this.hits = hits;
     }
 
+    public SearchResult(final List<String> documents, long hits, String cursor) {
+        this.documents = documents;
+        this.hits = hits;
+        this.cursor = cursor;
+    }
+
     public List<String> getDocuments() {
         return documents;
     }
@@ -44,6 +52,13 @@ public class SearchResult {
         this.hits = hits;
     }
 
+    /**
+     * @return the cursor to use to fetch the next page of results, or <code>null</code> if there is no next page.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
     public boolean hasResults() {
         return documents != null && !documents.isEmpty();
     }
@@ -16,10 +16,17 @@
 package io.gravitee.management.service.impl.search.configuration;
 
 import io.gravitee.management.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.management.service.impl.search.lucene.SearcherRefreshListener;
+import io.gravitee.management.service.impl.search.lucene.analyzer.NGramAnalyzer;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,6 +36,8 @@ import org.springframework.context.annotation.Configuration;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -40,6 +49,18 @@ public class SearchEngineConfiguration {
     @Value("${search.data:${gravitee.home}/data}")
     private String indexDirectory;
 
+    /**
+     * Maximum delay (in milliseconds) before a change made to the index is visible to the searchers.
+     */
+    @Value("${search.refresh.interval:1000}")
+    private long refreshInterval;
+
+    /**
+     * Keep the index between restarts so that it can be caught up instead of being fully rebuilt.
+     */
+    @Value("${search.persistent:false}")
+    private boolean persistent;
+
     @Bean
     public SearchEngineIndexer searchEngineIndexer() {
         return new SearchEngineIndexer();
@@ -58,13 +79,44 @@ public class SearchEngineConfiguration {
     @Bean
     public IndexWriter indexWriter(Directory directory, Analyzer analyzer) throws IOException {
         IndexWriterConfig iwc = new IndexWriterConfig(analyzer);
-        iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        iwc.setOpenMode(persistent ? IndexWriterConfig.OpenMode.CREATE_OR_APPEND : IndexWriterConfig.OpenMode.CREATE);
 
         return new IndexWriter(directory, iwc);
     }
 
+    @Bean
+    public SearcherRefreshListener searcherRefreshListener() {
+        return new SearcherRefreshListener();
+    }
+
+    @Bean
+    public SearcherManager searcherManager(IndexWriter indexWriter, SearcherRefreshListener refreshListener) throws IOException {
+        SearcherManager searcherManager = new SearcherManager(indexWriter, new SearcherFactory());
+        searcherManager.addListener(refreshListener);
+
+        return searcherManager;
+    }
+
+    @Bean
+    public ControlledRealTimeReopenThread<IndexSearcher> searcherReopenThread(IndexWriter indexWriter, SearcherManager searcherManager) {
+        double maxStaleSec = refreshInterval / 1000.0;
+        ControlledRealTimeReopenThread<IndexSearcher> reopenThread =
+                new ControlledRealTimeReopenThread<>(indexWriter, searcherManager, maxStaleSec, Math.min(0.1, maxStaleSec));
+        reopenThread.setName("gio-search-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+
+        return reopenThread;
+    }
+
     @Bean
     public Analyzer analyzer() {
-        return new StandardAnalyzer();
+        // Shadow fields used to search values containing a given text
+        Map<String, Analyzer> analyzers = new HashMap<>();
+        NGramAnalyzer ngramAnalyzer = new NGramAnalyzer();
+        analyzers.put("name_ngram", ngramAnalyzer);
+        analyzers.put("path_ngram", ngramAnalyzer);
+
+        return new PerFieldAnalyzerWrapper(new StandardAnalyzer(), analyzers);
     }
 }
@@ -21,18 +21,52 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.TermInSetQuery;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.util.BytesRef;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
+ * Applies index operations to the Lucene index by batches.
+ *
+ * Updates and removals are queued and coalesced by document (only the last operation on a given document is kept),
+ * then applied and committed by a dedicated thread every <code>search.indexer.commit.interval</code> milliseconds
+ * or as soon as <code>search.indexer.commit.size</code> operations are pending, whichever comes first.
+ * When <code>search.indexer.queue.capacity</code> operations are pending, callers are blocked until the next batch
+ * has been applied.
+ *
+ * An operation which fails is retried with the next batches, up to <code>search.indexer.retries</code> times, unless
+ * the document is refused by Lucene (an {@link IllegalArgumentException}) in which case it is dropped at once. A
+ * failed commit is retried with the next batch. Until a batch is applied and committed without error, the index is
+ * reported as unhealthy (see {@link #isHealthy()}) and {@link #flush()} fails.
+ *
+ * Each commit also records in the index commit user data the layout version of the documents and the high-water
+ * marks set through {@link #setHighWaterMark(String, long)}, so that a persistent index can be caught up instead
+ * of being rebuilt at next startup.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class SearchEngineIndexer {
+public class SearchEngineIndexer implements InitializingBean, DisposableBean {
 
     /**
      * Logger.
@@ -42,20 +76,91 @@ public class SearchEngineIndexer {
     private final static String ID_FIELD = "id";
     private final static String TYPE_FIELD = "type";
 
+    /**
+     * Version of the documents layout, to be increased each time a {@link DocumentTransformer} changes the way
+     * documents are indexed so that a persistent index is rebuilt.
+     */
+    private final static String INDEX_VERSION = "3";
+
+    private final static String COMMIT_DATA_VERSION = "version";
+    private final static String COMMIT_DATA_HIGH_WATER_MARK = "updatedAt.";
+
     @Autowired
     private IndexWriter writer;
 
-    public long index(Document document) throws TechnicalException {
-        logger.debug("Updating a document into the Lucene index");
-        String id = document.get(ID_FIELD);
-        try {
-            long seq = writer.updateDocument(new Term(ID_FIELD, id), document);
-            writer.commit();
-            return seq;
-        } catch (IOException ioe) {
-            logger.error("Fail to index document with ID: {}", id, ioe);
-            throw new TechnicalException("Fail to index document with ID: " + id, ioe);
+    @Value("${search.indexer.commit.interval:1000}")
+    private long commitInterval = 1000;
+
+    @Value("${search.indexer.commit.size:500}")
+    private int commitSize = 500;
+
+    @Value("${search.indexer.queue.capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${search.indexer.retries:3}")
+    private int maxRetries = 3;
+
+    private final Object lock = new Object();
+
+    private Map<String, Operation> pending = new LinkedHashMap<>();
+
+    private boolean flushScheduled;
+
+    private volatile boolean running;
+
+    private ScheduledExecutorService executor;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong blockedCount = new AtomicLong();
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean healthy = true;
+    private volatile Exception lastFailure;
+    private volatile long lastFailureAt;
+
+    private volatile int lastBatchSize;
+    private volatile long lastCommitTime;
+
+    private final Map<String, Long> highWaterMarks = new ConcurrentHashMap<>();
+
+    private volatile boolean commitDataChanged;
+
+    @Override
+    public void afterPropertiesSet() {
+        loadCommitData();
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gio-search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::applyPending, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+
+        synchronized (lock) {
+            lock.notifyAll();
         }
+
+        executor.shutdown();
+        executor.awaitTermination(commitInterval * 2, TimeUnit.MILLISECONDS);
+
+        logger.debug("Flushing pending index operations before shutdown");
+        applyPending();
+    }
+
+    public void index(Document document) throws TechnicalException {
+        String id = document.get(ID_FIELD);
+        logger.debug("Updating document ID[{}] into the Lucene index", id);
+
+        enqueue(new Operation(id, document.get(TYPE_FIELD), document, false));
     }
 
     public void remove(Document document) throws TechnicalException {
@@ -64,15 +169,330 @@ public class SearchEngineIndexer {
 
         logger.debug("Removing document type[{}] ID[{}]", type, id);
 
-        BooleanQuery.Builder bq = new BooleanQuery.Builder();
-        bq.add(new TermQuery(new Term(ID_FIELD, id)), BooleanClause.Occur.MUST);
-        bq.add(new TermQuery(new Term(TYPE_FIELD, type)), BooleanClause.Occur.MUST);
+        enqueue(new Operation(id, type, document, true));
+    }
+
+    /**
+     * Applies and commits all the pending operations, waiting for them to be visible in the index.
+     */
+    public void flush() throws TechnicalException {
+        if (!running) {
+            applyPending();
+        } else {
+            try {
+                executor.submit(this::applyPending).get();
+            } catch (RejectedExecutionException ree) {
+                // The indexer is being stopped
+                applyPending();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new TechnicalException("Interrupted while flushing the index", ie);
+            } catch (ExecutionException ee) {
+                throw new TechnicalException("Fail to flush the index", ee.getCause());
+            }
+        }
+
+        if (!healthy) {
+            throw new TechnicalException("Fail to flush the index", lastFailure);
+        }
+    }
+
+    /**
+     * Removes all the documents of the given type which are not part of the given IDs.
+     */
+    public void retain(String type, Collection<String> ids) throws TechnicalException {
+        logger.debug("Removing documents type[{}] except {} document(s)", type, ids.size());
+
+        enqueue(new Operation(type, ids));
+    }
+
+    /**
+     * @return the high-water mark (the most recent update date, in milliseconds) of the given type of documents as
+     * recorded in the index, or <code>null</code> if those documents must be fully indexed.
+     */
+    public Long getHighWaterMark(String type) {
+        return highWaterMarks.get(type);
+    }
+
+    /**
+     * Records the high-water mark of the given type of documents. It will be stored into the index with the next
+     * commit.
+     */
+    public void setHighWaterMark(String type, long updatedAt) {
+        highWaterMarks.put(type, updatedAt);
+        commitDataChanged = true;
+    }
+
+    private void loadCommitData() {
+        Map<String, String> commitData = new HashMap<>();
+        Iterable<Map.Entry<String, String>> liveCommitData = writer.getLiveCommitData();
+        if (liveCommitData != null) {
+            liveCommitData.forEach(entry -> commitData.put(entry.getKey(), entry.getValue()));
+        }
+
+        if (!INDEX_VERSION.equals(commitData.get(COMMIT_DATA_VERSION))) {
+            logger.debug("No compatible commit data found in the index, documents must be fully indexed");
+            return;
+        }
+
+        commitData.forEach((key, value) -> {
+            if (key.startsWith(COMMIT_DATA_HIGH_WATER_MARK)) {
+                highWaterMarks.put(key.substring(COMMIT_DATA_HIGH_WATER_MARK.length()), Long.parseLong(value));
+            }
+        });
+
+        logger.debug("Index high-water marks loaded: {}", highWaterMarks);
+    }
+
+    private Map<String, String> commitData() {
+        Map<String, String> commitData = new HashMap<>();
+        commitData.put(COMMIT_DATA_VERSION, INDEX_VERSION);
+        highWaterMarks.forEach((type, updatedAt) ->
+                commitData.put(COMMIT_DATA_HIGH_WATER_MARK + type, Long.toString(updatedAt)));
+
+        return commitData;
+    }
+
+    private void enqueue(Operation operation) throws TechnicalException {
+        if (!running) {
+            // The indexer has been stopped, no more batching.
+            synchronized (lock) {
+                pending.put(operation.key(), operation);
+            }
+            applyPending();
+            return;
+        }
+
+        synchronized (lock) {
+            if (pending.size() >= queueCapacity && !pending.containsKey(operation.key())) {
+                blockedCount.incrementAndGet();
+                scheduleFlush();
+
+                while (running && pending.size() >= queueCapacity) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw new TechnicalException("Interrupted while waiting to index document " + operation.key(), ie);
+                    }
+                }
+            }
+
+            enqueuedCount.incrementAndGet();
+            // Remove then put to keep the pending operations in their submission order
+            if (pending.remove(operation.key()) != null) {
+                coalescedCount.incrementAndGet();
+            }
+            pending.put(operation.key(), operation);
+
+            if (pending.size() >= commitSize) {
+                scheduleFlush();
+            }
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled && running) {
+            flushScheduled = true;
+            executor.execute(this::applyPending);
+        }
+    }
+
+    private synchronized void applyPending() {
+        Map<String, Operation> batch;
+
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pending.isEmpty() && !commitDataChanged) {
+                return;
+            }
+
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            lock.notifyAll();
+        }
+
+        long start = System.currentTimeMillis();
+        boolean failed = false;
+
+        for (Operation operation : batch.values()) {
+            try {
+                operation.apply(writer);
+            } catch (IllegalArgumentException iae) {
+                // The document is refused by Lucene (an immense term for instance), retrying would not help
+                failed = true;
+                onFailure(iae);
+                drop(operation, iae);
+            } catch (IOException | RuntimeException ex) {
+                failed = true;
+                onFailure(ex);
+                retry(operation, ex);
+            }
+        }
 
         try {
-            writer.deleteDocuments(bq.build());
-        } catch (IOException ioe) {
-            logger.error("Fail to index document with ID: {}", id, ioe);
-            throw new TechnicalException("Fail to index document with ID: " + id, ioe);
+            commitDataChanged = false;
+            writer.setLiveCommitData(commitData().entrySet());
+            writer.commit();
+            commitCount.incrementAndGet();
+        } catch (IOException | RuntimeException ex) {
+            failed = true;
+            onFailure(ex);
+            // Commit again with the next batch
+            commitDataChanged = true;
+            logger.error("Fail to commit a batch of {} document(s) into the index", batch.size(), ex);
+        }
+
+        healthy = !failed;
+
+        lastBatchSize = batch.size();
+        lastCommitTime = System.currentTimeMillis() - start;
+
+        logger.debug("{} document(s) committed into the index in {} ms", lastBatchSize, lastCommitTime);
+    }
+
+    private void onFailure(Exception ex) {
+        failureCount.incrementAndGet();
+        lastFailure = ex;
+        lastFailureAt = System.currentTimeMillis();
+    }
+
+    private void retry(Operation operation, Exception ex) {
+        if (++operation.attempts > maxRetries) {
+            drop(operation, ex);
+            return;
+        }
+
+        logger.warn("Fail to apply index operation on document {}, it will be retried with the next batch",
+                operation.key(), ex);
+        synchronized (lock) {
+            // A more recent operation on the same document supersedes the failed one
+            pending.putIfAbsent(operation.key(), operation);
+        }
+    }
+
+    private void drop(Operation operation, Exception ex) {
+        droppedCount.incrementAndGet();
+        logger.error("Fail to apply index operation on document {} after {} attempt(s), the operation is dropped",
+                operation.key(), Math.max(operation.attempts, 1), ex);
+    }
+
+    /**
+     * @return the number of operations waiting to be applied to the index.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    /**
+     * @return the number of operations which have been replaced by a later operation on the same document before
+     * being applied.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    /**
+     * @return the number of times a caller had to wait because the queue was full.
+     */
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * @return the number of operations which could not be applied to the index, even after retries.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return <code>false</code> if the last batch could not be fully applied and committed to the index.
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    public long getLastFailureAt() {
+        return lastFailureAt;
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * @return the duration (in milliseconds) taken to apply and commit the last batch.
+     */
+    public long getLastCommitTime() {
+        return lastCommitTime;
+    }
+
+    private static class Operation {
+
+        private final String id;
+        private final String type;
+        private final Document document;
+        private final boolean delete;
+        private final Collection<String> retainedIds;
+
+        private int attempts;
+
+        Operation(String id, String type, Document document, boolean delete) {
+            this.id = id;
+            this.type = type;
+            this.document = document;
+            this.delete = delete;
+            this.retainedIds = null;
+        }
+
+        Operation(String type, Collection<String> retainedIds) {
+            this.id = null;
+            this.type = type;
+            this.document = null;
+            this.delete = true;
+            this.retainedIds = retainedIds;
+        }
+
+        String key() {
+            return retainedIds != null ? type + ":*" : type + ':' + id;
+        }
+
+        void apply(IndexWriter writer) throws IOException {
+            if (retainedIds != null) {
+                BooleanQuery.Builder bq = new BooleanQuery.Builder();
+                bq.add(new TermQuery(new Term(TYPE_FIELD, type)), BooleanClause.Occur.MUST);
+                bq.add(new TermInSetQuery(ID_FIELD, retainedIds.stream().map(BytesRef::new).collect(Collectors.toList())),
+                        BooleanClause.Occur.MUST_NOT);
+
+                writer.deleteDocuments(bq.build());
+            } else if (delete) {
+                BooleanQuery.Builder bq = new BooleanQuery.Builder();
+                bq.add(new TermQuery(new Term(ID_FIELD, id)), BooleanClause.Occur.MUST);
+                bq.add(new TermQuery(new Term(TYPE_FIELD, type)), BooleanClause.Occur.MUST);
+
+                writer.deleteDocuments(bq.build());
+            } else {
+                writer.updateDocument(new Term(ID_FIELD, id), document);
+            }
         }
     }
 }
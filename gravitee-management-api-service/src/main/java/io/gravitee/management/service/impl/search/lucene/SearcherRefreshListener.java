@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl.search.lucene;
+
+import org.apache.lucene.search.ReferenceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the refreshes of the shared {@link org.apache.lucene.search.SearcherManager}: how many times the
+ * index searcher has been reopened and how long it took.
+ *
+ * @author GraviteeSource Team
+ */
+public class SearcherRefreshListener implements ReferenceManager.RefreshListener {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(SearcherRefreshListener.class);
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong totalRefreshTime = new AtomicLong();
+    private final AtomicLong maxRefreshTime = new AtomicLong();
+
+    private volatile long lastRefreshTime;
+    private volatile long lastRefreshAt;
+
+    /**
+     * Refreshes are always triggered from a single thread (the reopen thread or a caller holding the
+     * manager's refresh lock), so a simple field is enough to hold the start time.
+     */
+    private long refreshStartedAt;
+
+    @Override
+    public void beforeRefresh() {
+        refreshStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void afterRefresh(boolean didRefresh) {
+        if (!didRefresh) {
+            return;
+        }
+
+        long elapsed = (System.nanoTime() - refreshStartedAt) / 1_000_000;
+
+        refreshCount.incrementAndGet();
+        totalRefreshTime.addAndGet(elapsed);
+        maxRefreshTime.accumulateAndGet(elapsed, Math::max);
+        lastRefreshTime = elapsed;
+        lastRefreshAt = System.currentTimeMillis();
+
+        logger.debug("Index searcher refreshed in {} ms", elapsed);
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    /**
+     * @return the duration (in milliseconds) of the last refresh.
+     */
+    public long getLastRefreshTime() {
+        return lastRefreshTime;
+    }
+
+    /**
+     * @return the maximum duration (in milliseconds) of a refresh.
+     */
+    public long getMaxRefreshTime() {
+        return maxRefreshTime.get();
+    }
+
+    /**
+     * @return the average duration (in milliseconds) of a refresh.
+     */
+    public long getAverageRefreshTime() {
+        long count = refreshCount.get();
+        return count == 0 ? 0 : totalRefreshTime.get() / count;
+    }
+
+    public long getLastRefreshAt() {
+        return lastRefreshAt;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl.search.lucene.analyzer;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Indexes all the lower-cased substrings (from {@link #MIN_GRAM} to {@link #MAX_GRAM} characters) of a whole value so
+ * that searching for a value containing a given text is a term lookup instead of a leading wildcard query scanning the
+ * whole terms dictionary.
+ *
+ * @author GraviteeSource Team
+ */
+public class NGramAnalyzer extends Analyzer {
+
+    public final static int MIN_GRAM = 1;
+    public final static int MAX_GRAM = 20;
+
+    /**
+     * Maximum number of grams looked up for a text longer than {@link #MAX_GRAM}, so that the query stays far below
+     * the maximum number of clauses of a boolean query.
+     */
+    public final static int MAX_GRAMS = 32;
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        final Tokenizer tokenizer = new KeywordTokenizer();
+        TokenStream stream = new LowerCaseFilter(tokenizer);
+        // Values longer than the largest gram are only indexed by their grams
+        stream = new NGramTokenFilter(stream, MIN_GRAM, MAX_GRAM, false);
+        return new TokenStreamComponents(tokenizer, stream);
+    }
+
+    /**
+     * Builds a query matching the values of an n-gram field containing the given text, ignoring case.
+     *
+     * @param field the n-gram field.
+     * @param text the text to search for.
+     * @return the query, <code>null</code> if the text is empty.
+     */
+    public static Query infixQuery(String field, String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+
+        final String value = text.toLowerCase();
+        if (value.length() <= MAX_GRAM) {
+            return new TermQuery(new Term(field, value));
+        }
+
+        // Longer than the largest gram: all its grams of maximum length must be found. For a long text, the grams
+        // are sampled from the first to the last one: as long as they overlap, they still cover the whole text.
+        final int count = value.length() - MAX_GRAM + 1;
+        Set<String> grams = new LinkedHashSet<>();
+        if (count <= MAX_GRAMS) {
+            for (int i = 0; i < count; i++) {
+                grams.add(value.substring(i, i + MAX_GRAM));
+            }
+        } else {
+            for (int i = 0; i < MAX_GRAMS; i++) {
+                int start = (int) ((long) i * (count - 1) / (MAX_GRAMS - 1));
+                grams.add(value.substring(start, start + MAX_GRAM));
+            }
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        grams.forEach(gram -> query.add(new TermQuery(new Term(field, gram)), BooleanClause.Occur.FILTER));
+        return query.build();
+    }
+}
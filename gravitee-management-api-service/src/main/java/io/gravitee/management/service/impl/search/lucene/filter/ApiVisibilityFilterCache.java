@@ -0,0 +1,319 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl.search.lucene.filter;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.repository.management.model.Visibility;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Builds and caches, for each user, the set of documents (APIs and their pages) the user is allowed to see: public
+ * APIs, APIs the user is a member of and APIs of the groups the user belongs to. The memberships of the user are read
+ * from the repository, only the visibility and the groups of the APIs come from the index.
+ *
+ * The matching documents are kept as a bitset per index segment and reused as long as the index searcher has not been
+ * refreshed. The user entry must be invalidated each time a membership of the user changes, and expires after
+ * <code>search.filter.cache.ttl</code> milliseconds so that memberships changed by other nodes are eventually seen.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class ApiVisibilityFilterCache {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(ApiVisibilityFilterCache.class);
+
+    private final static String FIELD_ID = "id";
+    private final static String FIELD_TYPE = "type";
+    private final static String FIELD_API = "api";
+    private final static String FIELD_VISIBILITY = "visibility";
+    private final static String FIELD_GROUPS = "groups";
+    private final static String FIELD_API_TYPE_VALUE = "api";
+    private final static String FIELD_PAGE_TYPE_VALUE = "page";
+
+    /**
+     * Key of the entry used for anonymous users.
+     */
+    private final static String ANONYMOUS = "";
+
+    @Value("${search.filter.cache.size:1000}")
+    private int cacheSize;
+
+    @Value("${search.filter.cache.ttl:10000}")
+    private long cacheTtl;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * @param userId the user to filter documents for, or <code>null</code> for an anonymous user who can only see public
+     *               APIs.
+     * @return a query matching the APIs, and their pages, visible by the given user.
+     */
+    public Query getFilter(String userId) {
+        final String key = userId == null ? ANONYMOUS : userId;
+
+        final long now = System.currentTimeMillis();
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || now >= entry.expiresAt) {
+                entry = new Entry(key, now + cacheTtl);
+                entries.put(key, entry);
+            }
+        }
+
+        return new VisibilityQuery(entry);
+    }
+
+    public void invalidate(String userId) {
+        logger.debug("Invalidate search visibility filter of user {}", userId);
+        synchronized (entries) {
+            entries.remove(userId == null ? ANONYMOUS : userId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private Set<String> findApis(String userId) throws IOException {
+        try {
+            return membershipRepository.findByUserAndReferenceType(userId, MembershipReferenceType.API)
+                    .stream()
+                    .map(Membership::getReferenceId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+        } catch (TechnicalException te) {
+            throw new IOException("Unable to get the APIs of user " + userId, te);
+        }
+    }
+
+    private Set<String> findGroups(String userId) throws IOException {
+        try {
+            return membershipRepository.findByUserAndReferenceType(userId, MembershipReferenceType.GROUP)
+                    .stream()
+                    .filter(membership -> membership.getRoles() != null
+                            && membership.getRoles().containsKey(RoleScope.API.getId()))
+                    .map(Membership::getReferenceId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+        } catch (TechnicalException te) {
+            throw new IOException("Unable to get the groups of user " + userId, te);
+        }
+    }
+
+    /**
+     * Visible documents of a user for a given index reader.
+     */
+    private class Entry {
+
+        private final String userId;
+
+        private final long expiresAt;
+
+        private Set<String> apis;
+
+        private Set<String> groups;
+
+        private Object readerKey;
+
+        private FixedBitSet[] bits;
+
+        Entry(String key, long expiresAt) {
+            this.userId = ANONYMOUS.equals(key) ? null : key;
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized FixedBitSet[] getBits(IndexSearcher searcher) throws IOException {
+            IndexReader reader = searcher.getIndexReader();
+            IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+            Object key = cacheHelper != null ? cacheHelper.getKey() : reader;
+
+            if (bits == null || key != readerKey) {
+                if (userId != null && groups == null) {
+                    apis = findApis(userId);
+                    groups = findGroups(userId);
+                }
+
+                bits = compute(searcher);
+                readerKey = key;
+            }
+
+            return bits;
+        }
+
+        private FixedBitSet[] compute(IndexSearcher searcher) throws IOException {
+            long start = System.currentTimeMillis();
+            List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+            FixedBitSet[] bits = new FixedBitSet[leaves.size()];
+            Set<BytesRef> visibleApis = new HashSet<>();
+
+            // Visible APIs
+            BooleanQuery.Builder visibility = new BooleanQuery.Builder();
+            visibility.add(new TermQuery(new Term(FIELD_VISIBILITY, Visibility.PUBLIC.name())), BooleanClause.Occur.SHOULD);
+            if (userId != null) {
+                if (!apis.isEmpty()) {
+                    visibility.add(new TermInSetQuery(FIELD_ID,
+                            apis.stream().map(BytesRef::new).collect(Collectors.toList())), BooleanClause.Occur.SHOULD);
+                }
+                if (!groups.isEmpty()) {
+                    visibility.add(new TermInSetQuery(FIELD_GROUPS,
+                            groups.stream().map(BytesRef::new).collect(Collectors.toList())), BooleanClause.Occur.SHOULD);
+                }
+            }
+
+            BooleanQuery.Builder apisQuery = new BooleanQuery.Builder();
+            apisQuery.add(new TermQuery(new Term(FIELD_TYPE, FIELD_API_TYPE_VALUE)), BooleanClause.Occur.FILTER);
+            apisQuery.add(visibility.build(), BooleanClause.Occur.FILTER);
+            searcher.search(apisQuery.build(), new BitSetCollector(bits, visibleApis));
+
+            // Pages of the visible APIs
+            if (!visibleApis.isEmpty()) {
+                BooleanQuery.Builder pagesQuery = new BooleanQuery.Builder();
+                pagesQuery.add(new TermQuery(new Term(FIELD_TYPE, FIELD_PAGE_TYPE_VALUE)), BooleanClause.Occur.FILTER);
+                pagesQuery.add(new TermInSetQuery(FIELD_API, visibleApis), BooleanClause.Occur.FILTER);
+                searcher.search(pagesQuery.build(), new BitSetCollector(bits, null));
+            }
+
+            logger.debug("Search visibility filter of user {} computed in {} ms ({} visible APIs)",
+                    userId, System.currentTimeMillis() - start, visibleApis.size());
+
+            return bits;
+        }
+    }
+
+    /**
+     * Sets the bits of the collected documents, and optionally collects their identifiers.
+     */
+    private static class BitSetCollector extends SimpleCollector {
+
+        private final FixedBitSet[] bits;
+        private final Set<BytesRef> ids;
+
+        private LeafReaderContext context;
+
+        BitSetCollector(FixedBitSet[] bits, Set<BytesRef> ids) {
+            this.bits = bits;
+            this.ids = ids;
+        }
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) {
+            this.context = context;
+            if (bits[context.ord] == null) {
+                bits[context.ord] = new FixedBitSet(context.reader().maxDoc());
+            }
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            bits[context.ord].set(doc);
+            if (ids != null) {
+                String id = context.reader().document(doc).get(FIELD_ID);
+                if (id != null) {
+                    ids.add(new BytesRef(id));
+                }
+            }
+        }
+
+        @Override
+        public boolean needsScores() {
+            return false;
+        }
+    }
+
+    /**
+     * Matches the documents of the cached bitsets, computed lazily for the searcher used to run the query.
+     */
+    private static class VisibilityQuery extends Query {
+
+        private final Entry entry;
+
+        VisibilityQuery(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, boolean needsScores, float boost) throws IOException {
+            final FixedBitSet[] bits = entry.getBits(searcher);
+
+            return new ConstantScoreWeight(this, boost) {
+                @Override
+                public Scorer scorer(LeafReaderContext context) {
+                    FixedBitSet leafBits = context.ord < bits.length ? bits[context.ord] : null;
+                    if (leafBits == null) {
+                        return null;
+                    }
+
+                    return new ConstantScoreScorer(this, score(), new BitSetIterator(leafBits, leafBits.approximateCardinality()));
+                }
+
+                @Override
+                public boolean isCacheable(LeafReaderContext context) {
+                    // Bits are already cached, and depend on the memberships of the user
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public String toString(String field) {
+            return "visibleBy(" + (entry.userId == null ? "anonymous" : entry.userId) + ')';
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return sameClassAs(other) && entry == ((VisibilityQuery) other).entry;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * classHash() + entry.hashCode();
+        }
+    }
+}
@@ -23,15 +23,15 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -51,7 +51,7 @@ public abstract class AbstractDocumentSearcher implements DocumentSearcher {
     protected Analyzer analyzer = new CustomWhitespaceAnalyzer();
 
     @Autowired
-    protected IndexWriter indexWriter;
+    protected SearcherManager searcherManager;
 
     protected SearchResult search(Query query) throws TechnicalException {
         return search(query, null);
@@ -60,18 +60,37 @@ public abstract class AbstractDocumentSearcher implements DocumentSearcher {
     protected SearchResult search(Query query, Pageable pageable) throws TechnicalException {
         logger.debug("Searching for: {}", query.toString());
 
+        IndexSearcher searcher = null;
         try {
-            IndexSearcher searcher = getIndexSearcher();
+            searcher = searcherManager.acquire();
+            if (isCollapsed()) {
+                return searchCollapsed(searcher, query, pageable);
+            }
+
             TopDocs topDocs;
+            String cursor = null;
 
             if (pageable != null) {
-                //TODO: How to find the accurate numhits ?
-                TopScoreDocCollector collector = TopScoreDocCollector.create(1000);
-                searcher.search(query, collector);
+                final int from = (pageable.getPageNumber() - 1) * pageable.getPageSize();
+                final long version = getVersion(searcher);
+                final ScoreDoc after = decodeCursor(pageable.getCursor(), version, pageable.getPageNumber());
+
+                if (after != null) {
+                    // Continue after the last hit of the previous page, previous pages are not collected again
+                    topDocs = searcher.searchAfter(after, query, pageable.getPageSize());
+                } else {
+                    TopScoreDocCollector collector = TopScoreDocCollector.create(Math.max(1, from + pageable.getPageSize()));
+                    searcher.search(query, collector);
+
+                    topDocs = collector.topDocs(from, pageable.getPageSize());
+                }
 
-                topDocs = collector.topDocs((pageable.getPageNumber() - 1) * pageable.getPageSize(), pageable.getPageSize());
+                if (topDocs.scoreDocs.length == pageable.getPageSize() && from + pageable.getPageSize() < topDocs.totalHits) {
+                    cursor = encodeCursor(topDocs.scoreDocs[topDocs.scoreDocs.length - 1], version, pageable.getPageNumber() + 1);
+                }
             } else {
-                topDocs = searcher.search(query, Integer.MAX_VALUE);
+                // Count the matching documents first so that hits are not collected into a queue sized to the index
+                topDocs = searcher.search(query, Math.max(1, searcher.count(query)));
             }
 
             final ScoreDoc[] hits = topDocs.scoreDocs;
@@ -86,18 +105,96 @@ public abstract class AbstractDocumentSearcher implements DocumentSearcher {
                 }
             }
 
-            return new SearchResult(results.stream().distinct().collect(Collectors.toList()), topDocs.totalHits);
+            return new SearchResult(results.stream().distinct().collect(Collectors.toList()), topDocs.totalHits, cursor);
         } catch (IOException ioe) {
             logger.error("An error occurs while getting documents from search result", ioe);
             throw new TechnicalException("An error occurs while getting documents from search result", ioe);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Several documents may reference the same entity (ie. an API and its pages): all the hits are then collected and
+     * collapsed to the best hit of each reference before paging and counting. As a reference may have hits on the
+     * previous pages, such a search can not continue after a hit and does not return any cursor.
+     */
+    private SearchResult searchCollapsed(IndexSearcher searcher, Query query, Pageable pageable) throws IOException {
+        TopDocs topDocs = searcher.search(query, Math.max(1, searcher.count(query)));
+
+        // Hits are sorted by score, the first hit of a reference is its best one
+        final Map<String, ScoreDoc> references = new LinkedHashMap<>();
+        for (ScoreDoc hit : topDocs.scoreDocs) {
+            String reference = getReference(searcher.doc(hit.doc));
+            if (reference != null) {
+                references.putIfAbsent(reference, hit);
+            }
         }
+
+        logger.debug("Found {} total matching documents for {} references", topDocs.totalHits, references.size());
+
+        List<String> results = new ArrayList<>(references.keySet());
+
+        if (pageable != null) {
+            final int from = Math.min((pageable.getPageNumber() - 1) * pageable.getPageSize(), results.size());
+            final int to = Math.min(from + pageable.getPageSize(), results.size());
+
+            results = new ArrayList<>(results.subList(from, to));
+        }
+
+        return new SearchResult(results, references.size(), null);
+    }
+
+    /**
+     * @return <code>true</code> if several documents may reference the same entity.
+     */
+    protected boolean isCollapsed() {
+        return false;
     }
 
     protected String getReference(Document document) {
         return document.get(FIELD_ID);
     }
 
-    private IndexSearcher getIndexSearcher() throws IOException {
-        return new IndexSearcher(DirectoryReader.open(indexWriter));
+    private long getVersion(IndexSearcher searcher) {
+        IndexReader reader = searcher.getIndexReader();
+        return reader instanceof DirectoryReader ? ((DirectoryReader) reader).getVersion() : 0;
+    }
+
+    /**
+     * A cursor references the last hit of a page. It is only valid for the page following this hit, and as long as
+     * the index has not been modified (document numbers may change when the index is refreshed).
+     */
+    private String encodeCursor(ScoreDoc last, long version, int nextPage) {
+        String cursor = version + ":" + nextPage + ':' + last.doc + ':' + Float.floatToIntBits(last.score);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ScoreDoc decodeCursor(String cursor, long version, int page) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length == 4 && Long.parseLong(parts[0]) == version && Integer.parseInt(parts[1]) == page) {
+                return new ScoreDoc(Integer.parseInt(parts[2]), Float.intBitsToFloat(Integer.parseInt(parts[3])));
+            }
+            logger.debug("Search cursor is outdated, fallback to page {}", page);
+        } catch (IllegalArgumentException iae) {
+            logger.debug("Invalid search cursor: {}", cursor);
+        }
+
+        return null;
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher != null) {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException ioe) {
+                logger.error("An error occurs while releasing the index searcher", ioe);
+            }
+        }
     }
 }
@@ -18,6 +18,8 @@ package io.gravitee.management.service.impl.search.lucene.searcher;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.search.Indexable;
 import io.gravitee.management.service.impl.search.SearchResult;
+import io.gravitee.management.service.impl.search.lucene.analyzer.NGramAnalyzer;
+import io.gravitee.management.service.impl.search.lucene.filter.ApiVisibilityFilterCache;
 import io.gravitee.repository.exceptions.TechnicalException;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.Term;
@@ -26,6 +28,8 @@ import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.queryparser.classic.QueryParserBase;
 import org.apache.lucene.search.*;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
@@ -33,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -43,6 +48,13 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
 
     private final static String FIELD_API_TYPE_VALUE = "api";
     private final static String FIELD_PAGE_TYPE_VALUE = "page";
+    private final static String FIELD_NAME_NGRAM = "name_ngram";
+    private final static String FIELD_PATH_NGRAM = "path_ngram";
+
+    /**
+     * Filter on the APIs visible by a user, given by its identifier (<code>null</code> for an anonymous user).
+     */
+    private final static String FILTER_VISIBLE_BY = "visibleBy";
 
     private final static Map<String, Float> API_FIELD_BOOST = new HashMap<String, Float>() {
         {
@@ -62,6 +74,9 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
         }
     };
 
+    @Autowired
+    private ApiVisibilityFilterCache apiVisibilityFilterCache;
+
     @Override
     public SearchResult search(io.gravitee.management.service.search.query.Query query) throws TechnicalException {
         MultiFieldQueryParser apiParser = new MultiFieldQueryParser(new String[]{
@@ -79,14 +94,12 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
                 "path_split"
         }, analyzer, API_FIELD_BOOST);
         apiParser.setFuzzyMinSim(0.6f);
-        apiParser.setAllowLeadingWildcard(true);
 
         QueryParser pageParser = new MultiFieldQueryParser(new String[]{
                 "name",
                 "content"
         }, analyzer, PAGE_FIELD_BOOST);
         pageParser.setFuzzyMinSim(0.6f);
-        pageParser.setAllowLeadingWildcard(true);
 
         try {
             String inputQuery = QueryParserBase.escape(query.getQuery());
@@ -100,9 +113,15 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
             BooleanQuery.Builder apiFieldsQuery = new BooleanQuery.Builder();
 
             apiFieldsQuery.add(parse, BooleanClause.Occur.SHOULD);
-            apiFieldsQuery.add(new WildcardQuery(new Term("name", '*' + query.getQuery() + '*')), BooleanClause.Occur.SHOULD);
-            apiFieldsQuery.add(new WildcardQuery(new Term("name_lowercase", '*' + query.getQuery().toLowerCase() + '*')), BooleanClause.Occur.SHOULD);
-            apiFieldsQuery.add(new WildcardQuery(new Term("path", '*' + query.getQuery() + '*')), BooleanClause.Occur.SHOULD);
+
+            // Names and paths containing the query, looked up in the n-gram fields. The name clause keeps the weight
+            // of the former wildcard queries on both name and name_lowercase fields.
+            Query nameInfix = NGramAnalyzer.infixQuery(FIELD_NAME_NGRAM, query.getQuery());
+            if (nameInfix != null) {
+                apiFieldsQuery.add(new BoostQuery(new ConstantScoreQuery(nameInfix), 2.0f), BooleanClause.Occur.SHOULD);
+                apiFieldsQuery.add(new ConstantScoreQuery(NGramAnalyzer.infixQuery(FIELD_PATH_NGRAM, query.getQuery())),
+                        BooleanClause.Occur.SHOULD);
+            }
 
             apiQuery.add(apiFieldsQuery.build(), BooleanClause.Occur.MUST);
             apiQuery.add(new TermQuery(new Term(FIELD_TYPE, FIELD_API_TYPE_VALUE)), BooleanClause.Occur.MUST);
@@ -112,7 +131,15 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
 
             // Search in page fields
             BooleanQuery.Builder pageQuery = new BooleanQuery.Builder();
-            pageQuery.add(parsePage, BooleanClause.Occur.MUST);
+            Query pageNameInfix = NGramAnalyzer.infixQuery(FIELD_NAME_NGRAM, query.getQuery());
+            if (pageNameInfix != null) {
+                BooleanQuery.Builder pageFieldsQuery = new BooleanQuery.Builder();
+                pageFieldsQuery.add(parsePage, BooleanClause.Occur.SHOULD);
+                pageFieldsQuery.add(new ConstantScoreQuery(pageNameInfix), BooleanClause.Occur.SHOULD);
+                pageQuery.add(pageFieldsQuery.build(), BooleanClause.Occur.MUST);
+            } else {
+                pageQuery.add(parsePage, BooleanClause.Occur.MUST);
+            }
             pageQuery.add(new TermQuery(new Term(FIELD_TYPE, FIELD_PAGE_TYPE_VALUE)), BooleanClause.Occur.MUST);
 
             apisFilter = getApisFilter(FIELD_API_TYPE_VALUE, query.getFilters());
@@ -127,6 +154,11 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
             //mainQuery.add(new BoostQuery(pathQuery.build(), 4.0f), BooleanClause.Occur.SHOULD);
             mainQuery.add(pageQuery.build(), BooleanClause.Occur.SHOULD);
 
+            if (query.getFilters() != null && query.getFilters().containsKey(FILTER_VISIBLE_BY)) {
+                mainQuery.add(apiVisibilityFilterCache.getFilter((String) query.getFilters().get(FILTER_VISIBLE_BY)),
+                        BooleanClause.Occur.FILTER);
+            }
+
             // Manage filters
             if (query.getFilters() != null) {
                 BooleanQuery.Builder filtersQuery = new BooleanQuery.Builder();
@@ -134,7 +166,8 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
                 query.getFilters().forEach(new BiConsumer<String, Object>() {
                     @Override
                     public void accept(String field, Object value) {
-                        if (Collection.class.isAssignableFrom(value.getClass())) {
+                        if (FILTER_VISIBLE_BY.equals(field) || value == null
+                                || Collection.class.isAssignableFrom(value.getClass())) {
                         } else {
                             filtersQuery.add(new TermQuery(new Term(field, QueryParserBase.escape((String) value))), BooleanClause.Occur.MUST);
                             hasClause[0] = true;
@@ -147,7 +180,7 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
                 }
 
             }
-            return search(mainQuery.build());
+            return search(mainQuery.build(), query.getPage());
         } catch (ParseException pe) {
             logger.error("Invalid query to search for API documents", pe);
             throw new TechnicalException("Invalid query to search for API documents", pe);
@@ -155,15 +188,12 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
     }
 
     private Query getApisFilter(String field, Map<String, Object> filters) {
-        Object filter = filters.get(FIELD_API_TYPE_VALUE);
+        Object filter = filters == null ? null : filters.get(FIELD_API_TYPE_VALUE);
         if (filter != null) {
-            BooleanQuery.Builder filterApisQuery = new BooleanQuery.Builder();
-
-            ((Collection)filter)
+            return new TermInSetQuery(field, ((Collection<?>) filter)
                     .stream()
-                    .forEach(value1 -> filterApisQuery.add(new TermQuery(new Term(field, (String) value1)), BooleanClause.Occur.SHOULD));
-
-            return filterApisQuery.build();
+                    .map(value -> new BytesRef((String) value))
+                    .collect(Collectors.toList()));
         }
 
         return null;
@@ -174,6 +204,12 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
         return source.isAssignableFrom(ApiEntity.class);
     }
 
+    @Override
+    protected boolean isCollapsed() {
+        // Pages reference the API they belong to
+        return true;
+    }
+
     @Override
     protected String getReference(Document document) {
         String type = document.get(FIELD_TYPE);
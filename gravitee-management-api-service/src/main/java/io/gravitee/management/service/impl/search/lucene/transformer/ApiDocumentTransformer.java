@@ -34,6 +34,7 @@ public class ApiDocumentTransformer implements DocumentTransformer {
     private final static String FIELD_NAME = "name";
     private final static String FIELD_NAME_LOWERCASE = "name_lowercase";
     private final static String FIELD_NAME_SPLIT = "name_split";
+    private final static String FIELD_NAME_NGRAM = "name_ngram";
     private final static String FIELD_DESCRIPTION = "description";
     private final static String FIELD_OWNER = "ownerName";
     private final static String FIELD_OWNER_MAIL = "ownerMail";
@@ -43,7 +44,10 @@ public class ApiDocumentTransformer implements DocumentTransformer {
     private final static String FIELD_UPDATED_AT = "updatedAt";
     private final static String FIELD_PATH = "path";
     private final static String FIELD_PATH_SPLIT = "path_split";
+    private final static String FIELD_PATH_NGRAM = "path_ngram";
     private final static String FIELD_TAGS = "tags";
+    private final static String FIELD_VISIBILITY = "visibility";
+    private final static String FIELD_GROUPS = "groups";
 
     @Override
     public Document transform(Indexable indexable) {
@@ -55,6 +59,7 @@ public class ApiDocumentTransformer implements DocumentTransformer {
         doc.add(new StringField(FIELD_NAME, api.getName(), Field.Store.NO));
         doc.add(new StringField(FIELD_NAME_LOWERCASE, api.getName().toLowerCase(), Field.Store.NO));
         doc.add(new TextField(FIELD_NAME_SPLIT, api.getName(), Field.Store.NO));
+        doc.add(new TextField(FIELD_NAME_NGRAM, api.getName(), Field.Store.NO));
         doc.add(new TextField(FIELD_DESCRIPTION, api.getDescription(), Field.Store.NO));
         doc.add(new TextField(FIELD_OWNER, api.getPrimaryOwner().getDisplayName(), Field.Store.NO));
         if (api.getPrimaryOwner().getEmail() != null) {
@@ -62,6 +67,7 @@ public class ApiDocumentTransformer implements DocumentTransformer {
         }
         doc.add(new StringField(FIELD_PATH, api.getProxy().getContextPath(), Field.Store.NO));
         doc.add(new TextField(FIELD_PATH_SPLIT, api.getProxy().getContextPath(), Field.Store.NO));
+        doc.add(new TextField(FIELD_PATH_NGRAM, api.getProxy().getContextPath(), Field.Store.NO));
 
         // labels
         if (api.getLabels() != null) {
@@ -84,6 +90,17 @@ public class ApiDocumentTransformer implements DocumentTransformer {
             }
         }
 
+        // visibility, used to filter the APIs a user is allowed to see
+        if (api.getVisibility() != null) {
+            doc.add(new StringField(FIELD_VISIBILITY, api.getVisibility().name(), Field.Store.NO));
+        }
+
+        if (api.getGroups() != null) {
+            for (String group : api.getGroups()) {
+                doc.add(new StringField(FIELD_GROUPS, group, Field.Store.NO));
+            }
+        }
+
         doc.add(new LongPoint(FIELD_CREATED_AT, api.getCreatedAt().getTime()));
         doc.add(new LongPoint(FIELD_UPDATED_AT, api.getUpdatedAt().getTime()));
 
@@ -21,8 +21,10 @@ import io.gravitee.management.model.search.Indexable;
 import io.gravitee.management.service.impl.search.lucene.DocumentTransformer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.util.BytesRef;
 import org.springframework.stereotype.Component;
 
 /**
@@ -37,6 +39,7 @@ public class PageDocumentTransformer implements DocumentTransformer {
     private final static String FIELD_API = "api";
     private final static String FIELD_TYPE_VALUE = "page";
     private final static String FIELD_NAME = "name";
+    private final static String FIELD_NAME_NGRAM = "name_ngram";
     private final static String FIELD_CONTENT = "content";
 
     @Override
@@ -47,6 +50,7 @@ public class PageDocumentTransformer implements DocumentTransformer {
         doc.add(new StringField(FIELD_ID, page.getId(), Field.Store.YES));
         doc.add(new StringField(FIELD_TYPE, FIELD_TYPE_VALUE, Field.Store.YES));
         doc.add(new TextField(FIELD_NAME, page.getName(), Field.Store.NO));
+        doc.add(new TextField(FIELD_NAME_NGRAM, page.getName(), Field.Store.NO));
 
         if (page.getContent() != null) {
             doc.add(new TextField(FIELD_CONTENT, page.getContent(), Field.Store.NO));
@@ -54,6 +58,7 @@ public class PageDocumentTransformer implements DocumentTransformer {
 
         if (page instanceof ApiPageEntity) {
             doc.add(new StringField(FIELD_API, ((ApiPageEntity)page).getApi(), Field.Store.YES));
+            doc.add(new SortedDocValuesField(FIELD_API, new BytesRef(((ApiPageEntity)page).getApi())));
         }
 
         return doc;
@@ -15,25 +15,12 @@
  */
 package io.gravitee.management.service.impl.upgrade;
 
-import io.gravitee.common.data.domain.Page;
-import io.gravitee.management.model.PageEntity;
-import io.gravitee.management.model.PageType;
-import io.gravitee.management.model.UserEntity;
-import io.gravitee.management.model.api.ApiEntity;
-import io.gravitee.management.model.common.PageableImpl;
-import io.gravitee.management.model.documentation.PageQuery;
-import io.gravitee.management.service.ApiService;
-import io.gravitee.management.service.PageService;
 import io.gravitee.management.service.Upgrader;
-import io.gravitee.management.service.UserService;
-import io.gravitee.management.service.search.SearchEngineService;
+import io.gravitee.management.service.search.SearchIndexationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Set;
-
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -43,43 +30,11 @@ import java.util.Set;
 public class SearchIndexUpgrader implements Upgrader, Ordered {
 
     @Autowired
-    private ApiService apiService;
-
-    @Autowired
-    private PageService pageService;
-
-    @Autowired
-    private UserService userService;
-
-    @Autowired
-    private SearchEngineService searchEngineService;
+    private SearchIndexationService searchIndexationService;
 
     @Override
     public boolean upgrade() {
-        // Index APIs
-        Set<ApiEntity> apis = apiService.findAll();
-        apis.forEach(apiEntity -> {
-            // API
-            searchEngineService.index(apiEntity);
-
-            // Pages
-            List<PageEntity> apiPages = pageService.search(new PageQuery.Builder().api(apiEntity.getId()).published(true).build());
-            apiPages.forEach(page -> {
-                try {
-                    if (!PageType.FOLDER.name().equals(page.getType())
-                            && !PageType.ROOT.name().equals(page.getType())) {
-                        pageService.transformSwagger(page, apiEntity.getId());
-                        searchEngineService.index(page);
-                    }
-                } catch (Exception ignored) {}
-            });
-        });
-
-        // Index users
-        Page<UserEntity> users = userService.search(null, new PageableImpl(1, Integer.MAX_VALUE));
-        users.getContent().forEach(userEntity ->
-                searchEngineService.index(userEntity)
-        );
+        searchIndexationService.index();
 
         return true;
     }
@@ -27,6 +27,12 @@ import java.util.Collection;
  */
 public interface SearchEngineService {
 
+    /**
+     * Indexes the given entity. Index operations are applied by batches, every
+     * <code>search.indexer.commit.interval</code> milliseconds, and the searches see them once the index searcher has
+     * been refreshed, within <code>search.refresh.interval</code> milliseconds: with the default settings, search
+     * results may lag behind writes by up to about 2 seconds.
+     */
     void index(Indexable source);
 
     void delete(Indexable source);
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.vertx;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares the HTTP clients used by the HTTP providers of the services (dynamic properties, dictionaries): one
+ * keep-alive client per scheme, host and port, so that successive polls reuse the pooled connections instead of doing
+ * a new TCP / TLS handshake each time.
+ *
+ * Idle connections are closed by the client after {@code idleTimeout} seconds, and a client which has not been used
+ * for {@code unusedTimeout} seconds (ie. the providers of its origin have been removed) is closed and removed from
+ * the pool.
+ *
+ * @author GraviteeSource Team
+ */
+public class HttpClientPool {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(HttpClientPool.class);
+
+    private static final String HTTPS_SCHEME = "https";
+
+    private final ConcurrentMap<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+    private final Vertx vertx;
+
+    private int maxPoolSize = 5;
+
+    private int idleTimeout = 60;
+
+    private int connectTimeout = 2000;
+
+    private boolean http2Enabled;
+
+    private int unusedTimeout = 600;
+
+    private volatile long lastEviction = System.currentTimeMillis();
+
+    private volatile boolean closed;
+
+    public HttpClientPool(final Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    /**
+     * Returns the client dedicated to the origin (scheme, host and port) of the given URI, creating it if needed.
+     */
+    public HttpClient getClient(final URI uri) {
+        if (closed) {
+            throw new IllegalStateException("HTTP client pool is closed");
+        }
+
+        final long now = System.currentTimeMillis();
+        evictUnusedClients(now);
+
+        // The proxy settings will have to be part of the key once the providers support them
+        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(uri.getScheme());
+        String key = (ssl ? HTTPS_SCHEME : "http") + "://" + uri.getHost() + ':' + getPort(uri);
+
+        return clients.compute(key, (origin, pooled) -> {
+            if (pooled == null) {
+                logger.debug("Create a new HTTP client for {}", origin);
+                pooled = new PooledClient(vertx.createHttpClient(createOptions(ssl)));
+            }
+
+            pooled.lastUsedAt = now;
+            return pooled;
+        }).client;
+    }
+
+    /**
+     * Closes and removes the clients which have not been used for {@code unusedTimeout} seconds. The pool is checked
+     * at most once per {@code unusedTimeout}.
+     */
+    private void evictUnusedClients(long now) {
+        final long timeout = unusedTimeout * 1000L;
+        if (now - lastEviction < timeout) {
+            return;
+        }
+        lastEviction = now;
+
+        for (String key : clients.keySet()) {
+            // A client is removed atomically, so that it can not be handed out while being evicted
+            PooledClient[] evicted = new PooledClient[1];
+            clients.computeIfPresent(key, (origin, pooled) -> {
+                if (now - pooled.lastUsedAt < timeout) {
+                    return pooled;
+                }
+                evicted[0] = pooled;
+                return null;
+            });
+
+            if (evicted[0] != null) {
+                logger.debug("Close the HTTP client for {}, unused for {} seconds", key, unusedTimeout);
+                close(evicted[0].client);
+            }
+        }
+    }
+
+    private HttpClientOptions createOptions(boolean ssl) {
+        HttpClientOptions options = new HttpClientOptions()
+                .setSsl(ssl)
+                .setTrustAll(true)
+                .setKeepAlive(true)
+                .setTcpKeepAlive(true)
+                .setMaxPoolSize(maxPoolSize)
+                .setIdleTimeout(idleTimeout)
+                .setConnectTimeout(connectTimeout);
+
+        if (http2Enabled) {
+            // HTTP/2 is negotiated through ALPN for TLS connections and through an h2c upgrade otherwise,
+            // falling back to HTTP/1.1 when the server does not support it.
+            options
+                    .setProtocolVersion(HttpVersion.HTTP_2)
+                    .setUseAlpn(ssl)
+                    .setHttp2MaxPoolSize(maxPoolSize);
+        }
+
+        return options;
+    }
+
+    public static int getPort(final URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+
+        return HTTPS_SCHEME.equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    public void close() {
+        closed = true;
+
+        clients.values().forEach(pooled -> close(pooled.client));
+        clients.clear();
+    }
+
+    private void close(HttpClient client) {
+        try {
+            client.close();
+        } catch (IllegalStateException ise) {
+            // Do not take care about exception when closing client
+        }
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    /**
+     * @param unusedTimeout the delay (in seconds) after which a client which has not been used is closed.
+     */
+    public void setUnusedTimeout(int unusedTimeout) {
+        this.unusedTimeout = unusedTimeout;
+    }
+
+    private static class PooledClient {
+
+        private final HttpClient client;
+
+        private volatile long lastUsedAt;
+
+        private PooledClient(HttpClient client) {
+            this.client = client;
+        }
+    }
+}
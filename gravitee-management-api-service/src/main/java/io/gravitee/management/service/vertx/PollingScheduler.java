@@ -0,0 +1,407 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.vertx;
+
+import io.vertx.core.Vertx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs the periodic polls of the providers of the services (dynamic properties, dictionaries).
+ *
+ * The first poll of each task is delayed by a random jitter so that tasks registered at the same time (at startup
+ * or after a synchronization) do not all hit their backend at the same instant. A poll is deferred when too many polls
+ * are already in flight, overall or to the same host: it waits for the end of a running poll instead of waiting for
+ * the next period.
+ *
+ * @author GraviteeSource Team
+ */
+public class PollingScheduler implements PollingSchedulerMXBean {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(PollingScheduler.class);
+
+    private static final String JMX_DOMAIN = "io.gravitee.management";
+
+    /**
+     * Host of the tasks whose host is unknown, they share the same per host limit.
+     */
+    private static final String DEFAULT_HOST = "";
+
+    private final Vertx vertx;
+
+    private final Map<String, Task> tasks = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> inFlightByHost = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Tasks whose poll has been deferred, in the order they have been deferred.
+     */
+    private final Queue<Task> waiting = new ConcurrentLinkedQueue<>();
+
+    private long maxJitter = 30000;
+
+    private int maxConcurrentPolls = 50;
+
+    private int maxConcurrentPollsPerHost = 10;
+
+    private BooleanSupplier active = () -> true;
+
+    private ObjectName objectName;
+
+    public PollingScheduler(final Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    /**
+     * @return the host of the given URL, to be given as the host of a task, or the default host if the URL has no host
+     * or is invalid.
+     */
+    public String getHost(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host != null) {
+                return host;
+            }
+
+            logger.warn("No host found in URL {}, its polls are limited with the other unknown hosts", url);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            logger.warn("Invalid URL {}, its polls are limited with the other unknown hosts", url, ex);
+        }
+
+        return DEFAULT_HOST;
+    }
+
+    /**
+     * Schedules a poll every <code>period</code> milliseconds, replacing the task previously scheduled with the same id.
+     *
+     * @param id the identifier of the task.
+     * @param host the host polled by the task, used to limit the concurrent polls to a same backend.
+     * @param period the delay (in milliseconds) between two polls.
+     * @param poll the poll to run, which returns a future completed at the end of the poll.
+     */
+    public void schedule(String id, String host, long period, Supplier<CompletableFuture<?>> poll) {
+        cancel(id);
+
+        Task task = new Task(id, host, poll);
+        tasks.put(id, task);
+
+        long jitter = ThreadLocalRandom.current().nextLong(Math.max(1, Math.min(period, maxJitter)));
+        logger.debug("Schedule task {} every {} ms, starting in {} ms", id, period, jitter);
+
+        task.timerId = vertx.setTimer(Math.max(1, jitter), timerId -> {
+            if (!task.cancelled) {
+                task.timerId = vertx.setPeriodic(period, periodicId -> {
+                    if (task.cancelled) {
+                        vertx.cancelTimer(periodicId);
+                    } else {
+                        run(task);
+                    }
+                });
+                run(task);
+            }
+        });
+    }
+
+    /**
+     * @return <code>true</code> if a task was scheduled with this id.
+     */
+    public boolean cancel(String id) {
+        Task task = tasks.remove(id);
+        if (task != null) {
+            task.cancelled = true;
+            vertx.cancelTimer(task.timerId);
+            return true;
+        }
+
+        return false;
+    }
+
+    public boolean isScheduled(String id) {
+        return tasks.containsKey(id);
+    }
+
+    /**
+     * Runs the poll of every scheduled task now, without waiting for their next period, for example when this node
+     * becomes the one running the polls. The polls above the concurrency limits are deferred as usual.
+     */
+    public void pollAll() {
+        vertx.runOnContext(v -> tasks.values().forEach(task -> {
+            if (!task.cancelled) {
+                run(task);
+            }
+        }));
+    }
+
+    private void run(Task task) {
+        if (!active.getAsBoolean()) {
+            return;
+        }
+
+        if (task.running) {
+            // The previous poll of this task is not over yet
+            task.skipped.incrementAndGet();
+            return;
+        }
+
+        AtomicInteger hostInFlight = inFlightByHost.computeIfAbsent(
+                task.host == null ? DEFAULT_HOST : task.host, host -> new AtomicInteger());
+
+        if (inFlight.incrementAndGet() > maxConcurrentPolls) {
+            inFlight.decrementAndGet();
+            defer(task, "overall");
+            return;
+        }
+
+        if (hostInFlight.incrementAndGet() > maxConcurrentPollsPerHost) {
+            hostInFlight.decrementAndGet();
+            inFlight.decrementAndGet();
+            defer(task, "host " + task.host);
+            return;
+        }
+
+        task.queued.set(false);
+        task.running = true;
+        long start = System.currentTimeMillis();
+        task.lastRun = start;
+        task.runs.incrementAndGet();
+
+        CompletableFuture<?> future;
+        try {
+            future = task.poll.get();
+        } catch (Exception ex) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+        }
+
+        future.whenComplete((result, throwable) -> {
+            task.lastLatency = System.currentTimeMillis() - start;
+            if (throwable != null) {
+                task.errors.incrementAndGet();
+            }
+
+            task.running = false;
+            hostInFlight.decrementAndGet();
+            inFlight.decrementAndGet();
+
+            if (!waiting.isEmpty()) {
+                vertx.runOnContext(v -> runWaiting());
+            }
+        });
+    }
+
+    private void defer(Task task, String limit) {
+        task.deferred.incrementAndGet();
+        if (task.queued.compareAndSet(false, true)) {
+            waiting.add(task);
+        }
+        logger.debug("Defer poll of task {}: too many polls in flight for {}", task.id, limit);
+    }
+
+    /**
+     * Tries once each deferred poll, which is deferred again if the limits are still reached.
+     */
+    private void runWaiting() {
+        for (int i = waiting.size(); i > 0; i--) {
+            Task task = waiting.poll();
+            if (task == null) {
+                return;
+            }
+
+            // The task may have been run by its timer or cancelled in the meantime
+            if (task.queued.compareAndSet(true, false) && !task.cancelled) {
+                run(task);
+            }
+        }
+    }
+
+    /**
+     * Registers the statistics of the tasks in the platform MBean server, until the scheduler is closed.
+     *
+     * @param name the name of the scheduler, for example the name of the service using it.
+     */
+    public void register(String name) {
+        try {
+            ObjectName jmxName = new ObjectName(JMX_DOMAIN + ":type=PollingScheduler,name=" + ObjectName.quote(name));
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (!mBeanServer.isRegistered(jmxName)) {
+                mBeanServer.registerMBean(this, jmxName);
+                objectName = jmxName;
+            }
+        } catch (Exception ex) {
+            logger.warn("Unable to register the polling scheduler {} in JMX", name, ex);
+        }
+    }
+
+    public void close() {
+        for (String id : tasks.keySet()) {
+            cancel(id);
+        }
+        waiting.clear();
+
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception ex) {
+                logger.debug("Unable to unregister MBean {}", objectName, ex);
+            }
+            objectName = null;
+        }
+    }
+
+    @Override
+    public Map<String, TaskStatistics> getStatistics() {
+        Map<String, TaskStatistics> statistics = new ConcurrentHashMap<>();
+        tasks.forEach((id, task) -> statistics.put(id, new TaskStatistics(task)));
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    public TaskStatistics getStatistics(String id) {
+        Task task = tasks.get(id);
+        return (task == null) ? null : new TaskStatistics(task);
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public int getWaiting() {
+        return waiting.size();
+    }
+
+    /**
+     * @param active tells whether polls must be run on this node (for example only when it is the leader).
+     */
+    public void setActive(BooleanSupplier active) {
+        this.active = active;
+    }
+
+    public void setMaxJitter(long maxJitter) {
+        this.maxJitter = maxJitter;
+    }
+
+    public void setMaxConcurrentPolls(int maxConcurrentPolls) {
+        this.maxConcurrentPolls = maxConcurrentPolls;
+    }
+
+    public void setMaxConcurrentPollsPerHost(int maxConcurrentPollsPerHost) {
+        this.maxConcurrentPollsPerHost = maxConcurrentPollsPerHost;
+    }
+
+    private static class Task {
+
+        private final String id;
+        private final String host;
+        private final Supplier<CompletableFuture<?>> poll;
+
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong deferred = new AtomicLong();
+
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        private volatile long timerId;
+        private volatile boolean cancelled;
+        private volatile boolean running;
+        private volatile long lastRun;
+        private volatile long lastLatency;
+
+        private Task(String id, String host, Supplier<CompletableFuture<?>> poll) {
+            this.id = id;
+            this.host = host;
+            this.poll = poll;
+        }
+    }
+
+    public static class TaskStatistics {
+
+        private final long runs;
+        private final long errors;
+        private final long skipped;
+        private final long deferred;
+        private final long lastRun;
+        private final long lastLatency;
+
+        private TaskStatistics(Task task) {
+            this.runs = task.runs.get();
+            this.errors = task.errors.get();
+            this.skipped = task.skipped.get();
+            this.deferred = task.deferred.get();
+            this.lastRun = task.lastRun;
+            this.lastLatency = task.lastLatency;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return the number of polls not run because the previous poll of the task was not over yet.
+         */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return the number of polls deferred because too many polls were in flight.
+         */
+        public long getDeferred() {
+            return deferred;
+        }
+
+        /**
+         * @return the time (in milliseconds since the epoch) of the start of the last poll.
+         */
+        public long getLastRun() {
+            return lastRun;
+        }
+
+        /**
+         * @return the duration (in milliseconds) of the last poll.
+         */
+        public long getLastLatency() {
+            return lastLatency;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.vertx;
+
+import java.util.Map;
+
+/**
+ * Statistics of the polls run by a {@link PollingScheduler}, exposed through JMX.
+ *
+ * @author GraviteeSource Team
+ */
+public interface PollingSchedulerMXBean {
+
+    /**
+     * @return the number of polls in flight.
+     */
+    int getInFlight();
+
+    /**
+     * @return the number of deferred polls waiting for the end of a poll in flight.
+     */
+    int getWaiting();
+
+    /**
+     * @return the statistics of the scheduled tasks, by task id.
+     */
+    Map<String, PollingScheduler.TaskStatistics> getStatistics();
+}
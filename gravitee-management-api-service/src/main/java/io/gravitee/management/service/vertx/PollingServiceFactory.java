@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.vertx;
+
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.management.service.LeaderService;
+import io.gravitee.management.service.event.LeaderEvent;
+import io.vertx.core.Vertx;
+import org.springframework.core.env.Environment;
+
+/**
+ * Creates the HTTP client pool and the polling scheduler of a polling service (dynamic properties, dictionaries),
+ * configured by the properties under the prefix of the service (ie. <code>services.dictionary</code>).
+ *
+ * @author GraviteeSource Team
+ */
+public class PollingServiceFactory {
+
+    private final Environment environment;
+
+    private final String prefix;
+
+    public PollingServiceFactory(final Environment environment, final String prefix) {
+        this.environment = environment;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Creates the HTTP client pool, configured by the <code>&lt;prefix&gt;.http.*</code> properties.
+     */
+    public HttpClientPool createHttpClientPool(Vertx vertx) {
+        HttpClientPool pool = new HttpClientPool(vertx);
+        pool.setMaxPoolSize(getProperty("http.maxPoolSize", Integer.class, 5));
+        pool.setIdleTimeout(getProperty("http.idleTimeout", Integer.class, 60));
+        pool.setConnectTimeout(getProperty("http.connectTimeout", Integer.class, 2000));
+        pool.setHttp2Enabled(getProperty("http.http2", Boolean.class, false));
+        pool.setUnusedTimeout(getProperty("http.unusedTimeout", Integer.class, 600));
+        return pool;
+    }
+
+    /**
+     * Creates the polling scheduler, configured by the <code>&lt;prefix&gt;.leaderOnly</code> and
+     * <code>&lt;prefix&gt;.scheduler.*</code> properties, and registers it into JMX under the given name.
+     */
+    public PollingScheduler createPollingScheduler(Vertx vertx, LeaderService leaderService, EventManager eventManager,
+                                                   String name) {
+        PollingScheduler scheduler = new PollingScheduler(vertx);
+        scheduler.setMaxJitter(getProperty("scheduler.maxJitter", Long.class, 30000L));
+        scheduler.setMaxConcurrentPolls(getProperty("scheduler.maxConcurrentPolls", Integer.class, 50));
+        scheduler.setMaxConcurrentPollsPerHost(getProperty("scheduler.maxConcurrentPollsPerHost", Integer.class, 10));
+        if (getProperty("leaderOnly", Boolean.class, true)) {
+            scheduler.setActive(leaderService::isLeader);
+
+            // Do not wait for the next period to poll once this node is elected
+            eventManager.subscribeForEvents(new EventListener<LeaderEvent, String>() {
+                @Override
+                public void onEvent(Event<LeaderEvent, String> event) {
+                    if (event.type() == LeaderEvent.ELECTED) {
+                        scheduler.pollAll();
+                    }
+                }
+            }, LeaderEvent.class);
+        }
+        scheduler.register(name);
+        return scheduler;
+    }
+
+    private <T> T getProperty(String key, Class<T> type, T defaultValue) {
+        return environment.getProperty(prefix + '.' + key, type, defaultValue);
+    }
+}
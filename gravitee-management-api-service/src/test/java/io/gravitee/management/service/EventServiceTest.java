@@ -16,8 +16,10 @@
 package io.gravitee.management.service;
 
 import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.management.model.EventEntity;
 import io.gravitee.management.model.NewEventEntity;
+import io.gravitee.management.service.event.ManagementEvent;
 import io.gravitee.management.service.exceptions.EventNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.impl.EventServiceImpl;
@@ -81,6 +83,9 @@ public class EventServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private EventManager eventManager;
+
     @Test
     public void shouldCreateEventWithPublishApiEventType() throws TechnicalException {
         when(event.getType()).thenReturn(EventType.PUBLISH_API);
@@ -98,6 +103,7 @@ public class EventServiceTest {
         assertEquals(EventType.PUBLISH_API.toString(), eventEntity.getType().toString());
         assertEquals(EVENT_PAYLOAD, eventEntity.getPayload());
         assertEquals(EVENT_USERNAME, eventEntity.getProperties().get(Event.EventProperties.USER.getValue()));
+        verify(eventManager).publishEvent(ManagementEvent.CREATED, eventEntity);
     }
 
     @Test
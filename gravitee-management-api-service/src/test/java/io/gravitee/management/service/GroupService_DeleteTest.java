@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.service.impl.GroupServiceImpl;
+import io.gravitee.management.service.impl.search.lucene.filter.ApiVisibilityFilterCache;
+import io.gravitee.management.service.search.SearchEngineService;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.GroupRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Group;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class GroupService_DeleteTest {
+
+    private static final String GROUP_ID = "my-group";
+    private static final String API_ID = "my-api";
+
+    @InjectMocks
+    private GroupService groupService = new GroupServiceImpl();
+
+    @Mock
+    private GroupRepository groupRepository;
+    @Mock
+    private MembershipRepository membershipRepository;
+    @Mock
+    private ApiRepository apiRepository;
+    @Mock
+    private ApplicationRepository applicationRepository;
+    @Mock
+    private AuditService auditService;
+    @Mock
+    private PermissionEngine permissionEngine;
+    @Mock
+    private ApiService apiService;
+    @Mock
+    private SearchEngineService searchEngineService;
+    @Mock
+    private ApiVisibilityFilterCache apiVisibilityFilterCache;
+
+    @Test
+    public void shouldInvalidateVisibilityAndReindexApis() throws Exception {
+        Group group = new Group();
+        group.setId(GROUP_ID);
+        when(groupRepository.findById(GROUP_ID)).thenReturn(Optional.of(group));
+
+        Membership membership = new Membership("user-1", GROUP_ID, MembershipReferenceType.GROUP);
+        when(membershipRepository.findByReferenceAndRole(MembershipReferenceType.GROUP, GROUP_ID, null, null))
+                .thenReturn(Collections.singleton(membership));
+
+        Api api = new Api();
+        api.setId(API_ID);
+        api.setGroups(new HashSet<>(Collections.singletonList(GROUP_ID)));
+        when(apiRepository.search(any(ApiCriteria.class))).thenReturn(Collections.singletonList(api));
+
+        ApiEntity apiEntity = new ApiEntity();
+        apiEntity.setId(API_ID);
+        when(apiService.findById(API_ID)).thenReturn(apiEntity);
+
+        groupService.delete(GROUP_ID);
+
+        assertTrue(api.getGroups().isEmpty());
+        verify(membershipRepository).delete(membership);
+        verify(apiVisibilityFilterCache).invalidate("user-1");
+        verify(apiRepository).update(api);
+        verify(searchEngineService).index(apiEntity);
+        verify(permissionEngine).invalidateAll();
+        verify(groupRepository).delete(GROUP_ID);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.common.event.EventManager;
+import io.gravitee.management.service.event.LeaderEvent;
+import io.gravitee.management.service.impl.LeaderServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ParameterRepository;
+import io.gravitee.repository.management.model.Parameter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LeaderServiceTest {
+
+    @Mock
+    private ParameterRepository parameterRepository;
+
+    @Mock
+    private EventManager eventManager1;
+
+    @Mock
+    private EventManager eventManager2;
+
+    /**
+     * In-memory parameters shared by the nodes.
+     */
+    private final Map<String, Parameter> parameters = new ConcurrentHashMap<>();
+
+    private LeaderServiceImpl node1;
+
+    private LeaderServiceImpl node2;
+
+    @Before
+    public void setUp() throws TechnicalException {
+        MockitoAnnotations.initMocks(this);
+
+        when(parameterRepository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(parameters.get(invocation.<String>getArgument(0))));
+        when(parameterRepository.create(any(Parameter.class))).thenAnswer(invocation -> {
+            Parameter parameter = invocation.getArgument(0);
+            if (parameters.putIfAbsent(parameter.getKey(), parameter) != null) {
+                throw new TechnicalException("Parameter already exists");
+            }
+            return parameter;
+        });
+        when(parameterRepository.update(any(Parameter.class))).thenAnswer(invocation -> {
+            Parameter parameter = invocation.getArgument(0);
+            parameters.put(parameter.getKey(), parameter);
+            return parameter;
+        });
+        doAnswer(invocation -> parameters.remove(invocation.<String>getArgument(0)))
+                .when(parameterRepository).delete(anyString());
+
+        node1 = node(eventManager1);
+        node2 = node(eventManager2);
+    }
+
+    private LeaderServiceImpl node(EventManager eventManager) {
+        LeaderServiceImpl node = new LeaderServiceImpl();
+        ReflectionTestUtils.setField(node, "parameterRepository", parameterRepository);
+        ReflectionTestUtils.setField(node, "eventManager", eventManager);
+        ReflectionTestUtils.setField(node, "enabled", true);
+        ReflectionTestUtils.setField(node, "ttl", 30000L);
+        return node;
+    }
+
+    @Test
+    public void shouldElectOnlyOneLeader() {
+        node1.renew();
+        node2.renew();
+
+        assertTrue(node1.isLeader());
+        assertFalse(node2.isLeader());
+
+        // Renewing keeps the same leader
+        node1.renew();
+        node2.renew();
+
+        assertTrue(node1.isLeader());
+        assertFalse(node2.isLeader());
+    }
+
+    @Test
+    public void shouldFailoverWhenLeaderReleasesLease() {
+        node1.renew();
+        node2.renew();
+
+        node1.release();
+        node2.renew();
+
+        assertFalse(node1.isLeader());
+        assertTrue(node2.isLeader());
+
+        verify(eventManager1).publishEvent(LeaderEvent.ELECTED, node1.getNodeId());
+        verify(eventManager1).publishEvent(LeaderEvent.REVOKED, node1.getNodeId());
+        verify(eventManager2).publishEvent(LeaderEvent.ELECTED, node2.getNodeId());
+    }
+
+    @Test
+    public void shouldPublishElectionOnce() {
+        node1.renew();
+        node1.renew();
+        node2.renew();
+
+        verify(eventManager1, times(1)).publishEvent(LeaderEvent.ELECTED, node1.getNodeId());
+        verify(eventManager2, never()).publishEvent(LeaderEvent.ELECTED, node2.getNodeId());
+    }
+
+    @Test
+    public void shouldTakeOverExpiredLease() {
+        Parameter expired = new Parameter();
+        expired.setKey(LeaderServiceImpl.LEASE_KEY);
+        expired.setValue("dead-node;" + (System.currentTimeMillis() - 1));
+        parameters.put(expired.getKey(), expired);
+
+        node1.renew();
+
+        assertTrue(node1.isLeader());
+    }
+
+    @Test
+    public void shouldAlwaysBeLeaderWhenDisabled() {
+        ReflectionTestUtils.setField(node1, "enabled", false);
+
+        assertTrue(node1.isLeader());
+    }
+}
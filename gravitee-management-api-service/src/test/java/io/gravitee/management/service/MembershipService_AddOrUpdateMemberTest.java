@@ -24,6 +24,7 @@ import io.gravitee.management.service.exceptions.AlreadyPrimaryOwnerException;
 import io.gravitee.management.service.exceptions.NotAuthorizedMembershipException;
 import io.gravitee.management.service.exceptions.RoleNotFoundException;
 import io.gravitee.management.service.impl.MembershipServiceImpl;
+import io.gravitee.management.service.impl.search.lucene.filter.ApiVisibilityFilterCache;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.model.Membership;
@@ -71,6 +72,8 @@ public class MembershipService_AddOrUpdateMemberTest {
     private IdentityService identityService;
     @Mock
     private NotifierService notifierService;
+    @Mock
+    private ApiVisibilityFilterCache apiVisibilityFilterCache;
 
     @Test
     public void shouldAddApiGroupMembership() throws Exception {
@@ -102,6 +105,7 @@ public class MembershipService_AddOrUpdateMemberTest {
         verify(membershipRepository, times(1)).create(any());
         verify(membershipRepository, never()).update(any());
         verify(emailService, times(1)).sendAsyncEmailNotification(any());
+        verify(apiVisibilityFilterCache, times(1)).invalidate(userEntity.getId());
     }
 
     @Test
@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.service.impl.PermissionEngineImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.RoleRepository;
+import io.gravitee.repository.management.model.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PermissionEngineTest {
+
+    private static final String USER = "user";
+    private static final String API_ID = "api-id";
+    private static final String GROUP_ID = "group-id";
+
+    @InjectMocks
+    private PermissionEngineImpl permissionEngine = new PermissionEngineImpl();
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Test
+    public void shouldGrantFromDirectMembership() throws TechnicalException {
+        mockDirectMembership("USER");
+        mockRole("USER", 1504);
+
+        assertTrue(permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+        assertFalse(permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.UPDATE));
+        assertFalse(permissionEngine.hasPermission(USER, RolePermission.API_MEMBER, API_ID, RolePermissionAction.READ));
+        verify(apiRepository, never()).search(any(), any());
+    }
+
+    @Test
+    public void shouldGrantFromGroupMembership() throws TechnicalException {
+        when(membershipRepository.findById(USER, MembershipReferenceType.API, API_ID)).thenReturn(Optional.empty());
+        Api api = new Api();
+        api.setId(API_ID);
+        api.setGroups(Collections.singleton(GROUP_ID));
+        when(apiRepository.search(any(), any())).thenReturn(Collections.singletonList(api));
+        Membership membership = new Membership(USER, GROUP_ID, MembershipReferenceType.GROUP);
+        membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), "OWNER"));
+        when(membershipRepository.findByIds(USER, MembershipReferenceType.GROUP, Collections.singleton(GROUP_ID)))
+                .thenReturn(Collections.singleton(membership));
+        mockRole("OWNER", 1306);
+
+        assertTrue(permissionEngine.hasPermission(USER, RolePermission.API_MEMBER, API_ID, RolePermissionAction.UPDATE));
+        assertFalse(permissionEngine.hasPermission(USER, RolePermission.API_MEMBER, API_ID, RolePermissionAction.DELETE));
+    }
+
+    @Test
+    public void shouldDenyWithoutReference() {
+        assertFalse(permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, null, RolePermissionAction.READ));
+        verifyZeroInteractions(membershipRepository);
+    }
+
+    @Test
+    public void shouldResolveOnceUntilInvalidated() throws TechnicalException {
+        mockDirectMembership("USER");
+        mockRole("USER", 1504);
+
+        permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ);
+        permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ);
+        verify(membershipRepository, times(1)).findById(USER, MembershipReferenceType.API, API_ID);
+
+        permissionEngine.invalidateReference(MembershipReferenceType.API, API_ID);
+        permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ);
+        verify(membershipRepository, times(2)).findById(USER, MembershipReferenceType.API, API_ID);
+
+        permissionEngine.invalidateUser(USER);
+        permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ);
+        verify(membershipRepository, times(3)).findById(USER, MembershipReferenceType.API, API_ID);
+        verify(roleRepository, times(1)).findById(RoleScope.API, "USER");
+    }
+
+    @Test
+    public void shouldReturnPermittedApisFromDirectAndGroupMemberships() throws TechnicalException {
+        mockRole("OWNER", 1504);
+        mockRole("USER", 1504);
+        mockRole("GUEST", 1304);
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.API)).thenReturn(new HashSet<>(Arrays.asList(
+                membership("api1", MembershipReferenceType.API, "OWNER"),
+                membership("api2", MembershipReferenceType.API, "GUEST"),
+                membership("other", MembershipReferenceType.API, "OWNER"))));
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.GROUP)).thenReturn(new HashSet<>(Arrays.asList(
+                membership("group1", MembershipReferenceType.GROUP, "USER"),
+                membership("group2", MembershipReferenceType.GROUP, "GUEST"))));
+        when(apiRepository.search(any(), any())).thenReturn(Arrays.asList(
+                api("api2", "group1"), api("api3", "group1"), api("api4", "group2"), api("api5", "group1")));
+
+        // A direct role takes precedence over the groups: api2 is not permitted
+        assertEquals(new HashSet<>(Arrays.asList("api1", "api3")), permissionEngine.hasPermissions(USER,
+                RolePermission.API_ANALYTICS, Arrays.asList("api1", "api2", "api3", "api4", "api6"), RolePermissionAction.READ));
+        verify(apiRepository, times(1)).search(any(), any());
+        verify(roleRepository, times(1)).findById(RoleScope.API, "GUEST");
+
+        // Resolved permissions are cached
+        assertEquals(Collections.singleton("api3"), permissionEngine.hasPermissions(USER,
+                RolePermission.API_ANALYTICS, Arrays.asList("api3", "api4"), RolePermissionAction.READ));
+        assertTrue(permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, "api3", RolePermissionAction.READ));
+        verify(membershipRepository, times(1)).findByUserAndReferenceType(USER, MembershipReferenceType.API);
+        verify(membershipRepository, never()).findById(any(), any(), any());
+    }
+
+    @Test
+    public void shouldNotSearchApisWithoutGroupMembership() throws TechnicalException {
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.API)).thenReturn(Collections.emptySet());
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.GROUP)).thenReturn(Collections.emptySet());
+
+        assertTrue(permissionEngine.hasPermissions(USER, RolePermission.API_ANALYTICS,
+                Arrays.asList("api1", "api2"), RolePermissionAction.READ).isEmpty());
+        verify(apiRepository, never()).search(any(), any());
+    }
+
+    @Test
+    public void shouldUsePermissionsResolvedOneByOne() throws TechnicalException {
+        mockDirectMembership("USER");
+        mockRole("USER", 1504);
+
+        assertTrue(permissionEngine.hasPermission(USER, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+        assertEquals(Collections.singleton(API_ID), permissionEngine.hasPermissions(USER,
+                RolePermission.API_ANALYTICS, Collections.singletonList(API_ID), RolePermissionAction.READ));
+        verify(membershipRepository, never()).findByUserAndReferenceType(any(), any());
+    }
+
+    @Test
+    public void shouldReturnNothingWithoutReferences() {
+        assertTrue(permissionEngine.hasPermissions(USER, RolePermission.API_ANALYTICS,
+                Collections.emptyList(), RolePermissionAction.READ).isEmpty());
+        verifyZeroInteractions(membershipRepository, apiRepository, roleRepository);
+    }
+
+    private void mockDirectMembership(String role) throws TechnicalException {
+        Membership membership = new Membership(USER, API_ID, MembershipReferenceType.API);
+        membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), role));
+        when(membershipRepository.findById(USER, MembershipReferenceType.API, API_ID)).thenReturn(Optional.of(membership));
+    }
+
+    private void mockRole(String name, int... permissions) throws TechnicalException {
+        Role role = new Role();
+        role.setScope(RoleScope.API);
+        role.setName(name);
+        role.setPermissions(permissions);
+        when(roleRepository.findById(RoleScope.API, name)).thenReturn(Optional.of(role));
+    }
+
+    private static Membership membership(String referenceId, MembershipReferenceType referenceType, String role) {
+        Membership membership = new Membership(USER, referenceId, referenceType);
+        membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), role));
+        return membership;
+    }
+
+    private static Api api(String id, String group) {
+        Api api = new Api();
+        api.setId(id);
+        api.setGroups(Collections.singleton(group));
+        return api;
+    }
+}
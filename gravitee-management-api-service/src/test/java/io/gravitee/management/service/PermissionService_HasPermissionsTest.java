@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.idp.api.authentication.UserDetails;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.service.impl.PermissionServiceImpl;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PermissionService_HasPermissionsTest {
+
+    private static final String USER = "user";
+
+    @InjectMocks
+    private PermissionServiceImpl permissionService = new PermissionServiceImpl();
+
+    @Mock
+    private PermissionEngine permissionEngine;
+
+    @Test
+    public void shouldCheckPermissionsOfAuthenticatedUser() {
+        authenticate();
+        List<String> apis = Arrays.asList("api1", "api2");
+        when(permissionEngine.hasPermissions(USER, RolePermission.API_GATEWAY_DEFINITION, apis, RolePermissionAction.READ))
+                .thenReturn(Collections.singleton("api1"));
+
+        Set<String> permitted = permissionService.hasPermissions(RolePermission.API_GATEWAY_DEFINITION, apis,
+                RolePermissionAction.READ);
+
+        assertEquals(Collections.singleton("api1"), permitted);
+    }
+
+    private void authenticate() {
+        final Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(new UserDetails(USER, "", emptyList()));
+        final SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+    }
+}
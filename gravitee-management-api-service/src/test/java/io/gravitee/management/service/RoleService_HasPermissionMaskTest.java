@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.permissions.ApiPermission;
+import io.gravitee.management.model.permissions.PermissionMask;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.model.permissions.RoleScope;
+import io.gravitee.management.service.impl.RoleServiceImpl;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the permission checks made against the bitmask of a role give the same results as the ones made against
+ * its permissions map.
+ *
+ * @author GraviteeSource Team
+ */
+public class RoleService_HasPermissionMaskTest {
+
+    private static final RolePermissionAction[][] ACLS = {
+            {RolePermissionAction.READ},
+            {RolePermissionAction.UPDATE},
+            {RolePermissionAction.UPDATE, RolePermissionAction.CREATE, RolePermissionAction.DELETE}
+    };
+
+    private final RoleService roleService = new RoleServiceImpl();
+
+    @Test
+    public void shouldCheckMaskLikeMap() {
+        final Map<String, char[]> permissions = new HashMap<>();
+        for (ApiPermission permission : ApiPermission.values()) {
+            if (permission.ordinal() % 3 == 1) {
+                permissions.put(permission.getName(), new char[]{'R'});
+            } else if (permission.ordinal() % 3 == 2) {
+                permissions.put(permission.getName(), new char[]{'C', 'R', 'U', 'D'});
+            }
+        }
+        final PermissionMask mask = PermissionMask.of(RoleScope.API, permissions);
+
+        for (ApiPermission permission : ApiPermission.values()) {
+            for (RolePermissionAction[] acls : ACLS) {
+                assertEquals(permission + " " + Arrays.toString(acls),
+                        roleService.hasPermission(permissions, permission, acls),
+                        roleService.hasPermission(mask, permission, acls));
+            }
+        }
+    }
+}
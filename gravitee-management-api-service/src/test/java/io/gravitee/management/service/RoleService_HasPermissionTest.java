@@ -16,18 +16,23 @@
 package io.gravitee.management.service;
 
 import io.gravitee.management.model.permissions.ApiPermission;
+import io.gravitee.management.model.permissions.ApplicationPermission;
+import io.gravitee.management.model.permissions.PermissionMask;
+import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.model.permissions.RoleScope;
 import io.gravitee.management.service.impl.RoleServiceImpl;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -94,4 +99,58 @@ public class RoleService_HasPermissionTest {
 
         assertFalse(hasPermission);
     }
+
+    @Test
+    public void shouldHasPermissionWithMask() {
+        final PermissionMask perms = PermissionMask.of(RoleScope.API,
+                Collections.singletonMap(ApiPermission.DOCUMENTATION.getName(), new char[]{'C', 'R', 'U', 'D'}));
+
+        assertTrue(roleService.hasPermission(perms, ApiPermission.DOCUMENTATION, RolePermissionAction.UPDATE));
+        assertTrue(perms.hasPermission(RolePermission.API_DOCUMENTATION, RolePermissionAction.READ));
+    }
+
+    @Test
+    public void shouldNotHasPermissionWithMask() {
+        final PermissionMask perms = PermissionMask.of(RoleScope.API,
+                Collections.singletonMap(ApiPermission.DOCUMENTATION.getName(), new char[]{'C', 'R', 'D'}));
+
+        assertFalse(roleService.hasPermission(perms, ApiPermission.DOCUMENTATION, RolePermissionAction.UPDATE));
+        assertFalse(roleService.hasPermission(perms, ApiPermission.PLAN, RolePermissionAction.READ));
+        assertFalse(roleService.hasPermission(perms, ApplicationPermission.DEFINITION, RolePermissionAction.READ));
+        assertFalse(roleService.hasPermission((PermissionMask) null, ApiPermission.DOCUMENTATION, RolePermissionAction.READ));
+    }
+
+    @Test
+    public void shouldBuildSameMaskFromRepositoryPermissions() {
+        final Map<String, char[]> perms = new HashMap<>();
+        perms.put(ApiPermission.DOCUMENTATION.getName(), new char[]{'R', 'U'});
+        perms.put(ApiPermission.ALERT.getName(), new char[]{'C', 'D'});
+
+        final PermissionMask mask = PermissionMask.of(RoleScope.API, new int[]{
+                ApiPermission.DOCUMENTATION.getMask() + RolePermissionAction.READ.getMask() + RolePermissionAction.UPDATE.getMask(),
+                ApiPermission.ALERT.getMask() + RolePermissionAction.CREATE.getMask() + RolePermissionAction.DELETE.getMask()});
+
+        assertEquals(PermissionMask.of(RoleScope.API, perms), mask);
+        assertArrayEquals(new char[]{'C', 'D'}, mask.toMap().get(ApiPermission.ALERT.getName()));
+    }
+
+    @Test
+    public void shouldMergePermissions() {
+        final PermissionMask reader = PermissionMask.of(RoleScope.API,
+                Collections.singletonMap(ApiPermission.DOCUMENTATION.getName(), new char[]{'R'}));
+        final PermissionMask writer = PermissionMask.of(RoleScope.API,
+                Collections.singletonMap(ApiPermission.PLAN.getName(), new char[]{'U'}));
+
+        final PermissionMask merged = reader.union(writer);
+
+        assertTrue(merged.hasPermission(ApiPermission.DOCUMENTATION, RolePermissionAction.READ));
+        assertTrue(merged.hasPermission(ApiPermission.PLAN, RolePermissionAction.UPDATE));
+        assertFalse(merged.hasPermission(ApiPermission.PLAN, RolePermissionAction.READ));
+        assertFalse(reader.hasPermission(ApiPermission.PLAN, RolePermissionAction.UPDATE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotMergePermissionsOfAnotherScope() {
+        PermissionMask.empty(RoleScope.API).union(PermissionMask.empty(RoleScope.APPLICATION));
+    }
 }
@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.common.event.EventManager;
 import io.gravitee.management.idp.api.authentication.UserDetails;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
@@ -91,6 +92,8 @@ public class SubscriptionServiceTest {
     private ConfigurableEnvironment environment;
     @Mock
     private NotifierService notifierService;
+    @Mock
+    private EventManager eventManager;
 
     @Test
     public void shouldFindById() throws TechnicalException {
@@ -733,8 +736,56 @@ public class SubscriptionServiceTest {
         subscriptionService.close(SUBSCRIPTION_ID);
 
         verify(apiKeyService).revoke("api-key", false);
-        verify(notifierService).trigger(eq(ApiHook.SUBSCRIPTION_CLOSED), anyString(), anyMap());
-        verify(notifierService).trigger(eq(ApplicationHook.SUBSCRIPTION_CLOSED), nullable(String.class), anyMap());
+        verify(notifierService).trigger(eq(ApiHook.SUBSCRIPTION_CLOSED), eq(API_ID),
+                argThat((List<Map<String, Object>> params) -> params.size() == 1));
+        verify(notifierService).trigger(eq(ApplicationHook.SUBSCRIPTION_CLOSED), nullable(String.class),
+                argThat((List<Map<String, Object>> params) -> params.size() == 1));
+    }
+
+    @Test
+    public void shouldCloseAllSubscriptions() throws Exception {
+        final Subscription subscription1 = new Subscription();
+        subscription1.setId("subscription-1");
+        subscription1.setStatus(Subscription.Status.ACCEPTED);
+        subscription1.setPlan(PLAN_ID);
+        subscription1.setApplication(APPLICATION_ID);
+
+        final Subscription subscription2 = new Subscription(subscription1);
+        subscription2.setId("subscription-2");
+
+        final Subscription rejected = new Subscription(subscription1);
+        rejected.setId("rejected");
+        rejected.setStatus(Subscription.Status.REJECTED);
+
+        final ApiKeyEntity apiKey = new ApiKeyEntity();
+        apiKey.setKey("api-key");
+        apiKey.setRevoked(false);
+
+        when(plan.getApis()).thenReturn(Collections.singleton(API_ID));
+        when(subscriptionRepository.findById("subscription-1")).thenReturn(Optional.of(subscription1));
+        when(subscriptionRepository.findById("subscription-2")).thenReturn(Optional.of(subscription2));
+        when(subscriptionRepository.findById("rejected")).thenReturn(Optional.of(rejected));
+        when(subscriptionRepository.update(any(Subscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(apiKeyService.findBySubscription("subscription-1")).thenReturn(Collections.singleton(apiKey));
+        when(apiKeyService.findBySubscription("subscription-2")).thenReturn(Collections.emptySet());
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModelEntity);
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+        when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
+        when(application.getPrimaryOwner()).thenReturn(mock(PrimaryOwnerEntity.class));
+
+        Collection<SubscriptionEntity> closed = subscriptionService.closeAll(
+                Arrays.asList("subscription-1", "subscription-2", "rejected"));
+
+        assertEquals(2, closed.size());
+        verify(subscriptionRepository, times(2)).update(any(Subscription.class));
+        verify(planService, times(1)).findById(PLAN_ID);
+        verify(applicationService, times(1)).findById(APPLICATION_ID);
+        verify(apiService, times(1)).findByIdForTemplates(API_ID);
+        verify(apiKeyService).revoke("api-key", false);
+        verify(notifierService, times(1)).trigger(eq(ApiHook.SUBSCRIPTION_CLOSED), eq(API_ID),
+                argThat((List<Map<String, Object>> params) -> params.size() == 2));
+        verify(notifierService, times(1)).trigger(eq(ApplicationHook.SUBSCRIPTION_CLOSED), nullable(String.class),
+                argThat((List<Map<String, Object>> params) -> params.size() == 2));
     }
 
     @Test(expected = SubscriptionNotFoundException.class)
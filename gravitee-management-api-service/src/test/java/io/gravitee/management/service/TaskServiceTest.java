@@ -87,10 +87,12 @@ public class TaskServiceTest {
 
         RoleEntity roleEntityWithPerm = new RoleEntity();
         roleEntityWithPerm.setName("PO");
+        roleEntityWithPerm.setScope(io.gravitee.management.model.permissions.RoleScope.API);
         roleEntityWithPerm.setPermissions(withPerm);
 
         RoleEntity roleEntityWithoutPerm = new RoleEntity();
         roleEntityWithoutPerm.setName("USER");
+        roleEntityWithoutPerm.setScope(io.gravitee.management.model.permissions.RoleScope.API);
         roleEntityWithoutPerm.setPermissions(withoutPerm);
 
         when(roleService.findById(RoleScope.API, "PO"))
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.search;
+
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.common.Pageable;
+import io.gravitee.management.model.common.PageableImpl;
+import io.gravitee.management.service.impl.search.SearchResult;
+import io.gravitee.management.service.impl.search.lucene.analyzer.CustomWhitespaceAnalyzer;
+import io.gravitee.management.service.impl.search.lucene.searcher.ApiDocumentSearcher;
+import io.gravitee.management.service.search.query.QueryBuilder;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ApiDocumentSearcherTest {
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    private ApiDocumentSearcher searcher;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new RAMDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new CustomWhitespaceAnalyzer()));
+
+        // api-1 matches along with two of its pages, api-3 only through its page
+        writer.addDocument(api("api-1", "payment gateway"));
+        writer.addDocument(page("page-1a", "api-1", "payment guide"));
+        writer.addDocument(page("page-1b", "api-1", "payment reference"));
+        writer.addDocument(api("api-2", "payment"));
+        writer.addDocument(api("api-3", "billing"));
+        writer.addDocument(page("page-3", "api-3", "payment"));
+        writer.addDocument(api("api-4", "shipping"));
+        writer.commit();
+
+        searcherManager = new SearcherManager(writer, new SearcherFactory());
+
+        searcher = new ApiDocumentSearcher();
+        setField(searcher, "searcherManager", searcherManager);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @Test
+    public void shouldCollapseApiAndPageHits() throws Exception {
+        SearchResult result = search(null);
+
+        assertEquals(new HashSet<>(Arrays.asList("api-1", "api-2", "api-3")), new HashSet<>(result.getDocuments()));
+        assertEquals(3, result.getDocuments().size());
+        assertEquals(3, result.getHits());
+        assertNull(result.getCursor());
+    }
+
+    @Test
+    public void shouldPageOverApis() throws Exception {
+        SearchResult first = search(new PageableImpl(1, 2));
+        assertEquals(2, first.getDocuments().size());
+        assertEquals(3, first.getHits());
+        // Collapsed searches can not continue after a hit
+        assertNull(first.getCursor());
+
+        SearchResult second = search(new PageableImpl(2, 2));
+        assertEquals(1, second.getDocuments().size());
+        assertEquals(3, second.getHits());
+        assertNull(second.getCursor());
+
+        Set<String> apis = new HashSet<>(first.getDocuments());
+        apis.addAll(second.getDocuments());
+        assertEquals(new HashSet<>(Arrays.asList("api-1", "api-2", "api-3")), apis);
+    }
+
+    @Test
+    public void shouldReturnFullPagesWithoutDuplicates() throws Exception {
+        List<String> apis = new ArrayList<>();
+        for (int page = 1; page <= 3; page++) {
+            SearchResult result = search(new PageableImpl(page, 1));
+            assertEquals(1, result.getDocuments().size());
+            assertEquals(3, result.getHits());
+            apis.addAll(result.getDocuments());
+        }
+
+        assertEquals(3, new HashSet<>(apis).size());
+        assertTrue(search(new PageableImpl(4, 1)).getDocuments().isEmpty());
+    }
+
+    private SearchResult search(Pageable pageable) throws Exception {
+        return searcher.search(QueryBuilder.create(ApiEntity.class)
+                .setQuery("payment")
+                .setPage(pageable)
+                .build());
+    }
+
+    private static Document api(String id, String description) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new StringField("type", "api", Field.Store.YES));
+        doc.add(new TextField("description", description, Field.Store.NO));
+        return doc;
+    }
+
+    private static Document page(String id, String api, String content) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new StringField("type", "page", Field.Store.YES));
+        doc.add(new TextField("content", content, Field.Store.NO));
+        doc.add(new StringField("api", api, Field.Store.YES));
+        doc.add(new SortedDocValuesField("api", new BytesRef(api)));
+        return doc;
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.search;
+
+import io.gravitee.management.service.impl.search.lucene.filter.ApiVisibilityFilterCache;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.RoleScope;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiVisibilityFilterCacheTest {
+
+    @InjectMocks
+    private ApiVisibilityFilterCache cache = new ApiVisibilityFilterCache();
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        setField(cache, "cacheSize", 10);
+        setField(cache, "cacheTtl", 60000L);
+
+        directory = new RAMDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        writer.addDocument(api("api-public", "PUBLIC", null));
+        writer.addDocument(api("api-member", "PRIVATE", null));
+        writer.addDocument(api("api-group", "PRIVATE", "group-1"));
+        writer.addDocument(page("page-public", "api-public"));
+        writer.addDocument(page("page-member", "api-member"));
+        writer.commit();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        writer.close();
+        directory.close();
+    }
+
+    @Test
+    public void shouldOnlySeePublicApisWhenAnonymous() throws Exception {
+        assertEquals(2, count(null));
+    }
+
+    @Test
+    public void shouldSeeApisAndPagesOfMember() throws Exception {
+        when(membershipRepository.findByUserAndReferenceType("user-1", MembershipReferenceType.API))
+                .thenReturn(Collections.singleton(new Membership("user-1", "api-member", MembershipReferenceType.API)));
+
+        assertEquals(4, count("user-1"));
+    }
+
+    @Test
+    public void shouldSeeApisOfGroups() throws Exception {
+        mockGroupMembership();
+
+        assertEquals(3, count("user-2"));
+    }
+
+    @Test
+    public void shouldReuseFilterUntilInvalidated() throws Exception {
+        mockGroupMembership();
+
+        count("user-2");
+        count("user-2");
+        verify(membershipRepository, times(1)).findByUserAndReferenceType("user-2", MembershipReferenceType.GROUP);
+
+        cache.invalidate("user-2");
+        count("user-2");
+        verify(membershipRepository, times(2)).findByUserAndReferenceType("user-2", MembershipReferenceType.GROUP);
+    }
+
+    @Test
+    public void shouldReloadMembershipsOnceExpired() throws Exception {
+        setField(cache, "cacheTtl", 0L);
+        mockGroupMembership();
+
+        count("user-2");
+        count("user-2");
+        verify(membershipRepository, times(2)).findByUserAndReferenceType("user-2", MembershipReferenceType.GROUP);
+    }
+
+    @Test
+    public void shouldNotSeeApiAfterMembershipRemovedOnAnotherNode() throws Exception {
+        setField(cache, "cacheTtl", 0L);
+        when(membershipRepository.findByUserAndReferenceType("user-1", MembershipReferenceType.API))
+                .thenReturn(Collections.singleton(new Membership("user-1", "api-member", MembershipReferenceType.API)))
+                .thenReturn(Collections.emptySet());
+
+        assertEquals(4, count("user-1"));
+        assertEquals(2, count("user-1"));
+    }
+
+    private void mockGroupMembership() throws Exception {
+        Membership membership = new Membership("user-2", "group-1", MembershipReferenceType.GROUP);
+        membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), "USER"));
+        when(membershipRepository.findByUserAndReferenceType("user-2", MembershipReferenceType.GROUP))
+                .thenReturn(Collections.singleton(membership));
+    }
+
+    private int count(String userId) throws Exception {
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            return new IndexSearcher(reader).count(cache.getFilter(userId));
+        }
+    }
+
+    private Document api(String id, String visibility, String group) {
+        Document document = new Document();
+        document.add(new StringField("id", id, Field.Store.YES));
+        document.add(new StringField("type", "api", Field.Store.YES));
+        document.add(new StringField("visibility", visibility, Field.Store.NO));
+        if (group != null) {
+            document.add(new StringField("groups", group, Field.Store.NO));
+        }
+        return document;
+    }
+
+    private Document page(String id, String api) {
+        Document document = new Document();
+        document.add(new StringField("id", id, Field.Store.YES));
+        document.add(new StringField("type", "page", Field.Store.YES));
+        document.add(new StringField("api", api, Field.Store.YES));
+        return document;
+    }
+}
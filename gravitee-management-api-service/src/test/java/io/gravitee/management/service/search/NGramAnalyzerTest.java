@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.search;
+
+import io.gravitee.management.service.impl.search.configuration.SearchEngineConfiguration;
+import io.gravitee.management.service.impl.search.lucene.analyzer.NGramAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that infix queries on n-gram fields find the same APIs as the leading wildcard queries they replace, on a
+ * synthetic index of 10k APIs.
+ *
+ * @author GraviteeSource Team
+ */
+public class NGramAnalyzerTest {
+
+    private final static String[] WORDS = {
+            "Weather", "forecast", "Payments", "user", "Accounts", "inventory", "Shipping", "catalog", "search", "Orders"
+    };
+
+    private static Directory directory;
+
+    private static DirectoryReader reader;
+
+    private static IndexSearcher searcher;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        directory = new RAMDirectory();
+        Random random = new Random(42);
+
+        try (IndexWriter writer = new IndexWriter(directory,
+                new IndexWriterConfig(new SearchEngineConfiguration().analyzer()))) {
+            for (int i = 0; i < 10_000; i++) {
+                String name = WORDS[random.nextInt(WORDS.length)] + ' ' + WORDS[random.nextInt(WORDS.length)] + " API " + i;
+
+                Document document = new Document();
+                document.add(new StringField("name_lowercase", name.toLowerCase(), Field.Store.NO));
+                document.add(new TextField("name_ngram", name, Field.Store.NO));
+                writer.addDocument(document);
+            }
+        }
+
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        reader.close();
+        directory.close();
+    }
+
+    @Test
+    public void shouldMatchSingleCharacter() throws Exception {
+        assertSameMatches("7");
+    }
+
+    @Test
+    public void shouldMatchInfix() throws Exception {
+        assertSameMatches("ments user");
+        assertSameMatches("API 12");
+    }
+
+    @Test
+    public void shouldIgnoreCase() throws Exception {
+        assertSameMatches("WEATHER");
+    }
+
+    @Test
+    public void shouldMatchTextLongerThanGrams() throws Exception {
+        assertSameMatches("Weather forecast API ");
+    }
+
+    @Test
+    public void shouldLimitGramsOfLongText() throws Exception {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 5000) {
+            text.append("Weather forecast API ");
+        }
+
+        Query query = NGramAnalyzer.infixQuery("name_ngram", text.toString());
+
+        assertTrue(((BooleanQuery) query).clauses().size() <= NGramAnalyzer.MAX_GRAMS);
+        assertEquals(0, searcher.count(query));
+    }
+
+    @Test
+    public void shouldNotMatchUnknownText() throws Exception {
+        assertEquals(0, searcher.count(NGramAnalyzer.infixQuery("name_ngram", "billing")));
+    }
+
+    private void assertSameMatches(String text) throws Exception {
+        int expected = searcher.count(new WildcardQuery(new Term("name_lowercase", '*' + text.toLowerCase() + '*')));
+
+        assertTrue(expected > 0);
+        assertEquals(expected, searcher.count(NGramAnalyzer.infixQuery("name_ngram", text)));
+    }
+}
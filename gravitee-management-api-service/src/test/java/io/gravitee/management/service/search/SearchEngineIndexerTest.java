@@ -0,0 +1,284 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.search;
+
+import io.gravitee.management.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.repository.exceptions.TechnicalException;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class SearchEngineIndexerTest {
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearchEngineIndexer indexer;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new RAMDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        indexer = newIndexer(writer);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        indexer.destroy();
+        writer.close();
+    }
+
+    @Test
+    public void shouldCoalesceUpdatesOfSameDocument() throws Exception {
+        indexer.index(document("api-1", "api"));
+        indexer.index(document("api-1", "api"));
+        indexer.index(document("api-2", "api"));
+
+        indexer.flush();
+
+        assertEquals(3, indexer.getEnqueuedCount());
+        assertEquals(1, indexer.getCoalescedCount());
+        assertEquals(1, indexer.getCommitCount());
+        assertEquals(2, indexer.getLastBatchSize());
+        assertEquals(2, countDocuments());
+    }
+
+    @Test
+    public void shouldApplyRemoveAfterUpdate() throws Exception {
+        indexer.index(document("api-1", "api"));
+        indexer.index(document("page-1", "page"));
+        indexer.remove(document("api-1", "api"));
+
+        indexer.flush();
+
+        assertEquals(1, indexer.getCoalescedCount());
+        assertEquals(1, countDocuments());
+    }
+
+    @Test
+    public void shouldFlushPendingOperationsOnShutdown() throws Exception {
+        indexer.index(document("api-1", "api"));
+
+        indexer.destroy();
+
+        assertEquals(0, indexer.getPendingCount());
+        assertEquals(1, countDocuments());
+    }
+
+    @Test
+    public void shouldRetainOnlyGivenDocuments() throws Exception {
+        indexer.index(document("api-1", "api"));
+        indexer.index(document("api-2", "api"));
+        indexer.index(document("page-1", "page"));
+        indexer.flush();
+
+        indexer.retain("api", Collections.singleton("api-2"));
+        indexer.flush();
+
+        assertEquals(2, countDocuments());
+    }
+
+    @Test
+    public void shouldReloadHighWaterMarksFromIndex() throws Exception {
+        assertNull(indexer.getHighWaterMark("api"));
+
+        indexer.index(document("api-1", "api"));
+        indexer.setHighWaterMark("api", 1234L);
+        indexer.destroy();
+        writer.close();
+
+        IndexWriterConfig iwc = new IndexWriterConfig(new StandardAnalyzer());
+        iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, iwc);
+        indexer = newIndexer(writer);
+
+        assertEquals(Long.valueOf(1234L), indexer.getHighWaterMark("api"));
+        assertNull(indexer.getHighWaterMark("user"));
+        assertEquals(1, countDocuments());
+    }
+
+    @Test
+    public void shouldRetryFailedOperationWithNextBatch() throws Exception {
+        IndexWriter failingWriter = mock(IndexWriter.class);
+        doThrow(new IOException("disk full")).doReturn(1L)
+                .when(failingWriter).updateDocument(any(Term.class), any());
+        SearchEngineIndexer failingIndexer = newIndexer(failingWriter);
+
+        try {
+            failingIndexer.index(document("api-1", "api"));
+            try {
+                failingIndexer.flush();
+                fail("Flush should fail while the index is unhealthy");
+            } catch (TechnicalException te) {
+                assertFalse(failingIndexer.isHealthy());
+                assertEquals(1, failingIndexer.getFailureCount());
+                assertEquals(1, failingIndexer.getPendingCount());
+            }
+
+            failingIndexer.flush();
+
+            assertTrue(failingIndexer.isHealthy());
+            assertEquals(0, failingIndexer.getDroppedCount());
+            verify(failingWriter, times(2)).updateDocument(any(Term.class), any());
+        } finally {
+            failingIndexer.destroy();
+        }
+    }
+
+    @Test
+    public void shouldDropOperationAfterRetries() throws Exception {
+        IndexWriter failingWriter = mock(IndexWriter.class);
+        doThrow(new IOException("disk full")).when(failingWriter).updateDocument(any(Term.class), any());
+        SearchEngineIndexer failingIndexer = newIndexer(failingWriter);
+        setField(failingIndexer, "maxRetries", 1);
+
+        try {
+            failingIndexer.index(document("api-1", "api"));
+            for (int i = 0; i < 2; i++) {
+                try {
+                    failingIndexer.flush();
+                    fail("Flush should fail while the index is unhealthy");
+                } catch (TechnicalException expected) {
+                }
+            }
+
+            assertEquals(2, failingIndexer.getFailureCount());
+            assertEquals(1, failingIndexer.getDroppedCount());
+            assertEquals(0, failingIndexer.getPendingCount());
+            assertNotNull(failingIndexer.getLastFailure());
+            verify(failingWriter, times(2)).updateDocument(any(Term.class), any());
+        } finally {
+            failingIndexer.destroy();
+        }
+    }
+
+    @Test
+    public void shouldNotRetryOperationSupersededByNewerOne() throws Exception {
+        IndexWriter failingWriter = mock(IndexWriter.class);
+        doThrow(new IOException("disk full")).when(failingWriter).updateDocument(any(Term.class), any());
+        SearchEngineIndexer failingIndexer = newIndexer(failingWriter);
+
+        try {
+            failingIndexer.index(document("api-1", "api"));
+            try {
+                failingIndexer.flush();
+                fail("Flush should fail while the index is unhealthy");
+            } catch (TechnicalException expected) {
+            }
+            failingIndexer.remove(document("api-1", "api"));
+            failingIndexer.flush();
+
+            assertTrue(failingIndexer.isHealthy());
+            verify(failingWriter, times(1)).updateDocument(any(Term.class), any());
+            verify(failingWriter, times(1)).deleteDocuments(any(org.apache.lucene.search.Query.class));
+        } finally {
+            failingIndexer.destroy();
+        }
+    }
+
+    @Test
+    public void shouldDropOperationRefusedByLucene() throws Exception {
+        IndexWriter failingWriter = mock(IndexWriter.class);
+        doThrow(new IllegalArgumentException("immense term")).when(failingWriter).updateDocument(any(Term.class), any());
+        SearchEngineIndexer failingIndexer = newIndexer(failingWriter);
+
+        try {
+            failingIndexer.index(document("api-1", "api"));
+            failingIndexer.index(document("api-2", "api"));
+            try {
+                failingIndexer.flush();
+                fail("Flush should fail while the index is unhealthy");
+            } catch (TechnicalException expected) {
+            }
+
+            assertEquals(2, failingIndexer.getDroppedCount());
+            assertEquals(0, failingIndexer.getPendingCount());
+            assertEquals(1, failingIndexer.getCommitCount());
+            verify(failingWriter, times(2)).updateDocument(any(Term.class), any());
+        } finally {
+            failingIndexer.destroy();
+        }
+    }
+
+    @Test
+    public void shouldRetryBatchWhenCommitFailsWithRuntimeException() throws Exception {
+        IndexWriter failingWriter = mock(IndexWriter.class);
+        doThrow(new AlreadyClosedException("closed")).doReturn(1L).when(failingWriter).commit();
+        SearchEngineIndexer failingIndexer = newIndexer(failingWriter);
+
+        try {
+            failingIndexer.index(document("api-1", "api"));
+            try {
+                failingIndexer.flush();
+                fail("Flush should fail while the index is unhealthy");
+            } catch (TechnicalException expected) {
+            }
+
+            failingIndexer.flush();
+
+            assertTrue(failingIndexer.isHealthy());
+            assertEquals(1, failingIndexer.getFailureCount());
+            assertEquals(1, failingIndexer.getCommitCount());
+            verify(failingWriter, times(2)).commit();
+        } finally {
+            failingIndexer.destroy();
+        }
+    }
+
+    private SearchEngineIndexer newIndexer(IndexWriter writer) {
+        SearchEngineIndexer indexer = new SearchEngineIndexer();
+        setField(indexer, "writer", writer);
+        setField(indexer, "commitInterval", 60_000L);
+        indexer.afterPropertiesSet();
+        return indexer;
+    }
+
+    private int countDocuments() throws Exception {
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            return reader.numDocs();
+        }
+    }
+
+    private Document document(String id, String type) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new StringField("type", type, Field.Store.YES));
+        return doc;
+    }
+}
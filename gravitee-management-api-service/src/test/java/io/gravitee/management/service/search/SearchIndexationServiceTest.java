@@ -0,0 +1,218 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.search;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.management.model.PageEntity;
+import io.gravitee.management.model.PageType;
+import io.gravitee.management.model.UserEntity;
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.common.Pageable;
+import io.gravitee.management.model.documentation.PageQuery;
+import io.gravitee.management.model.search.IndexationStatusEntity;
+import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.PageService;
+import io.gravitee.management.service.UserService;
+import io.gravitee.management.service.impl.search.SearchIndexationServiceImpl;
+import io.gravitee.management.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.management.service.impl.search.lucene.SearcherRefreshListener;
+import io.gravitee.repository.exceptions.TechnicalException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SearchIndexationServiceTest {
+
+    private static final int APIS = 5;
+    private static final int USERS = 3;
+    private static final int PAGE_SIZE = 2;
+
+    @InjectMocks
+    private SearchIndexationServiceImpl searchIndexationService = new SearchIndexationServiceImpl();
+
+    @Mock
+    private ApiService apiService;
+    @Mock
+    private PageService pageService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private SearchEngineService searchEngineService;
+    @Mock
+    private SearchEngineIndexer indexer;
+    @Mock
+    private SearcherRefreshListener searcherRefreshListener;
+
+    private final AtomicInteger concurrentTransforms = new AtomicInteger();
+    private final AtomicInteger maxConcurrentTransforms = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        setField(searchIndexationService, "threads", 4);
+        setField(searchIndexationService, "pageSize", PAGE_SIZE);
+
+        List<ApiEntity> apis = IntStream.range(0, APIS)
+                .mapToObj(i -> api("api-" + i, new Date(1000L * (i + 1))))
+                .collect(Collectors.toList());
+        List<UserEntity> users = IntStream.range(0, USERS)
+                .mapToObj(i -> user("user-" + i, new Date(1000L * (i + 1))))
+                .collect(Collectors.toList());
+
+        when(apiService.findAll(any(Pageable.class))).thenAnswer(invocation -> page(apis, invocation.getArgument(0)));
+        when(userService.search(isNull(), any(Pageable.class))).thenAnswer(invocation -> page(users, invocation.getArgument(1)));
+        when(pageService.search(any(PageQuery.class))).thenAnswer(invocation -> {
+            String api = ((PageQuery) invocation.getArgument(0)).getApi();
+            return Arrays.asList(page("folder-" + api, PageType.FOLDER, new Date(500)),
+                    page("swagger-" + api, PageType.SWAGGER, new Date(500)));
+        });
+        doAnswer(invocation -> {
+            int concurrent = concurrentTransforms.incrementAndGet();
+            maxConcurrentTransforms.accumulateAndGet(concurrent, Math::max);
+            Thread.yield();
+            concurrentTransforms.decrementAndGet();
+            return null;
+        }).when(pageService).transformSwagger(any(PageEntity.class), anyString());
+    }
+
+    @Test
+    public void shouldIndexAllEntitiesInParallel() throws Exception {
+        searchIndexationService.index();
+
+        IndexationStatusEntity status = searchIndexationService.getStatus();
+        assertEquals(APIS + USERS, status.getTotal());
+        assertEquals(APIS + USERS, status.getProcessed());
+        assertEquals(APIS * 2 + USERS, status.getIndexed());
+
+        verify(searchEngineService, times(APIS * 2 + USERS)).index(any());
+        verify(pageService, times(APIS)).transformSwagger(any(PageEntity.class), anyString());
+        assertEquals(1, maxConcurrentTransforms.get());
+
+        verify(indexer).retain("api", ids("api-", APIS));
+        verify(indexer).retain("page", ids("swagger-api-", APIS));
+        verify(indexer).retain("user", ids("user-", USERS));
+        verify(indexer).setHighWaterMark("api", 1000L * APIS);
+        verify(indexer).setHighWaterMark("page", 500L);
+        verify(indexer).setHighWaterMark("user", 1000L * USERS);
+        verify(indexer, times(2)).flush();
+    }
+
+    @Test
+    public void shouldOnlyIndexEntitiesUpdatedSinceLastIndexation() throws Exception {
+        when(indexer.getHighWaterMark("api")).thenReturn(1000L * APIS);
+        when(indexer.getHighWaterMark("page")).thenReturn(1000L);
+        when(indexer.getHighWaterMark("user")).thenReturn(1000L * USERS + 1);
+
+        searchIndexationService.index();
+
+        IndexationStatusEntity status = searchIndexationService.getStatus();
+        assertEquals(APIS + USERS, status.getProcessed());
+        // Only the last API has been updated, its pages are re-indexed along with it
+        assertEquals(2, status.getIndexed());
+
+        ApiEntity updated = api("api-" + (APIS - 1), null);
+        verify(searchEngineService).index(updated);
+        verify(pageService).transformSwagger(any(PageEntity.class), eq(updated.getId()));
+
+        // Deleted entities are still removed, and marks never go backward
+        verify(indexer).retain("api", ids("api-", APIS));
+        verify(indexer).retain("user", ids("user-", USERS));
+        verify(indexer).setHighWaterMark("api", 1000L * APIS);
+        verify(indexer).setHighWaterMark("page", 1000L);
+        verify(indexer).setHighWaterMark("user", 1000L * USERS + 1);
+    }
+
+    @Test
+    public void shouldNotMoveMarkBeyondFailedEntity() throws Exception {
+        doThrow(new IllegalStateException("transformation failure")).when(searchEngineService).index(user("user-1", null));
+
+        searchIndexationService.index();
+
+        assertEquals(APIS + USERS, searchIndexationService.getStatus().getProcessed());
+        // The failed user keeps its document, and will be indexed again by the next indexation
+        verify(indexer).retain("user", ids("user-", USERS));
+        verify(indexer).setHighWaterMark("user", 2000L);
+        verify(indexer).setHighWaterMark("api", 1000L * APIS);
+    }
+
+    @Test
+    public void shouldNotRecordMarksWhenIndexIsUnhealthy() throws Exception {
+        doThrow(new TechnicalException("disk full")).when(indexer).flush();
+
+        searchIndexationService.index();
+
+        verify(indexer).retain("api", ids("api-", APIS));
+        verify(indexer, never()).setHighWaterMark(anyString(), anyLong());
+    }
+
+    @Test
+    public void shouldNotRecordMarksWhenDocumentsHaveBeenDropped() throws Exception {
+        when(indexer.getDroppedCount()).thenReturn(0L, 1L);
+
+        searchIndexationService.index();
+
+        verify(indexer).flush();
+        verify(indexer, never()).setHighWaterMark(anyString(), anyLong());
+    }
+
+    private static Set<String> ids(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i).collect(Collectors.toSet());
+    }
+
+    private static <T> Page<T> page(List<T> content, Pageable pageable) {
+        int from = Math.min((pageable.getPageNumber() - 1) * pageable.getPageSize(), content.size());
+        int to = Math.min(from + pageable.getPageSize(), content.size());
+        return new Page<>(content.subList(from, to), pageable.getPageNumber(), to - from, content.size());
+    }
+
+    private static ApiEntity api(String id, Date updatedAt) {
+        ApiEntity api = new ApiEntity();
+        api.setId(id);
+        api.setUpdatedAt(updatedAt);
+        return api;
+    }
+
+    private static UserEntity user(String id, Date updatedAt) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setUpdatedAt(updatedAt);
+        return user;
+    }
+
+    private static PageEntity page(String id, PageType type, Date lastModificationDate) {
+        PageEntity page = new PageEntity();
+        page.setId(id);
+        page.setType(type.name());
+        page.setLastModificationDate(lastModificationDate);
+        return page;
+    }
+}
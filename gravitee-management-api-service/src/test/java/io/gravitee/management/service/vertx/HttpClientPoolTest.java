@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.vertx;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class HttpClientPoolTest {
+
+    private Vertx vertx;
+
+    private HttpClientPool pool;
+
+    @Before
+    public void setUp() {
+        vertx = mock(Vertx.class);
+        when(vertx.createHttpClient(any(HttpClientOptions.class))).thenAnswer(invocation -> mock(HttpClient.class));
+        pool = new HttpClientPool(vertx);
+    }
+
+    @Test
+    public void shouldShareClientByOrigin() {
+        HttpClient client = pool.getClient(URI.create("https://backend.example.com/properties"));
+
+        assertSame(client, pool.getClient(URI.create("https://backend.example.com:443/other")));
+        assertNotSame(client, pool.getClient(URI.create("http://backend.example.com/properties")));
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void shouldCloseUnusedClients() {
+        pool.setUnusedTimeout(0);
+
+        HttpClient unused = pool.getClient(URI.create("https://unused.example.com/properties"));
+        HttpClient used = pool.getClient(URI.create("https://backend.example.com/properties"));
+
+        verify(unused).close();
+        verify(used, never()).close();
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void shouldCloseClientsWithPool() {
+        HttpClient client = pool.getClient(URI.create("https://backend.example.com/properties"));
+
+        pool.close();
+
+        verify(client).close();
+        assertEquals(0, pool.size());
+    }
+}
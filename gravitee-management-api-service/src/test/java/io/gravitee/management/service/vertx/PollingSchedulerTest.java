@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.vertx;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * The Vert.x timers are fired by the test, one period after the other.
+ *
+ * @author GraviteeSource Team
+ */
+public class PollingSchedulerTest {
+
+    private final Map<Long, Handler<Long>> timers = new LinkedHashMap<>();
+
+    private final Set<Long> periodicTimers = new HashSet<>();
+
+    private long lastTimerId;
+
+    private PollingScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        Vertx vertx = mock(Vertx.class);
+        when(vertx.setTimer(anyLong(), any())).thenAnswer(invocation -> addTimer(invocation.getArgument(1), false));
+        when(vertx.setPeriodic(anyLong(), any())).thenAnswer(invocation -> addTimer(invocation.getArgument(1), true));
+        when(vertx.cancelTimer(anyLong())).thenAnswer(invocation -> timers.remove(invocation.<Long>getArgument(0)) != null);
+        doAnswer(invocation -> {
+            invocation.<Handler<Void>>getArgument(0).handle(null);
+            return null;
+        }).when(vertx).runOnContext(any());
+
+        scheduler = new PollingScheduler(vertx);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    public void shouldDeferPollsAboveConcurrencyLimit() {
+        scheduler.setMaxConcurrentPolls(1);
+
+        CompletableFuture<Object> poll = new CompletableFuture<>();
+        scheduler.schedule("api-1", "host-1", 1000, () -> poll);
+        scheduler.schedule("api-2", "host-2", 1000, () -> CompletableFuture.completedFuture(null));
+
+        tick();
+        tick();
+
+        assertEquals(1, scheduler.getStatistics("api-1").getRuns());
+        assertEquals(1, scheduler.getStatistics("api-1").getSkipped());
+        assertEquals(0, scheduler.getStatistics("api-2").getRuns());
+        assertEquals(2, scheduler.getStatistics("api-2").getDeferred());
+        assertEquals(1, scheduler.getWaiting());
+        assertEquals(1, scheduler.getInFlight());
+
+        // The deferred poll is run as soon as a slot is released, once
+        poll.complete(null);
+
+        assertEquals(1, scheduler.getStatistics("api-2").getRuns());
+        assertEquals(0, scheduler.getWaiting());
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    public void shouldDeferPollsAbovePerHostLimit() {
+        scheduler.setMaxConcurrentPollsPerHost(1);
+
+        CompletableFuture<Object> poll = new CompletableFuture<>();
+        scheduler.schedule("api-1", "host", 1000, () -> poll);
+        scheduler.schedule("api-2", "host", 1000, CompletableFuture::new);
+        scheduler.schedule("api-3", "other-host", 1000, CompletableFuture::new);
+
+        tick();
+
+        assertEquals(1, scheduler.getStatistics("api-1").getRuns());
+        assertEquals(0, scheduler.getStatistics("api-2").getRuns());
+        assertEquals(1, scheduler.getStatistics("api-3").getRuns());
+
+        poll.complete(null);
+
+        assertEquals(1, scheduler.getStatistics("api-2").getRuns());
+        assertEquals(2, scheduler.getInFlight());
+    }
+
+    @Test
+    public void shouldNotRunDeferredPollOfCancelledTask() {
+        scheduler.setMaxConcurrentPolls(1);
+
+        CompletableFuture<Object> poll = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule("api-1", "host", 1000, () -> poll);
+        scheduler.schedule("api-2", "host", 1000, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        tick();
+        assertTrue(scheduler.cancel("api-2"));
+        poll.complete(null);
+
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void shouldCountErrorsAndStopWhenCancelled() {
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule("api", "host", 1000, () -> {
+            calls.incrementAndGet();
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException());
+            return future;
+        });
+
+        tick();
+        tick();
+        tick();
+
+        PollingScheduler.TaskStatistics statistics = scheduler.getStatistics("api");
+        assertEquals(3, statistics.getRuns());
+        assertEquals(3, statistics.getErrors());
+
+        assertTrue(scheduler.cancel("api"));
+        assertFalse(scheduler.isScheduled("api"));
+        assertTrue(timers.isEmpty());
+
+        tick();
+        assertEquals(3, calls.get());
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    public void shouldNotPollWhenInactive() {
+        scheduler.setActive(() -> false);
+        scheduler.schedule("api", "host", 1000, CompletableFuture::new);
+
+        tick();
+        tick();
+
+        assertEquals(0, scheduler.getStatistics("api").getRuns());
+    }
+
+    @Test
+    public void shouldPollAllTasksWithoutWaitingForTheirPeriod() {
+        AtomicBoolean active = new AtomicBoolean(false);
+        scheduler.setActive(active::get);
+        scheduler.schedule("api-1", "host", 1000, () -> CompletableFuture.completedFuture(null));
+        scheduler.schedule("api-2", "host", 1000, () -> CompletableFuture.completedFuture(null));
+        tick();
+
+        // This node is now the one running the polls
+        active.set(true);
+        scheduler.pollAll();
+
+        assertEquals(1, scheduler.getStatistics("api-1").getRuns());
+        assertEquals(1, scheduler.getStatistics("api-2").getRuns());
+    }
+
+    @Test
+    public void shouldExposeStatisticsThroughJmx() throws Exception {
+        ObjectName name = new ObjectName("io.gravitee.management:type=PollingScheduler,name=\"test\"");
+        scheduler.schedule("api", "host", 1000, CompletableFuture::new);
+        scheduler.register("test");
+
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        assertEquals(0, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "InFlight"));
+
+        scheduler.close();
+
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @Test
+    public void shouldFallbackToDefaultHostForInvalidUrls() {
+        assertEquals("backend.example.com", scheduler.getHost("https://backend.example.com:8443/properties"));
+        assertEquals("", scheduler.getHost("file:///properties.json"));
+        assertEquals("", scheduler.getHost("http://invalid host/properties"));
+        assertEquals("", scheduler.getHost(null));
+    }
+
+    private long addTimer(Handler<Long> handler, boolean periodic) {
+        long timerId = ++lastTimerId;
+        timers.put(timerId, handler);
+        if (periodic) {
+            periodicTimers.add(timerId);
+        }
+        return timerId;
+    }
+
+    /**
+     * Fires each timer once, the timers created meanwhile are fired by the next tick.
+     */
+    private void tick() {
+        for (Map.Entry<Long, Handler<Long>> timer : new ArrayList<>(timers.entrySet())) {
+            if (!periodicTimers.contains(timer.getKey())) {
+                timers.remove(timer.getKey());
+            }
+            timer.getValue().handle(timer.getKey());
+        }
+    }
+}
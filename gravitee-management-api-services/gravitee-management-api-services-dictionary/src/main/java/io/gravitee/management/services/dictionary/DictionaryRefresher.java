@@ -15,7 +15,6 @@
  */
 package io.gravitee.management.services.dictionary;
 
-import io.gravitee.definition.model.Property;
 import io.gravitee.management.model.configuration.dictionary.DictionaryEntity;
 import io.gravitee.management.model.configuration.dictionary.UpdateDictionaryEntity;
 import io.gravitee.management.services.dictionary.model.DynamicProperty;
@@ -24,9 +23,10 @@ import io.vertx.core.Handler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -40,15 +40,32 @@ public class DictionaryRefresher implements Handler<Long> {
     private Provider provider;
     private io.gravitee.management.service.configuration.dictionary.DictionaryService dictionaryService;
 
+    /**
+     * Latest properties known to be stored for the dictionary.
+     */
+    private volatile DictionarySnapshot snapshot;
+
+    private volatile DictionarySnapshot.Changes lastChanges = DictionarySnapshot.Changes.NONE;
+
     public DictionaryRefresher(final DictionaryEntity dictionary) {
         this.dictionary = dictionary;
+        this.snapshot = DictionarySnapshot.of(dictionary.getProperties());
     }
 
     @Override
     public void handle(Long event) {
+        refresh();
+    }
+
+    /**
+     * Polls the provider and updates the dictionary with the properties it returns.
+     *
+     * @return a future completed when the poll is over.
+     */
+    public CompletableFuture<Collection<DynamicProperty>> refresh() {
         logger.debug("Running dictionary refresher task for {}", dictionary);
 
-        provider.get()
+        return provider.get()
                 .whenComplete((dynamicProperties, throwable) -> {
                     if (throwable != null) {
                         logger.error("[{}] Unexpected error while getting dictionary's properties from provider: {}",
@@ -61,23 +78,44 @@ public class DictionaryRefresher implements Handler<Long> {
     }
 
     private void updateDictionary(Collection<DynamicProperty> dynProperties) {
-        Map<String, String> properties = dynProperties
-                .stream()
-                .collect(Collectors.toMap(
-                        Property::getKey,
-                        dynamicProperty -> (dynamicProperty.getValue() == null) ? "" : dynamicProperty.getValue()));
+        List<String> keys = new ArrayList<>(dynProperties.size());
+        List<String> values = new ArrayList<>(dynProperties.size());
+        for (DynamicProperty dynamicProperty : dynProperties) {
+            keys.add(dynamicProperty.getKey());
+            values.add((dynamicProperty.getValue() == null) ? "" : dynamicProperty.getValue());
+        }
+
+        DictionarySnapshot latest = DictionarySnapshot.of(keys, values);
 
         // Compare properties with latest values
-        if (! properties.equals(dictionary.getProperties())) {
-            dictionary.setProperties(properties);
-
-            try {
-                dictionary = dictionaryService.update(dictionary.getId(), convert(dictionary));
-                dictionaryService.deploy(dictionary.getId());
-            } catch (Exception ex) {
-                logger.error("Unexpected error while updating and deploying the dictionary", ex);
-            }
+        DictionarySnapshot.Changes changes = latest.diff(snapshot);
+        if (changes.isEmpty()) {
+            logger.debug("[{}] Dictionary is up to date ({} properties)", dictionary.getId(), latest.size());
+            return;
         }
+
+        logger.info("[{}] Dictionary properties changed: {}", dictionary.getId(), changes);
+        dictionary.setProperties(latest.toMap());
+
+        try {
+            dictionary = dictionaryService.update(dictionary.getId(), convert(dictionary));
+            dictionaryService.deploy(dictionary.getId());
+
+            snapshot = latest;
+            lastChanges = changes;
+        } catch (Exception ex) {
+            logger.error("Unexpected error while updating and deploying the dictionary", ex);
+
+            // Make sure the same properties are fetched and applied again on the next poll
+            provider.reset();
+        }
+    }
+
+    /**
+     * @return the number of properties added, removed and changed by the last update of the dictionary.
+     */
+    DictionarySnapshot.Changes getLastChanges() {
+        return lastChanges;
     }
 
     private UpdateDictionaryEntity convert(DictionaryEntity dictionaryEntity) {
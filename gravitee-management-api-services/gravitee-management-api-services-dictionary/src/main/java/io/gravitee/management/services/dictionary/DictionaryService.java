@@ -25,6 +25,8 @@ import io.gravitee.management.model.configuration.dictionary.DictionaryEntity;
 import io.gravitee.management.model.configuration.dictionary.DictionaryProviderEntity;
 import io.gravitee.management.model.configuration.dictionary.DictionaryTriggerEntity;
 import io.gravitee.management.service.event.DictionaryEvent;
+import io.gravitee.management.service.vertx.HttpClientPool;
+import io.gravitee.management.service.vertx.PollingScheduler;
 import io.gravitee.management.services.dictionary.provider.http.HttpProvider;
 import io.gravitee.management.services.dictionary.provider.http.configuration.HttpProviderConfiguration;
 import io.vertx.core.Vertx;
@@ -32,9 +34,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -60,7 +59,11 @@ public class DictionaryService extends AbstractService implements EventListener<
     @Autowired
     private Vertx vertx;
 
-    private final Map<DictionaryEntity, Long> timers = new HashMap<>();
+    @Autowired
+    private HttpClientPool httpClientPool;
+
+    @Autowired
+    private PollingScheduler pollingScheduler;
 
     @Override
     protected String name() {
@@ -94,7 +97,7 @@ public class DictionaryService extends AbstractService implements EventListener<
     }
 
     private void startDynamicDictionary(DictionaryEntity dictionary) {
-        if (! timers.containsKey(dictionary)) {
+        if (! pollingScheduler.isScheduled(dictionary.getId())) {
             DictionaryProviderEntity providerConf = dictionary.getProvider();
 
             if (DICTIONARY_HTTP_PROVIDER.equals(providerConf.getType())) {
@@ -104,17 +107,16 @@ public class DictionaryService extends AbstractService implements EventListener<
 
                     HttpProvider provider = new HttpProvider(configuration);
                     provider.setVertx(vertx);
+                    provider.setHttpClientPool(httpClientPool);
 
                     refresher.setProvider(provider);
                     refresher.setDictionaryService(dictionaryService);
                     logger.info("Add a scheduled task to poll dictionary provider each {} {} ", dictionary.getTrigger().getRate(),
                             dictionary.getTrigger().getUnit());
 
-                    // Force the first refresh, and then run it periodically
-                    refresher.handle(null);
-
-                    long periodicTimer = vertx.setPeriodic(getDelayMillis(dictionary.getTrigger()), refresher);
-                    timers.put(dictionary, periodicTimer);
+                    // The first refresh is delayed by a jitter, and then run periodically
+                    String host = pollingScheduler.getHost(configuration.getUrl());
+                    pollingScheduler.schedule(dictionary.getId(), host, getDelayMillis(dictionary.getTrigger()), refresher::refresh);
                 } catch (JsonProcessingException jpe) {
                     logger.error("Dictionary provider configuration invalid", jpe);
                 }
@@ -138,10 +140,8 @@ public class DictionaryService extends AbstractService implements EventListener<
     }
 
     private void stopDynamicDictionary(DictionaryEntity dictionary) {
-        Long timer = timers.remove(dictionary);
-        if (timer != null) {
+        if (pollingScheduler.cancel(dictionary.getId())) {
             logger.info("Stop dictionary refresher task for dictionary id[{}] name[{}]", dictionary.getId(), dictionary.getName());
-            vertx.cancelTimer(timer);
         }
     }
 }
@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.dictionary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Compact and sorted form of the properties of a dictionary: the keys and the values are stored in two arrays sorted
+ * by key, along with a digest of the whole content, so that two versions of a large dictionary can be compared
+ * without building any map.
+ *
+ * @author GraviteeSource Team
+ */
+class DictionarySnapshot {
+
+    static final DictionarySnapshot EMPTY = new DictionarySnapshot(new String[0], new String[0]);
+
+    /**
+     * Order of the keys, a <code>null</code> key coming first.
+     */
+    private static final Comparator<String> KEY_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final String[] keys;
+
+    private final String[] values;
+
+    /**
+     * Digest of the content, <code>null</code> if it can not be computed.
+     */
+    private final byte[] digest;
+
+    private DictionarySnapshot(String[] keys, String[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.digest = digest(keys, values);
+    }
+
+    static DictionarySnapshot of(Map<String, String> properties) {
+        if (properties == null || properties.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<Map.Entry<String, String>> entries = new ArrayList<>(properties.entrySet());
+        entries.sort(Map.Entry.comparingByKey(KEY_ORDER));
+
+        String[] keys = new String[entries.size()];
+        String[] values = new String[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries.get(i).getKey();
+            values[i] = entries.get(i).getValue();
+        }
+
+        return new DictionarySnapshot(keys, values);
+    }
+
+    /**
+     * Builds a snapshot from the entries returned by a provider. When a key is returned several times, the last value
+     * is kept.
+     */
+    static DictionarySnapshot of(List<String> keys, List<String> values) {
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        // Stable sort: the entries of a same key stay in their original order
+        Arrays.sort(order, Comparator.comparing(keys::get, KEY_ORDER));
+
+        List<String> sortedKeys = new ArrayList<>(order.length);
+        List<String> sortedValues = new ArrayList<>(order.length);
+        for (Integer index : order) {
+            String key = keys.get(index);
+            String value = values.get(index);
+
+            int last = sortedKeys.size() - 1;
+            if (last >= 0 && Objects.equals(sortedKeys.get(last), key)) {
+                sortedValues.set(last, value);
+            } else {
+                sortedKeys.add(key);
+                sortedValues.add(value);
+            }
+        }
+
+        return new DictionarySnapshot(
+                sortedKeys.toArray(new String[0]),
+                sortedValues.toArray(new String[0]));
+    }
+
+    /**
+     * Compares this snapshot with a previous one by merging their sorted keys.
+     */
+    Changes diff(DictionarySnapshot previous) {
+        if (digest != null && previous.digest != null && MessageDigest.isEqual(digest, previous.digest)) {
+            return Changes.NONE;
+        }
+
+        int added = 0, removed = 0, changed = 0;
+        int i = 0, j = 0;
+
+        while (i < keys.length && j < previous.keys.length) {
+            int cmp = KEY_ORDER.compare(keys[i], previous.keys[j]);
+            if (cmp == 0) {
+                if (!Objects.equals(values[i], previous.values[j])) {
+                    changed++;
+                }
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                added++;
+                i++;
+            } else {
+                removed++;
+                j++;
+            }
+        }
+
+        added += keys.length - i;
+        removed += previous.keys.length - j;
+
+        return new Changes(added, removed, changed);
+    }
+
+    Map<String, String> toMap() {
+        Map<String, String> properties = new LinkedHashMap<>(keys.length * 4 / 3 + 1);
+        for (int i = 0; i < keys.length; i++) {
+            properties.put(keys[i], values[i]);
+        }
+        return properties;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    private static byte[] digest(String[] keys, String[] values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < keys.length; i++) {
+                update(digest, keys[i]);
+                update(digest, values[i]);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException nsae) {
+            // Without digest, the snapshots are always compared entry by entry
+            return null;
+        }
+    }
+
+    /**
+     * Adds a string prefixed by its length, so that <code>null</code>, <code>"null"</code> and the concatenations of
+     * different strings do not give the same digest.
+     */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    static class Changes {
+
+        static final Changes NONE = new Changes(0, 0, 0);
+
+        private final int added;
+
+        private final int removed;
+
+        private final int changed;
+
+        Changes(int added, int removed, int changed) {
+            this.added = added;
+            this.removed = removed;
+            this.changed = changed;
+        }
+
+        boolean isEmpty() {
+            return added == 0 && removed == 0 && changed == 0;
+        }
+
+        int getAdded() {
+            return added;
+        }
+
+        int getRemoved() {
+            return removed;
+        }
+
+        int getChanged() {
+            return changed;
+        }
+
+        @Override
+        public String toString() {
+            return "added=" + added + ", removed=" + removed + ", changed=" + changed;
+        }
+    }
+}
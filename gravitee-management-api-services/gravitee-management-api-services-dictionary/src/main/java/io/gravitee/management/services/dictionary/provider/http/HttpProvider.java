@@ -16,6 +16,7 @@
 package io.gravitee.management.services.dictionary.provider.http;
 
 import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.management.service.vertx.HttpClientPool;
 import io.gravitee.management.services.dictionary.model.DynamicProperty;
 import io.gravitee.management.services.dictionary.provider.Provider;
 import io.gravitee.management.services.dictionary.provider.http.configuration.HttpProviderConfiguration;
@@ -24,8 +25,8 @@ import io.gravitee.management.services.dictionary.provider.http.vertx.VertxCompl
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,14 +44,18 @@ public class HttpProvider implements Provider {
 
     private final Logger logger = LoggerFactory.getLogger(HttpProvider.class);
 
-    private static final String HTTPS_SCHEME = "https";
-
     private final HttpProviderConfiguration configuration;
 
     private JoltMapper mapper;
 
     private Vertx vertx;
 
+    private HttpClientPool httpClientPool;
+
+    private volatile String eTag;
+
+    private volatile String lastModified;
+
     public HttpProvider(final HttpProviderConfiguration configuration) {
         Objects.requireNonNull(configuration, "Configuration must not be null");
         this.configuration = configuration;
@@ -62,53 +67,49 @@ public class HttpProvider implements Provider {
         CompletableFuture<Buffer> future = new VertxCompletableFuture<>(vertx);
 
         URI requestUri = URI.create(configuration.getUrl());
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
-
-        final HttpClientOptions options = new HttpClientOptions()
-                .setSsl(ssl)
-                .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
-                .setConnectTimeout(2000);
 
-        final HttpClient httpClient = vertx.createHttpClient(options);
+        try {
+            // The pool is shared by all the providers and closed with the service
+            Objects.requireNonNull(httpClientPool, "HTTP client pool must not be null");
 
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
+            final HttpClient httpClient = httpClientPool.getClient(requestUri);
 
-        try {
             HttpClientRequest request = httpClient.request(
                     HttpMethod.GET,
-                    port,
+                    HttpClientPool.getPort(requestUri),
                     requestUri.getHost(),
                     requestUri.toString()
             );
 
+            // Ask the server to send the payload only if it has changed since the last successful call
+            final String lastETag = eTag;
+            final String lastModifiedSince = lastModified;
+            if (lastETag != null) {
+                request.putHeader(HttpHeaders.IF_NONE_MATCH, lastETag);
+            }
+            if (lastModifiedSince != null) {
+                request.putHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModifiedSince);
+            }
+
             request.handler(response -> {
                 if (response.statusCode() == HttpStatusCode.OK_200) {
                     response.bodyHandler(buffer -> {
+                        eTag = response.getHeader(HttpHeaders.ETAG);
+                        lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
                         future.complete(buffer);
-
-                        // Close client
-                        httpClient.close();
                     });
                 } else {
-                    future.complete(null);
-                }
-            });
+                    if (response.statusCode() == HttpStatusCode.NOT_MODIFIED_304) {
+                        logger.debug("Dictionary properties from {} have not been modified", requestUri);
+                    }
 
-            request.exceptionHandler(event -> {
-                try {
-                    future.completeExceptionally(event);
-
-                    // Close client
-                    httpClient.close();
-                } catch (IllegalStateException ise) {
-                    // Do not take care about exception when closing client
+                    // Consume the response so that the connection can be reused
+                    response.bodyHandler(buffer -> future.complete(null));
                 }
             });
 
+            request.exceptionHandler(future::completeExceptionally);
+
             request.end();
         } catch (Exception ex) {
             logger.error("Unable to look for dynamic properties", ex);
@@ -128,6 +129,12 @@ public class HttpProvider implements Provider {
         return "custom";
     }
 
+    @Override
+    public void reset() {
+        eTag = null;
+        lastModified = null;
+    }
+
     public void setMapper(JoltMapper mapper) {
         this.mapper = mapper;
     }
@@ -136,4 +143,8 @@ public class HttpProvider implements Provider {
     public void setVertx(Vertx vertx) {
         this.vertx = vertx;
     }
+
+    public void setHttpClientPool(HttpClientPool httpClientPool) {
+        this.httpClientPool = httpClientPool;
+    }
 }
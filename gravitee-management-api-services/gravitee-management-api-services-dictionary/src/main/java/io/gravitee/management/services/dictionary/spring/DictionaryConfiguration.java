@@ -15,8 +15,15 @@
  */
 package io.gravitee.management.services.dictionary.spring;
 
+import io.gravitee.common.event.EventManager;
+import io.gravitee.management.service.LeaderService;
+import io.gravitee.management.service.vertx.HttpClientPool;
+import io.gravitee.management.service.vertx.PollingScheduler;
+import io.gravitee.management.service.vertx.PollingServiceFactory;
+import io.vertx.core.Vertx;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
@@ -25,7 +32,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
  * @author GraviteeSource Team
  */
 @Configuration
-public class DynamicPropertiesConfiguration {
+public class DictionaryConfiguration {
 
     @Bean
     public TaskScheduler taskScheduler() {
@@ -33,4 +40,20 @@ public class DynamicPropertiesConfiguration {
         scheduler.setThreadNamePrefix("dictionary-refresher-");
         return scheduler;
     }
+
+    @Bean
+    public PollingServiceFactory pollingServiceFactory(Environment environment) {
+        return new PollingServiceFactory(environment, "services.dictionary");
+    }
+
+    @Bean(destroyMethod = "close")
+    public HttpClientPool httpClientPool(PollingServiceFactory pollingServiceFactory, Vertx vertx) {
+        return pollingServiceFactory.createHttpClientPool(vertx);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PollingScheduler pollingScheduler(PollingServiceFactory pollingServiceFactory, Vertx vertx,
+                                             LeaderService leaderService, EventManager eventManager) {
+        return pollingServiceFactory.createPollingScheduler(vertx, leaderService, eventManager, "dictionary");
+    }
 }
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.dictionary;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class DictionarySnapshotTest {
+
+    @Test
+    public void shouldNotFindChangesOfSameProperties() {
+        DictionarySnapshot previous = DictionarySnapshot.of(properties("a", "1", "b", "2"));
+        DictionarySnapshot latest = DictionarySnapshot.of(Arrays.asList("b", "a"), Arrays.asList("2", "1"));
+
+        DictionarySnapshot.Changes changes = latest.diff(previous);
+
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void shouldCountAddedRemovedAndUpdatedProperties() {
+        DictionarySnapshot previous = DictionarySnapshot.of(properties("a", "1", "b", "2", "c", "3"));
+        DictionarySnapshot latest = DictionarySnapshot.of(Arrays.asList("a", "c", "d", "e"), Arrays.asList("1", "4", "5", "6"));
+
+        DictionarySnapshot.Changes changes = latest.diff(previous);
+
+        assertFalse(changes.isEmpty());
+        assertEquals(2, changes.getAdded());
+        assertEquals(1, changes.getRemoved());
+        assertEquals(1, changes.getChanged());
+    }
+
+    @Test
+    public void shouldKeepLastValueOfDuplicatedKey() {
+        DictionarySnapshot snapshot = DictionarySnapshot.of(Arrays.asList("a", "b", "a"), Arrays.asList("1", "2", "3"));
+
+        assertEquals(2, snapshot.size());
+        assertEquals(properties("a", "3", "b", "2"), snapshot.toMap());
+    }
+
+    @Test
+    public void shouldDistinguishNullValue() {
+        DictionarySnapshot previous = DictionarySnapshot.of(properties("a", null));
+        DictionarySnapshot latest = DictionarySnapshot.of(properties("a", "null"));
+
+        assertEquals(1, latest.diff(previous).getChanged());
+    }
+
+    @Test
+    public void shouldSupportNullKey() {
+        DictionarySnapshot previous = DictionarySnapshot.of(properties(null, "1", "a", "2"));
+        DictionarySnapshot latest = DictionarySnapshot.of(Arrays.asList("a", null, "b"), Arrays.asList("2", "1", "3"));
+
+        DictionarySnapshot.Changes changes = latest.diff(previous);
+
+        assertEquals(1, changes.getAdded());
+        assertEquals(0, changes.getRemoved());
+        assertEquals(0, changes.getChanged());
+        assertEquals("1", latest.toMap().get(null));
+        assertTrue(DictionarySnapshot.of(properties(null, "1", "a", "2")).diff(previous).isEmpty());
+    }
+
+    @Test
+    public void shouldRemoveAllProperties() {
+        DictionarySnapshot previous = DictionarySnapshot.of(properties("a", "1", "b", "2"));
+        DictionarySnapshot latest = DictionarySnapshot.of(Collections.emptyList(), Collections.emptyList());
+
+        DictionarySnapshot.Changes changes = latest.diff(previous);
+
+        assertEquals(0, changes.getAdded());
+        assertEquals(2, changes.getRemoved());
+        assertEquals(DictionarySnapshot.EMPTY.size(), latest.size());
+    }
+
+    private static Map<String, String> properties(String... keyValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.put(keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.dynamicproperties.provider.http.mapper;
+
+import io.gravitee.management.services.dynamicproperties.model.DynamicProperty;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a feed of 10k key / value entries, either read as a stream (empty specification) or through a shift
+ * transformation.
+ *
+ * @author GraviteeSource Team
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JoltMapperBenchmark {
+
+    private static final int ENTRIES = 10_000;
+
+    private static final String SHIFT_SPECIFICATION =
+            "[{\"operation\":\"shift\",\"spec\":{\"*\":{\"key\":\"[&1].key\",\"value\":\"[&1].value\"}}}]";
+
+    @Param({"stream", "shift"})
+    private String mode;
+
+    private JoltMapper mapper;
+
+    private String payload;
+
+    @Setup
+    public void setup() {
+        mapper = new JoltMapper("stream".equals(mode) ? "[]" : SHIFT_SPECIFICATION);
+
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < ENTRIES; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"key\":\"property-").append(i).append("\",\"value\":\"value-").append(i).append("\"}");
+        }
+        payload = builder.append(']').toString();
+    }
+
+    @Benchmark
+    public Collection<DynamicProperty> map() {
+        return mapper.map(payload);
+    }
+}
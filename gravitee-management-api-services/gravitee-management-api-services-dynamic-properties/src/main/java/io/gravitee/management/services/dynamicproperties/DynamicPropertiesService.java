@@ -22,18 +22,23 @@ import io.gravitee.common.event.EventManager;
 import io.gravitee.common.service.AbstractService;
 import io.gravitee.definition.model.services.dynamicproperty.DynamicPropertyProvider;
 import io.gravitee.definition.model.services.dynamicproperty.DynamicPropertyService;
+import io.gravitee.definition.model.services.dynamicproperty.http.HttpDynamicPropertyProviderConfiguration;
 import io.gravitee.definition.model.services.schedule.Trigger;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.event.ApiEvent;
+import io.gravitee.management.service.vertx.HttpClientPool;
+import io.gravitee.management.service.vertx.PollingScheduler;
 import io.gravitee.management.services.dynamicproperties.provider.http.HttpProvider;
 import io.vertx.core.Vertx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Alexandre FARIA (lusoalex on github.com)
@@ -54,7 +59,20 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
     @Autowired
     private Vertx vertx;
 
-    private final Map<ApiEntity, Long> timers = new HashMap<>();
+    @Autowired
+    private HttpClientPool httpClientPool;
+
+    @Value("${services.dynamicproperties.debounce:0}")
+    private long debounce;
+
+    @Autowired
+    private PollingScheduler pollingScheduler;
+
+    /**
+     * The updaters by API, kept when an API is updated so that the digest of the applied properties and the HTTP
+     * validators of the provider are not lost as long as the provider configuration does not change.
+     */
+    private final Map<String, Poller> pollers = new ConcurrentHashMap<>();
 
     @Override
     protected String name() {
@@ -71,6 +89,8 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
     @Override
     protected void doStop() throws Exception {
         super.doStop();
+
+        pollers.keySet().forEach(this::stopDynamicProperties);
     }
 
     @Override
@@ -82,10 +102,10 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
                 startDynamicProperties(api);
                 break;
             case UNDEPLOY:
-                stopDynamicProperties(api);
+                stopDynamicProperties(api.getId());
                 break;
             case UPDATE:
-                stopDynamicProperties(api);
+                pollingScheduler.cancel(api.getId());
                 startDynamicProperties(api);
                 break;
         }
@@ -95,27 +115,42 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
         if (api.getState() == Lifecycle.State.STARTED) {
             DynamicPropertyService dynamicPropertyService = api.getServices().get(DynamicPropertyService.class);
             if (dynamicPropertyService != null && dynamicPropertyService.isEnabled()) {
-                DynamicPropertyUpdater updater = new DynamicPropertyUpdater(api);
-
                 if (dynamicPropertyService.getProvider() == DynamicPropertyProvider.HTTP) {
-                    HttpProvider provider = new HttpProvider(dynamicPropertyService);
-                    provider.setVertx(vertx);
+                    HttpDynamicPropertyProviderConfiguration configuration =
+                            (HttpDynamicPropertyProviderConfiguration) dynamicPropertyService.getConfiguration();
+
+                    Poller poller = pollers.get(api.getId());
+                    if (poller == null || !poller.isConfiguredWith(configuration)) {
+                        stopDynamicProperties(api.getId());
+
+                        DynamicPropertyUpdater updater = new DynamicPropertyUpdater(api);
+                        HttpProvider provider = new HttpProvider(dynamicPropertyService);
+                        provider.setVertx(vertx);
+                        provider.setHttpClientPool(httpClientPool);
+
+                        updater.setProvider(provider);
+                        updater.setApiService(apiService);
+                        updater.setVertx(vertx);
+                        updater.setDebounce(debounce);
+
+                        poller = new Poller(configuration, updater);
+                        pollers.put(api.getId(), poller);
+                    }
 
-                    updater.setProvider(provider);
-                    updater.setApiService(apiService);
                     logger.info("Add a scheduled task to poll dynamic properties each {} {} ", dynamicPropertyService.getTrigger().getRate(),
                             dynamicPropertyService.getTrigger().getUnit());
 
-                    // Force the first refresh, and then run it periodically
-                    updater.handle(null);
-
-                    long periodicTimer = vertx.setPeriodic(getDelayMillis(dynamicPropertyService.getTrigger()), updater);
-                    timers.put(api, periodicTimer);
+                    // The first refresh is delayed by a jitter, and then run periodically
+                    String host = pollingScheduler.getHost(configuration.getUrl());
+                    pollingScheduler.schedule(api.getId(), host, getDelayMillis(dynamicPropertyService.getTrigger()), poller.updater::refresh);
+                    return;
                 }
             } else {
                 logger.info("Dynamic properties service is disabled for: {} [{}]", api.getName(), api.getVersion());
             }
         }
+
+        stopDynamicProperties(api.getId());
     }
 
     private long getDelayMillis(Trigger trigger) {
@@ -133,11 +168,32 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
         return -1;
     }
 
-    private void stopDynamicProperties(ApiEntity api) {
-        Long timer = timers.remove(api);
-        if (timer != null) {
-            logger.info("Stop Dynamic properties service for API id[{}] name[{}]", api.getId(), api.getName());
-            vertx.cancelTimer(timer);
+    private void stopDynamicProperties(String apiId) {
+        if (pollingScheduler.cancel(apiId)) {
+            logger.info("Stop Dynamic properties service for API id[{}]", apiId);
+        }
+
+        Poller poller = pollers.remove(apiId);
+        if (poller != null) {
+            poller.updater.stop();
+        }
+    }
+
+    private static class Poller {
+
+        private final String url;
+        private final String specification;
+        private final DynamicPropertyUpdater updater;
+
+        Poller(HttpDynamicPropertyProviderConfiguration configuration, DynamicPropertyUpdater updater) {
+            this.url = configuration.getUrl();
+            this.specification = configuration.getSpecification();
+            this.updater = updater;
+        }
+
+        boolean isConfiguredWith(HttpDynamicPropertyProviderConfiguration configuration) {
+            return Objects.equals(url, configuration.getUrl())
+                    && Objects.equals(specification, configuration.getSpecification());
         }
     }
 }
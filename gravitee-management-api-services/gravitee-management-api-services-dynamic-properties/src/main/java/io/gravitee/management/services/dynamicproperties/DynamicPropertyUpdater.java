@@ -23,10 +23,15 @@ import io.gravitee.management.service.ApiService;
 import io.gravitee.management.services.dynamicproperties.model.DynamicProperty;
 import io.gravitee.management.services.dynamicproperties.provider.Provider;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +45,16 @@ public class DynamicPropertyUpdater implements Handler<Long> {
     private ApiEntity api;
     private Provider provider;
     private ApiService apiService;
+    private Vertx vertx;
+    private long debounce;
+
+    /**
+     * Digest of the last properties applied to the API.
+     */
+    private volatile byte[] lastAppliedDigest;
+    private volatile Collection<DynamicProperty> pending;
+    private volatile byte[] pendingDigest;
+    private volatile long pendingTimerId = -1;
 
     public DynamicPropertyUpdater(final ApiEntity api) {
         this.api = api;
@@ -47,20 +62,112 @@ public class DynamicPropertyUpdater implements Handler<Long> {
 
     @Override
     public void handle(Long event) {
+        refresh();
+    }
+
+    /**
+     * Polls the provider and applies the properties it returns.
+     *
+     * @return a future completed when the poll is over.
+     */
+    public CompletableFuture<Collection<DynamicProperty>> refresh() {
         logger.debug("Running dynamic-properties poller for {}", api);
 
-        provider.get()
+        return provider.get()
                 .whenComplete((dynamicProperties, throwable) -> {
                     if (throwable != null) {
                         logger.error("[{}] Unexpected error while getting dynamic properties from provider: {}",
                                 api.getId(), provider.name(),
                                 throwable);
                     } else if (dynamicProperties != null) {
-                        update(dynamicProperties);
+                        onProperties(dynamicProperties);
                     }
                 });
     }
 
+    private void onProperties(Collection<DynamicProperty> dynamicProperties) {
+        byte[] digest = digest(dynamicProperties);
+
+        // Nothing to do if the provider returns the properties which have already been applied
+        if (digest != null && MessageDigest.isEqual(digest, lastAppliedDigest)) {
+            logger.debug("[{}] Dynamic properties have not changed", api.getId());
+            return;
+        }
+
+        if (debounce <= 0 || vertx == null) {
+            apply(dynamicProperties, digest);
+        } else {
+            // Coalesce the changes received during the debounce delay: only the latest ones are applied
+            boolean scheduled = pending != null;
+            pending = dynamicProperties;
+            pendingDigest = digest;
+
+            if (!scheduled) {
+                pendingTimerId = vertx.setTimer(debounce, timerId -> {
+                    Collection<DynamicProperty> latest = pending;
+                    byte[] latestDigest = pendingDigest;
+                    pending = null;
+                    pendingDigest = null;
+                    pendingTimerId = -1;
+
+                    if (latest != null && (latestDigest == null || !MessageDigest.isEqual(latestDigest, lastAppliedDigest))) {
+                        apply(latest, latestDigest);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Discards the changes waiting for the debounce delay to be over.
+     */
+    public void stop() {
+        long timerId = pendingTimerId;
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+        }
+
+        if (pending != null) {
+            // The discarded properties must be fetched again by the next poll
+            provider.reset();
+        }
+
+        pending = null;
+        pendingDigest = null;
+        pendingTimerId = -1;
+    }
+
+    private void apply(Collection<DynamicProperty> dynamicProperties, byte[] digest) {
+        try {
+            update(dynamicProperties);
+            lastAppliedDigest = digest;
+        } catch (Exception ex) {
+            logger.error("[{}] Unexpected error while updating dynamic properties", api.getId(), ex);
+
+            // Make sure the same properties are fetched and applied again on the next poll
+            lastAppliedDigest = null;
+            provider.reset();
+        }
+    }
+
+    private byte[] digest(Collection<DynamicProperty> dynamicProperties) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            dynamicProperties
+                    .stream()
+                    .sorted(Comparator.comparing(Property::getKey))
+                    .forEach(property -> {
+                        digest.update(String.valueOf(property.getKey()).getBytes(StandardCharsets.UTF_8));
+                        digest.update((byte) 0);
+                        digest.update(String.valueOf(property.getValue()).getBytes(StandardCharsets.UTF_8));
+                        digest.update((byte) 0);
+                    });
+            return digest.digest();
+        } catch (NoSuchAlgorithmException nsae) {
+            return null;
+        }
+    }
+
     private void update(Collection<DynamicProperty> dynamicProperties) {
         // Get latest changes
         ApiEntity latestApi = apiService.findById(api.getId());
@@ -123,4 +230,15 @@ public class DynamicPropertyUpdater implements Handler<Long> {
     public void setProvider(Provider provider) {
         this.provider = provider;
     }
+
+    public void setVertx(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    /**
+     * @param debounce the delay (in milliseconds) during which changes are coalesced before being applied.
+     */
+    public void setDebounce(long debounce) {
+        this.debounce = debounce;
+    }
 }
@@ -29,4 +29,11 @@ public interface Provider {
     CompletableFuture<Collection<DynamicProperty>> get();
 
     String name();
+
+    /**
+     * Forgets what has been retrieved by the previous calls, so that the next call fetches and maps the properties
+     * even if they have not changed.
+     */
+    default void reset() {
+    }
 }
@@ -16,6 +16,7 @@
 package io.gravitee.management.services.dynamicproperties.provider.http;
 
 import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.management.service.vertx.HttpClientPool;
 import io.gravitee.definition.model.services.dynamicproperty.DynamicPropertyService;
 import io.gravitee.definition.model.services.dynamicproperty.http.HttpDynamicPropertyProviderConfiguration;
 import io.gravitee.management.services.dynamicproperties.model.DynamicProperty;
@@ -25,13 +26,15 @@ import io.gravitee.management.services.dynamicproperties.provider.http.vertx.Ver
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -44,14 +47,20 @@ public class HttpProvider implements Provider {
 
     private final Logger logger = LoggerFactory.getLogger(HttpProvider.class);
 
-    private static final String HTTPS_SCHEME = "https";
-
     private final HttpDynamicPropertyProviderConfiguration dpConfiguration;
 
     private JoltMapper mapper;
 
     private Vertx vertx;
 
+    private HttpClientPool httpClientPool;
+
+    private volatile String eTag;
+
+    private volatile String lastModified;
+
+    private volatile byte[] lastPayloadDigest;
+
     public HttpProvider(final DynamicPropertyService dpService) {
         Objects.requireNonNull(dpService, "Service must not be null");
 
@@ -64,53 +73,49 @@ public class HttpProvider implements Provider {
         CompletableFuture<Buffer> future = new VertxCompletableFuture<>(vertx);
 
         URI requestUri = URI.create(dpConfiguration.getUrl());
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
-
-        final HttpClientOptions options = new HttpClientOptions()
-                .setSsl(ssl)
-                .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
-                .setConnectTimeout(2000);
 
-        final HttpClient httpClient = vertx.createHttpClient(options);
+        try {
+            // The pool is shared by all the providers and closed with the service
+            Objects.requireNonNull(httpClientPool, "HTTP client pool must not be null");
 
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
+            final HttpClient httpClient = httpClientPool.getClient(requestUri);
 
-        try {
             HttpClientRequest request = httpClient.request(
                     HttpMethod.GET,
-                    port,
+                    HttpClientPool.getPort(requestUri),
                     requestUri.getHost(),
                     requestUri.toString()
             );
 
+            // Ask the server to send the payload only if it has changed since the last successful call
+            final String lastETag = eTag;
+            final String lastModifiedSince = lastModified;
+            if (lastETag != null) {
+                request.putHeader(HttpHeaders.IF_NONE_MATCH, lastETag);
+            }
+            if (lastModifiedSince != null) {
+                request.putHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModifiedSince);
+            }
+
             request.handler(response -> {
                 if (response.statusCode() == HttpStatusCode.OK_200) {
                     response.bodyHandler(buffer -> {
+                        eTag = response.getHeader(HttpHeaders.ETAG);
+                        lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
                         future.complete(buffer);
-
-                        // Close client
-                        httpClient.close();
                     });
                 } else {
-                    future.complete(null);
-                }
-            });
-
-            request.exceptionHandler(event -> {
-                try {
-                    future.completeExceptionally(event);
+                    if (response.statusCode() == HttpStatusCode.NOT_MODIFIED_304) {
+                        logger.debug("Dynamic properties from {} have not been modified", requestUri);
+                    }
 
-                    // Close client
-                    httpClient.close();
-                } catch (IllegalStateException ise) {
-                    // Do not take care about exception when closing client
+                    // Consume the response so that the connection can be reused
+                    response.bodyHandler(buffer -> future.complete(null));
                 }
             });
 
+            request.exceptionHandler(future::completeExceptionally);
+
             request.end();
         } catch (Exception ex) {
             logger.error("Unable to look for dynamic properties", ex);
@@ -121,10 +126,35 @@ public class HttpProvider implements Provider {
             if (buffer == null) {
                 return null;
             }
-            return mapper.map(buffer.toString());
+
+            // Servers which do not support conditional requests may send the same payload again
+            byte[] digest = digest(buffer);
+            if (digest != null && MessageDigest.isEqual(digest, lastPayloadDigest)) {
+                logger.debug("Dynamic properties from {} have not changed", requestUri);
+                return null;
+            }
+
+            Collection<DynamicProperty> properties = mapper.map(buffer.toString());
+            lastPayloadDigest = digest;
+            return properties;
         });
     }
 
+    @Override
+    public void reset() {
+        eTag = null;
+        lastModified = null;
+        lastPayloadDigest = null;
+    }
+
+    private byte[] digest(Buffer buffer) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(buffer.getBytes());
+        } catch (NoSuchAlgorithmException nsae) {
+            return null;
+        }
+    }
+
     @Override
     public String name() {
         return "custom";
@@ -138,4 +168,8 @@ public class HttpProvider implements Provider {
     public void setVertx(Vertx vertx) {
         this.vertx = vertx;
     }
+
+    public void setHttpClientPool(HttpClientPool httpClientPool) {
+        this.httpClientPool = httpClientPool;
+    }
 }
@@ -18,22 +18,21 @@ package io.gravitee.management.services.dynamicproperties.provider.http.mapper;
 import com.bazaarvoice.jolt.Chainr;
 import com.bazaarvoice.jolt.JsonUtils;
 import com.bazaarvoice.jolt.chainr.ChainrBuilder;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jackson.JsonLoader;
-import com.github.fge.jsonschema.core.exceptions.ProcessingException;
-import com.github.fge.jsonschema.core.report.ProcessingReport;
-import com.github.fge.jsonschema.main.JsonSchema;
-import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import io.gravitee.management.services.dynamicproperties.model.DynamicProperty;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -43,45 +42,213 @@ public class JoltMapper {
 
     private final Logger logger = LoggerFactory.getLogger(JoltMapper.class);
 
+    private static final int CACHE_SIZE = 100;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    /**
+     * Compiled specifications, shared by all the providers, by specification digest.
+     */
+    private static final Map<String, CompiledSpecification> SPECIFICATIONS = Collections.synchronizedMap(
+            new LinkedHashMap<String, CompiledSpecification>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledSpecification> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
     private final Chainr chainr;
 
+    /**
+     * An empty specification does not transform the source, which can then be read as a stream when it already is an
+     * array of key / value objects.
+     */
+    private final boolean identity;
+
     public JoltMapper(String specification) {
         Objects.requireNonNull(specification, "Specification must not be null");
-        chainr = new ChainrBuilder(JsonUtils.jsonToList(specification)).build();
+        CompiledSpecification compiled = compile(specification);
+        this.chainr = compiled.chainr;
+        this.identity = compiled.identity;
     }
 
     public JoltMapper(InputStream specification) {
-        Objects.requireNonNull(specification, "Specification must not be null");
-        chainr = new ChainrBuilder(JsonUtils.jsonToList(specification)).build();
+        this(read(specification));
     }
 
     public Collection<DynamicProperty> map(String source) {
+        // A byte order mark is not valid JSON
+        if (source != null && !source.isEmpty() && source.charAt(0) == BYTE_ORDER_MARK) {
+            source = source.substring(1);
+        }
+
+        int first = firstSignificantChar(source);
+        if (first == -1) {
+            throw new IllegalArgumentException("Properties payload must not be empty");
+        }
+
+        boolean array = source.charAt(first) == '[';
+        if (identity && array) {
+            Collection<DynamicProperty> properties = stream(source);
+            if (properties != null) {
+                return properties;
+            }
+        }
+
         //Default value is equal to the input json value (in case empty jolt specs)
-        String jsonProperties = source;
-        ArrayList transformed;
-        if (jsonProperties != null && jsonProperties.charAt(0) == '[') {
-            transformed = (ArrayList) chainr.transform(JsonUtils.jsonToList(source));
+        Object transformed;
+        if (array) {
+            transformed = chainr.transform(JsonUtils.jsonToList(source));
         } else {
-            transformed = (ArrayList) chainr.transform(JsonUtils.jsonToMap(source));
+            transformed = chainr.transform(JsonUtils.jsonToMap(source));
+        }
+
+        // An unexpected shape must not be taken as an empty set of properties
+        if (!(transformed instanceof List)) {
+            throw new IllegalArgumentException("Transformed properties must be an array of key / value objects");
         }
-        jsonProperties = JsonUtils.toJsonString(transformed);
-
-        //Now ensure current json properties is well formatted.
-    //    if (validateJson(jsonProperties)) {
-
-        List<Object> items = JsonUtils.jsonToList(jsonProperties);
-        Object collect = items.stream()
-                .map(item -> {
-                    Map<String, String> mapItem = (Map<String, String>) item;
-                    Object key = mapItem.get("key");
-                    if (key instanceof Number) {
-                        return new DynamicProperty(key.toString(), mapItem.get("value"));
+
+        List<?> items = (List<?>) transformed;
+        List<DynamicProperty> properties = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (!(item instanceof Map)) {
+                throw new IllegalArgumentException("Transformed property must be a key / value object: " + item);
+            }
+
+            Map<?, ?> mapItem = (Map<?, ?>) item;
+            properties.add(new DynamicProperty(toString(mapItem.get("key")), toString(mapItem.get("value"))));
+        }
+
+        return properties;
+    }
+
+    /**
+     * Reads an array of key / value objects without building the intermediate JSON tree.
+     *
+     * @return the properties, or <code>null</code> if the source does not have the expected shape.
+     */
+    private Collection<DynamicProperty> stream(String source) {
+        try (JsonParser parser = JSON_FACTORY.createParser(source)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return null;
+            }
+
+            List<DynamicProperty> properties = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                String key = null;
+                String value = null;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken valueToken = parser.nextToken();
+
+                    if ("key".equals(field) || "value".equals(field)) {
+                        if (valueToken.isStructStart()) {
+                            return null;
+                        }
+
+                        String text = text(parser, valueToken);
+                        if ("key".equals(field)) {
+                            key = text;
+                        } else {
+                            value = text;
+                        }
                     } else {
-                        return new DynamicProperty((String) key, mapItem.get("value"));
+                        parser.skipChildren();
                     }
-                })
-                .collect(Collectors.toList());
+                }
+
+                properties.add(new DynamicProperty(key, value));
+            }
+
+            return (token == JsonToken.END_ARRAY) ? properties : null;
+        } catch (IOException ioe) {
+            logger.debug("Unable to read the properties as a stream, fallback to the transformation", ioe);
+            return null;
+        }
+    }
+
+    /**
+     * Renders a scalar value as the transformation does: numbers are read as {@link Integer}, {@link Long} or
+     * {@link Double} instead of being kept as written in the source (<code>1.50</code> gives <code>1.5</code>).
+     */
+    private static String text(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+
+        return token.isNumeric() ? parser.getNumberValue().toString() : parser.getText();
+    }
+
+    /**
+     * @return the index of the first character of the source which is not a whitespace, or <code>-1</code> if there
+     * is none.
+     */
+    private static int firstSignificantChar(String source) {
+        if (source != null) {
+            for (int i = 0; i < source.length(); i++) {
+                if (!Character.isWhitespace(source.charAt(i))) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private static String toString(Object value) {
+        return (value == null) ? null : value.toString();
+    }
+
+    private static CompiledSpecification compile(String specification) {
+        String digest = digest(specification);
+        CompiledSpecification compiled = SPECIFICATIONS.get(digest);
+
+        if (compiled == null) {
+            List<Object> spec = JsonUtils.jsonToList(specification);
+            compiled = new CompiledSpecification(new ChainrBuilder(spec).build(), spec.isEmpty());
+            SPECIFICATIONS.put(digest, compiled);
+        }
 
-        return (Collection<DynamicProperty>) collect;
+        return compiled;
+    }
+
+    private static String digest(String specification) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(specification.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException nsae) {
+            return specification;
+        }
+    }
+
+    private static String read(InputStream specification) {
+        Objects.requireNonNull(specification, "Specification must not be null");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = specification.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    private static class CompiledSpecification {
+
+        private final Chainr chainr;
+
+        private final boolean identity;
+
+        private CompiledSpecification(Chainr chainr, boolean identity) {
+            this.chainr = chainr;
+            this.identity = identity;
+        }
     }
 }
@@ -16,8 +16,11 @@
 package io.gravitee.management.services.dynamicproperties;
 
 import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.api.UpdateApiEntity;
+import io.gravitee.management.service.ApiService;
 import io.gravitee.management.services.dynamicproperties.model.DynamicProperty;
 import io.gravitee.management.services.dynamicproperties.provider.Provider;
+import io.vertx.core.Vertx;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -42,6 +45,12 @@ public class DynamicPropertyUpdaterTest {
     @Mock
     private Provider provider;
 
+    @Mock
+    private ApiService apiService;
+
+    @Mock
+    private Vertx vertx;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -77,4 +86,47 @@ public class DynamicPropertyUpdaterTest {
 
         poller.handle(1L);
     }
+
+    @Test
+    public void shouldNotUpdateUnchangedProperties() {
+        ApiEntity api = new ApiEntity();
+        api.setId("api-id");
+        poller = new DynamicPropertyUpdater(api);
+        poller.setProvider(provider);
+        poller.setApiService(apiService);
+
+        Mockito.when(apiService.findById("api-id")).thenReturn(api);
+        Mockito.when(provider.get())
+                .thenReturn(CompletableFuture.completedFuture(
+                        Collections.singletonList(new DynamicProperty("my-key", "my-value"))));
+
+        poller.handle(1L);
+        poller.handle(2L);
+
+        Mockito.verify(apiService, Mockito.times(1)).findById("api-id");
+        Mockito.verify(apiService, Mockito.times(1)).update(Mockito.eq("api-id"), Mockito.any(UpdateApiEntity.class));
+    }
+
+    @Test
+    public void shouldCancelPendingChangesOnStop() {
+        ApiEntity api = new ApiEntity();
+        api.setId("api-id");
+        poller = new DynamicPropertyUpdater(api);
+        poller.setProvider(provider);
+        poller.setApiService(apiService);
+        poller.setVertx(vertx);
+        poller.setDebounce(1000);
+
+        Mockito.when(vertx.setTimer(Mockito.eq(1000L), Mockito.any())).thenReturn(42L);
+        Mockito.when(provider.get())
+                .thenReturn(CompletableFuture.completedFuture(
+                        Collections.singletonList(new DynamicProperty("my-key", "my-value"))));
+
+        poller.handle(1L);
+        poller.stop();
+
+        Mockito.verify(vertx).cancelTimer(42L);
+        Mockito.verify(provider).reset();
+        Mockito.verify(apiService, Mockito.never()).update(Mockito.anyString(), Mockito.any(UpdateApiEntity.class));
+    }
 }
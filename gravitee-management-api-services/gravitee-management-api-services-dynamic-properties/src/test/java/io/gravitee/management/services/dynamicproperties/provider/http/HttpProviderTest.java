@@ -18,10 +18,12 @@ package io.gravitee.management.services.dynamicproperties.provider.http;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import io.gravitee.definition.model.services.dynamicproperty.DynamicPropertyService;
 import io.gravitee.definition.model.services.dynamicproperty.http.HttpDynamicPropertyProviderConfiguration;
+import io.gravitee.management.service.vertx.HttpClientPool;
 import io.gravitee.management.services.dynamicproperties.model.DynamicProperty;
 import io.gravitee.management.services.dynamicproperties.provider.http.mapper.JoltMapper;
 import io.vertx.core.Vertx;
 import org.apache.commons.io.IOUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -35,6 +37,9 @@ import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -59,9 +64,21 @@ public class HttpProviderTest {
     @Mock
     private JoltMapper mapper;
 
+    private Vertx vertx;
+
+    private HttpClientPool httpClientPool;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        vertx = Vertx.vertx();
+        httpClientPool = new HttpClientPool(vertx);
+    }
+
+    @After
+    public void tearDown() {
+        httpClientPool.close();
+        vertx.close();
     }
 
     @Test
@@ -72,7 +89,8 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientPool(httpClientPool);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         Collection<DynamicProperty> dynamicProperties = future.join();
@@ -90,7 +108,8 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientPool(httpClientPool);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         Collection<DynamicProperty> dynamicProperties = future.join();
@@ -100,6 +119,24 @@ public class HttpProviderTest {
         verify(mapper, never()).map(anyString());
     }
 
+    @Test
+    public void shouldNotMapPropertiesBecauseNotModified() throws IOException {
+        when(dynamicPropertyService.getConfiguration()).thenReturn(providerConfiguration);
+        when(providerConfiguration.getUrl()).thenReturn("http://localhost:" + wireMockRule.port() + "/etag");
+        when(providerConfiguration.getSpecification()).thenReturn(IOUtils.toString(read("/jolt/specification.json"), Charset.defaultCharset()));
+
+        HttpProvider provider = new HttpProvider(dynamicPropertyService);
+        provider.setMapper(mapper);
+        provider.setVertx(vertx);
+        provider.setHttpClientPool(httpClientPool);
+
+        assertNotNull(provider.get().join());
+        assertNull(provider.get().join());
+
+        verify(mapper, times(1)).map(anyString());
+        wireMockRule.verify(1, getRequestedFor(urlEqualTo("/etag")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
     @Test(expected = CompletionException.class)
     public void shouldCallUnknownUri() throws IOException {
         when(dynamicPropertyService.getConfiguration()).thenReturn(providerConfiguration);
@@ -108,7 +145,8 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientPool(httpClientPool);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         future.join();
@@ -23,7 +23,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
 /**
@@ -43,6 +46,77 @@ public class JoltMapperTest {
         assertFalse(properties.isEmpty());
     }
 
+    @Test
+    public void shouldStreamKeyValueFeed() {
+        StringBuilder input = new StringBuilder("[");
+        for (int i = 0; i < 10_000; i++) {
+            if (i > 0) {
+                input.append(',');
+            }
+            input.append("{\"key\":").append(i).append(",\"value\":\"value-").append(i).append("\",\"other\":{\"a\":[1,2]}}");
+        }
+        input.append(']');
+
+        // An empty specification reads the feed as a stream, the shift goes through the transformation
+        Collection<DynamicProperty> streamed = new JoltMapper("[]").map(input.toString());
+        Collection<DynamicProperty> transformed = new JoltMapper(
+                "[{\"operation\":\"shift\",\"spec\":{\"*\":{\"key\":\"[&1].key\",\"value\":\"[&1].value\"}}}]")
+                .map(input.toString());
+
+        assertEquals(10_000, streamed.size());
+        assertEquals(toMap(transformed), toMap(streamed));
+        assertEquals("value-42", toMap(streamed).get("42"));
+    }
+
+    @Test
+    public void shouldRenderNumbersAlikeWhenStreamedOrTransformed() {
+        String input = "[{\"key\":\"price\",\"value\":1.50},{\"key\":\"count\",\"value\":12},{\"key\":\"enabled\",\"value\":true}]";
+
+        Map<String, String> streamed = toMap(new JoltMapper("[]").map(input));
+        Map<String, String> transformed = toMap(new JoltMapper(
+                "[{\"operation\":\"shift\",\"spec\":{\"*\":{\"key\":\"[&1].key\",\"value\":\"[&1].value\"}}}]")
+                .map(input));
+
+        assertEquals(transformed, streamed);
+        assertEquals("1.5", streamed.get("price"));
+        assertEquals("12", streamed.get("count"));
+        assertEquals("true", streamed.get("enabled"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTransformationWhichIsNotAnArray() {
+        new JoltMapper("[{\"operation\":\"shift\",\"spec\":{\"*\":\"&\"}}]").map("{\"key\":\"value\"}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectItemWhichIsNotAnObject() {
+        new JoltMapper("[]").map("[{\"key\":\"a\",\"value\":\"b\"},\"c\"]");
+    }
+
+    @Test
+    public void shouldReadArrayAfterWhitespacesAndByteOrderMark() {
+        String input = "\uFEFF \r\n\t[{\"key\":\"a\",\"value\":\"b\"}]";
+
+        assertEquals("b", toMap(new JoltMapper("[]").map(input)).get("a"));
+        assertEquals("b", toMap(new JoltMapper(
+                "[{\"operation\":\"shift\",\"spec\":{\"*\":{\"key\":\"[&1].key\",\"value\":\"[&1].value\"}}}]")
+                .map(input)).get("a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyPayload() {
+        new JoltMapper("[]").map("");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectBlankPayload() {
+        new JoltMapper("[]").map("\uFEFF  \n");
+    }
+
+    private Map<String, String> toMap(Collection<DynamicProperty> properties) {
+        return properties.stream().collect(Collectors.toMap(DynamicProperty::getKey, DynamicProperty::getValue));
+    }
+
     private InputStream read(String resource) throws IOException {
         return this.getClass().getResourceAsStream(resource);
     }
@@ -15,13 +15,18 @@
  */
 package io.gravitee.management.services.subscriptions;
 
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.service.AbstractService;
 import io.gravitee.management.model.SubscriptionEntity;
 import io.gravitee.management.model.SubscriptionStatus;
-import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.common.PageableImpl;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
-import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.LeaderService;
 import io.gravitee.management.service.SubscriptionService;
+import io.gravitee.management.service.event.SubscriptionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,19 +35,28 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Date;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static java.util.stream.Collectors.toSet;
-
 /**
+ * Closes the accepted subscriptions once their ending date is reached.
+ *
+ * The upcoming expirations are loaded in memory by scanning the accepted subscriptions, and then kept up to date with
+ * the subscriptions updated by this node, so that a refresh only has to look at the head of the queue. The
+ * subscriptions updated by the other nodes are read every few seconds, and all the accepted subscriptions are scanned
+ * again from time to time.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ScheduledSubscriptionsService extends AbstractService implements Runnable {
+public class ScheduledSubscriptionsService extends AbstractService implements Runnable,
+        EventListener<SubscriptionEvent, SubscriptionEntity> {
 
     /**
      * Logger.
@@ -58,14 +72,35 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
     @Value("${services.subscriptions.enabled:true}")
     private boolean enabled;
 
+    @Value("${services.subscriptions.leaderOnly:true}")
+    private boolean leaderOnly;
+
+    @Value("${services.subscriptions.scan.pageSize:500}")
+    private int pageSize = 500;
+
+    @Value("${services.subscriptions.scan.interval:5000}")
+    private long scanInterval = 5000;
+
+    @Value("${services.subscriptions.scan.fullInterval:300000}")
+    private long fullScanInterval = 300000;
+
     private final AtomicLong counter = new AtomicLong(0);
 
-    @Autowired
-    private ApiService apiService;
+    private final SubscriptionExpirationQueue expirations = new SubscriptionExpirationQueue();
+
+    private volatile long lastScan;
+
+    private volatile long lastFullScan;
 
     @Autowired
     private SubscriptionService subscriptionService;
 
+    @Autowired
+    private LeaderService leaderService;
+
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     protected String name() {
         return "Subscriptions Refresher Service";
@@ -76,6 +111,7 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
         if (enabled) {
             super.doStart();
             logger.info("Subscriptions Refresher service has been initialized with cron [{}]", cronTrigger);
+            eventManager.subscribeForEvents(this, SubscriptionEvent.class);
             scheduler.schedule(this, new CronTrigger(cronTrigger));
         } else {
             logger.warn("Subscriptions Refresher service has been disabled");
@@ -84,23 +120,123 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
 
     @Override
     public void run() {
+        if (leaderOnly && !leaderService.isLeader()) {
+            logger.debug("Subscriptions are refreshed by the leader node");
+            return;
+        }
+
         logger.debug("Refresh subscriptions #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
-        final Set<String> apiIds = apiService.findAllLight().stream()
-                .map(ApiEntity::getId)
-                .collect(toSet());
 
+        long now = System.currentTimeMillis();
+        if (lastFullScan == 0 || now - lastFullScan >= fullScanInterval) {
+            scan();
+            lastFullScan = lastScan = now;
+        } else if (now - lastScan >= scanInterval) {
+            scanUpdated(lastScan, now);
+            lastScan = now;
+        }
+
+        List<String> expired = expirations.pollExpired(now);
+        if (!expired.isEmpty()) {
+            close(expired, now);
+        }
+
+        logger.debug("Refresh subscriptions #{} ended at {}", counter.get(), Instant.now().toString());
+    }
+
+    /**
+     * Loads the ending dates of all the accepted subscriptions, page by page.
+     */
+    private void scan() {
         final SubscriptionQuery query = new SubscriptionQuery();
-        query.setApis(apiIds);
         query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
-        final Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
-        final Date now = new Date();
-        subscriptions
-                .forEach(subscription -> {
-                    if (subscription.getEndingAt() != null && subscription.getEndingAt().before(now)) {
-                        subscriptionService.close(subscription.getId());
-                    }
-                });
 
-        logger.debug("Refresh subscriptions #{} ended at {}", counter.get(), Instant.now().toString());
+        Map<String, Long> endingDates = new HashMap<>();
+        int pageNumber = 1;
+        Page<SubscriptionEntity> page;
+        do {
+            page = subscriptionService.search(query, new PageableImpl(pageNumber++, pageSize));
+            page.getContent().forEach(subscription -> {
+                if (subscription.getEndingAt() != null) {
+                    endingDates.put(subscription.getId(), subscription.getEndingAt().getTime());
+                }
+            });
+        } while (page.getContent().size() == pageSize);
+
+        expirations.reset(endingDates);
+        logger.debug("{} accepted subscriptions with an ending date", endingDates.size());
+    }
+
+    /**
+     * Reads the subscriptions updated since the previous scan, by this node or by the others. The period is extended
+     * by one scan interval on each side to cover the clock differences between the nodes.
+     */
+    private void scanUpdated(long from, long to) {
+        final SubscriptionQuery query = new SubscriptionQuery();
+        query.setFrom(Math.max(1, from - scanInterval));
+        query.setTo(to + scanInterval);
+
+        int updated = 0;
+        int pageNumber = 1;
+        Page<SubscriptionEntity> page;
+        do {
+            page = subscriptionService.search(query, new PageableImpl(pageNumber++, pageSize));
+            page.getContent().forEach(this::refresh);
+            updated += page.getContent().size();
+        } while (page.getContent().size() == pageSize);
+
+        logger.debug("{} subscriptions updated since the previous scan", updated);
+    }
+
+    private void refresh(SubscriptionEntity subscription) {
+        if (subscription.getStatus() == SubscriptionStatus.ACCEPTED && subscription.getEndingAt() != null) {
+            expirations.schedule(subscription.getId(), subscription.getEndingAt().getTime());
+        } else {
+            expirations.remove(subscription.getId());
+        }
+    }
+
+    /**
+     * Closes the expired subscriptions. The ones which could not be read or closed are put back into the queue, to be
+     * closed by the next refresh.
+     */
+    private void close(List<String> expired, long now) {
+        Map<String, Long> endingDates = new LinkedHashMap<>(expired.size());
+
+        for (String subscriptionId : expired) {
+            try {
+                // The subscription may have been updated by another node since it has been loaded
+                SubscriptionEntity subscription = subscriptionService.findById(subscriptionId);
+                if (subscription.getStatus() != SubscriptionStatus.ACCEPTED || subscription.getEndingAt() == null) {
+                    continue;
+                }
+
+                if (subscription.getEndingAt().getTime() > now) {
+                    expirations.schedule(subscriptionId, subscription.getEndingAt().getTime());
+                } else {
+                    endingDates.put(subscriptionId, subscription.getEndingAt().getTime());
+                }
+            } catch (Exception ex) {
+                logger.error("Unable to read the expired subscription {}", subscriptionId, ex);
+                expirations.schedule(subscriptionId, now);
+            }
+        }
+
+        if (!endingDates.isEmpty()) {
+            try {
+                Collection<SubscriptionEntity> closed = subscriptionService.closeAll(new ArrayList<>(endingDates.keySet()));
+                closed.forEach(subscription -> endingDates.remove(subscription.getId()));
+                logger.debug("{} expired subscriptions closed", closed.size());
+            } catch (Exception ex) {
+                logger.error("Unable to close {} expired subscriptions", endingDates.size(), ex);
+            }
+
+            endingDates.forEach(expirations::schedule);
+        }
+    }
+
+    @Override
+    public void onEvent(Event<SubscriptionEvent, SubscriptionEntity> event) {
+        refresh(event.content());
     }
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.subscriptions;
+
+import java.util.*;
+
+/**
+ * Upcoming expirations of the accepted subscriptions, ordered by ending date.
+ *
+ * Rescheduled and removed subscriptions are not searched in the queue: their previous entries are skipped when they
+ * reach the head of the queue.
+ *
+ * @author GraviteeSource Team
+ */
+class SubscriptionExpirationQueue {
+
+    private final PriorityQueue<Expiration> queue = new PriorityQueue<>(Comparator.comparingLong(e -> e.endingAt));
+
+    private final Map<String, Long> expirations = new HashMap<>();
+
+    synchronized void schedule(String subscription, long endingAt) {
+        Long previous = expirations.put(subscription, endingAt);
+        if (previous == null || previous != endingAt) {
+            queue.add(new Expiration(subscription, endingAt));
+        }
+    }
+
+    synchronized void remove(String subscription) {
+        expirations.remove(subscription);
+    }
+
+    /**
+     * Replaces all the expirations, for example after a full scan of the subscriptions.
+     */
+    synchronized void reset(Map<String, Long> expirations) {
+        this.queue.clear();
+        this.expirations.clear();
+        expirations.forEach(this::schedule);
+    }
+
+    /**
+     * Removes and returns the subscriptions which have ended at the given time.
+     */
+    synchronized List<String> pollExpired(long now) {
+        List<String> expired = new ArrayList<>();
+
+        Expiration head;
+        while ((head = queue.peek()) != null && head.endingAt <= now) {
+            queue.poll();
+
+            Long endingAt = expirations.get(head.subscription);
+            if (endingAt != null && endingAt == head.endingAt) {
+                expirations.remove(head.subscription);
+                expired.add(head.subscription);
+            }
+        }
+
+        // Drop the entries of the removed and rescheduled subscriptions once they are too many
+        if (queue.size() > 2 * expirations.size() + 1024) {
+            queue.clear();
+            expirations.forEach((subscription, endingAt) -> queue.add(new Expiration(subscription, endingAt)));
+        }
+
+        return expired;
+    }
+
+    synchronized int size() {
+        return expirations.size();
+    }
+
+    private static class Expiration {
+
+        private final String subscription;
+
+        private final long endingAt;
+
+        private Expiration(String subscription, long endingAt) {
+            this.subscription = subscription;
+            this.endingAt = endingAt;
+        }
+    }
+}
@@ -15,12 +15,14 @@
  */
 package io.gravitee.management.services.subscriptions;
 
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.Event;
 import io.gravitee.management.model.SubscriptionEntity;
 import io.gravitee.management.model.SubscriptionStatus;
-import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.common.Pageable;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
-import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.SubscriptionService;
+import io.gravitee.management.service.event.SubscriptionEvent;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -30,9 +32,11 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.List;
 
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com) 
@@ -44,16 +48,11 @@ public class ScheduledSubscriptionsServiceTest {
     @InjectMocks
     ScheduledSubscriptionsService service = new ScheduledSubscriptionsService();
 
-    @Mock
-    ApiService apiService;
-
     @Mock
     SubscriptionService subscriptionService;
 
     @Test
     public void shouldCloseOutdatedSubscriptions() {
-        ApiEntity apiEntity = mock(ApiEntity.class);
-        when(apiEntity.getId()).thenReturn("API_ID");
         SubscriptionEntity endDateInThePast = createSubscription(
                 "end_date_in_the_past",
                 SubscriptionStatus.ACCEPTED,
@@ -66,31 +65,133 @@ public class ScheduledSubscriptionsServiceTest {
                 "end_date_in_the_future",
                 SubscriptionStatus.ACCEPTED,
                 new Date(Long.MAX_VALUE));
-        when(apiService.findAllLight()).thenReturn(Collections.singleton(apiEntity));
 
-        SubscriptionQuery query = new SubscriptionQuery();
-        query.setApi(apiEntity.getId());
-        query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
+        mockScan(Arrays.asList(endDateInThePast, noEndDate, endDateInTheFuture));
+        when(subscriptionService.findById("end_date_in_the_past")).thenReturn(endDateInThePast);
+        when(subscriptionService.closeAll(anyCollection())).thenReturn(Collections.singletonList(endDateInThePast));
+
+        service.run();
+
+        verify(subscriptionService, times(1)).search(any(SubscriptionQuery.class), any(Pageable.class));
+        verify(subscriptionService, times(1)).closeAll(Collections.singletonList("end_date_in_the_past"));
+
+        // The next refresh does not read the subscriptions again
+        service.run();
+
+        verify(subscriptionService, times(1)).search(any(SubscriptionQuery.class), any(Pageable.class));
+        verify(subscriptionService, times(1)).closeAll(anyCollection());
+    }
+
+    @Test
+    public void shouldNotCloseSubscriptionExtendedSinceScan() {
+        SubscriptionEntity loaded = createSubscription("subscription", SubscriptionStatus.ACCEPTED, new Date(0));
+        SubscriptionEntity extended = createSubscription("subscription", SubscriptionStatus.ACCEPTED, new Date(Long.MAX_VALUE));
+
+        mockScan(Collections.singletonList(loaded));
+        when(subscriptionService.findById("subscription")).thenReturn(extended);
+
+        service.run();
+
+        verify(subscriptionService, never()).closeAll(anyCollection());
+    }
+
+    @Test
+    public void shouldCloseSubscriptionUpdatedByEvent() {
+        mockScan(Collections.emptyList());
+        service.run();
+
+        SubscriptionEntity updated = createSubscription("subscription", SubscriptionStatus.ACCEPTED, new Date(0));
+        when(subscriptionService.findById("subscription")).thenReturn(updated);
+        when(subscriptionService.closeAll(anyCollection())).thenReturn(Collections.singletonList(updated));
+
+        service.onEvent(event(updated));
+        service.run();
+
+        verify(subscriptionService, times(1)).closeAll(Collections.singletonList("subscription"));
+    }
+
+    @Test
+    public void shouldCloseSubscriptionUpdatedByAnotherNode() {
+        setField(service, "scanInterval", 0L);
+
+        SubscriptionEntity updated = createSubscription("subscription", SubscriptionStatus.ACCEPTED, new Date(0));
+        when(subscriptionService.search(any(SubscriptionQuery.class), any(Pageable.class)))
+                .thenReturn(page(Collections.emptyList()), page(Collections.singletonList(updated)));
+        when(subscriptionService.findById("subscription")).thenReturn(updated);
+        when(subscriptionService.closeAll(anyCollection())).thenReturn(Collections.singletonList(updated));
+
+        // Full scan, the subscription is not accepted yet
+        service.run();
+        verify(subscriptionService, never()).closeAll(anyCollection());
+
+        // Then only the subscriptions updated since the previous scan are read
+        service.run();
+        verify(subscriptionService).search(
+                argThat(query -> query.getFrom() > 0 && query.getStatuses() == null),
+                any(Pageable.class));
+        verify(subscriptionService, times(1)).closeAll(Collections.singletonList("subscription"));
+    }
+
+    @Test
+    public void shouldRetryExpiredSubscriptionsNotClosed() {
+        SubscriptionEntity closed = createSubscription("closed", SubscriptionStatus.ACCEPTED, new Date(0));
+        SubscriptionEntity failed = createSubscription("failed", SubscriptionStatus.ACCEPTED, new Date(1));
+
+        mockScan(Arrays.asList(closed, failed));
+        when(subscriptionService.findById("closed")).thenReturn(closed);
+        when(subscriptionService.findById("failed")).thenReturn(failed);
+        when(subscriptionService.closeAll(anyCollection()))
+                .thenReturn(Collections.singletonList(closed), Collections.singletonList(failed));
+
+        service.run();
+        verify(subscriptionService).closeAll(Arrays.asList("closed", "failed"));
+
+        // Only the subscription which has not been closed is closed again
+        service.run();
+        verify(subscriptionService).closeAll(Collections.singletonList("failed"));
+
+        service.run();
+        verify(subscriptionService, times(2)).closeAll(anyCollection());
+    }
 
-        when(subscriptionService.search(query)).
-                thenReturn(new HashSet<>(Arrays.asList(
-                        endDateInThePast,
-                        noEndDate,
-                        endDateInTheFuture)));
+    @Test
+    public void shouldRetryExpiredSubscriptionsWhenCloseFails() {
+        SubscriptionEntity expired = createSubscription("subscription", SubscriptionStatus.ACCEPTED, new Date(0));
 
+        mockScan(Collections.singletonList(expired));
+        when(subscriptionService.findById("subscription")).thenReturn(expired);
+        when(subscriptionService.closeAll(anyCollection()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(Collections.singletonList(expired));
+
+        service.run();
+        service.run();
         service.run();
 
-        verify(apiService, times(1)).findAllLight();
-        verify(subscriptionService, times(1)).search(query);
-        verify(subscriptionService, times(1)).close("end_date_in_the_past");
-        verify(subscriptionService, never()).close("no_end_date");
-        verify(subscriptionService, never()).close("end_date_in_the_future");
+        verify(subscriptionService, times(2)).closeAll(Collections.singletonList("subscription"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Event<SubscriptionEvent, SubscriptionEntity> event(SubscriptionEntity subscription) {
+        Event<SubscriptionEvent, SubscriptionEntity> event = mock(Event.class);
+        when(event.content()).thenReturn(subscription);
+        return event;
+    }
+
+    private void mockScan(List<SubscriptionEntity> subscriptions) {
+        when(subscriptionService.search(any(SubscriptionQuery.class), any(Pageable.class)))
+                .thenReturn(page(subscriptions));
+    }
+
+    private static Page<SubscriptionEntity> page(List<SubscriptionEntity> subscriptions) {
+        return new Page<>(subscriptions, 1, subscriptions.size(), subscriptions.size());
     }
 
     private SubscriptionEntity createSubscription(String id, SubscriptionStatus status, Date endingDate) {
-        SubscriptionEntity subscriptionEntity = mock(SubscriptionEntity.class);
-        when(subscriptionEntity.getId()).thenReturn(id);
-        when(subscriptionEntity.getEndingAt()).thenReturn(endingDate);
+        SubscriptionEntity subscriptionEntity = new SubscriptionEntity();
+        subscriptionEntity.setId(id);
+        subscriptionEntity.setStatus(status);
+        subscriptionEntity.setEndingAt(endingDate);
         return subscriptionEntity;
     }
 }
@@ -21,61 +21,172 @@ import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.service.event.ApiEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Registry of the deployed APIs.
+ *
+ * Each change of an API is stamped with a version, increasing across all the APIs. Lookups do not lock, and
+ * {@link #apis()} returns a snapshot of the registry.
+ *
+ * The {@link ApiEvent}s are published asynchronously so that slow listeners do not stall the synchronization: events
+ * are dispatched on a fixed number of threads, the events of an API always being dispatched by the same thread, in
+ * the order of the changes.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ApiManager {
+public class ApiManager implements InitializingBean, DisposableBean {
 
     private final Logger logger = LoggerFactory.getLogger(ApiManager.class);
 
     @Autowired
     private EventManager eventManager;
 
-    private final Map<String, ApiEntity> apis = new HashMap<>();
+    @Value("${services.sync.dispatcher.threads:4}")
+    private int dispatcherThreads = 4;
+
+    private final Map<String, DeployedApi> apis = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private ExecutorService[] dispatchers;
+
+    @Override
+    public void afterPropertiesSet() {
+        final AtomicInteger counter = new AtomicInteger();
+        dispatchers = new ExecutorService[Math.max(1, dispatcherThreads)];
+        for (int i = 0; i < dispatchers.length; i++) {
+            dispatchers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gio-sync-dispatcher-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (ExecutorService dispatcher : dispatchers) {
+            dispatcher.shutdown();
+        }
+        for (ExecutorService dispatcher : dispatchers) {
+            dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
 
     public void deploy(ApiEntity api) {
         logger.info("Deployment of {}", api);
 
-            apis.put(api.getId(), api);
+        apis.put(api.getId(), new DeployedApi(api, version.incrementAndGet()));
 
-            if (api.getState() == Lifecycle.State.STARTED) {
-                eventManager.publishEvent(ApiEvent.DEPLOY, api);
-            } else {
-                logger.debug("{} is not enabled. Skip deployment.", api);
-            }
+        if (api.getState() == Lifecycle.State.STARTED) {
+            dispatch(ApiEvent.DEPLOY, api);
+        } else {
+            logger.debug("{} is not enabled. Skip deployment.", api);
+        }
     }
 
     public void update(ApiEntity api) {
-        apis.put(api.getId(), api);
-            eventManager.publishEvent(ApiEvent.UPDATE, api);
+        apis.put(api.getId(), new DeployedApi(api, version.incrementAndGet()));
+        dispatch(ApiEvent.UPDATE, api);
     }
 
     public void undeploy(String apiId) {
-        ApiEntity currentApi = apis.remove(apiId);
+        DeployedApi currentApi = apis.remove(apiId);
         if (currentApi != null) {
-            logger.info("Undeployment of {}", currentApi);
+            version.incrementAndGet();
+            logger.info("Undeployment of {}", currentApi.api);
 
-            eventManager.publishEvent(ApiEvent.UNDEPLOY, currentApi);
-            logger.info("{} has been undeployed", apiId);
+            dispatch(ApiEvent.UNDEPLOY, currentApi.api);
         }
     }
 
+    /**
+     * @return a snapshot of the deployed APIs.
+     */
     public Collection<ApiEntity> apis() {
-        return apis.values();
+        Collection<ApiEntity> snapshot = new ArrayList<>(apis.size());
+        apis.values().forEach(deployedApi -> snapshot.add(deployedApi.api));
+        return Collections.unmodifiableCollection(snapshot);
     }
 
     public ApiEntity get(String name) {
-        return apis.get(name);
+        DeployedApi deployedApi = apis.get(name);
+        return deployedApi == null ? null : deployedApi.api;
+    }
+
+    /**
+     * @return the version of the last change of the given API, -1 if the API is not deployed.
+     */
+    public long getVersion(String apiId) {
+        DeployedApi deployedApi = apis.get(apiId);
+        return deployedApi == null ? -1 : deployedApi.version;
+    }
+
+    /**
+     * @return the version of the last change of the registry.
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     public void setEventManager(EventManager eventManager) {
         this.eventManager = eventManager;
     }
+
+    private void dispatch(ApiEvent type, ApiEntity api) {
+        if (dispatchers == null) {
+            publish(type, api);
+            return;
+        }
+
+        try {
+            dispatchers[Math.floorMod(api.getId().hashCode(), dispatchers.length)].execute(() -> {
+                try {
+                    publish(type, api);
+                } catch (Exception ex) {
+                    logger.error("An error occurs while publishing {} event for API {}", type, api.getId(), ex);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            logger.warn("{} event for API {} is not published, the API manager is stopped", type, api.getId());
+        }
+    }
+
+    /**
+     * Publishes the event, the listeners being called synchronously.
+     */
+    private void publish(ApiEvent type, ApiEntity api) {
+        eventManager.publishEvent(type, api);
+        if (type == ApiEvent.UNDEPLOY) {
+            logger.info("{} has been undeployed", api.getId());
+        }
+    }
+
+    private static class DeployedApi {
+
+        private final ApiEntity api;
+        private final long version;
+
+        DeployedApi(ApiEntity api, long version) {
+            this.api = api;
+            this.version = version;
+        }
+    }
 }
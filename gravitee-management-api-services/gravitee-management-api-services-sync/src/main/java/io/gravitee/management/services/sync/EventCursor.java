@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.sync;
+
+import io.gravitee.repository.management.model.Event;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Position of the synchronization in a stream of events.
+ *
+ * Events are read from the last synchronization time, minus an overlap to catch events stored late by another node
+ * (clock skew, slow writes). The identifiers of the events already processed within this overlap are kept so that
+ * they are skipped when read again: only new events are returned to the synchronization.
+ *
+ * Events are only recorded as processed once committed, after they have been applied: events which failed to be
+ * applied are returned again by the next synchronization.
+ *
+ * The creation date of the last event applied to each API / dictionary is also kept: an event stored late, but older
+ * than an event already applied to the same API / dictionary, is outdated and skipped.
+ *
+ * @author GraviteeSource Team
+ */
+class EventCursor {
+
+    private final Event.EventProperties reference;
+
+    private final long overlap;
+
+    private long position = -1;
+
+    private final Map<String, Long> processed = new HashMap<>();
+
+    /**
+     * Creation date of the last event applied, by API / dictionary.
+     */
+    private final Map<String, Long> applied = new HashMap<>();
+
+    EventCursor(Event.EventProperties reference, long overlap) {
+        this.reference = reference;
+        this.overlap = overlap;
+    }
+
+    boolean isInitialized() {
+        return position != -1;
+    }
+
+    /**
+     * @return the creation date from which events have to be read.
+     */
+    long from() {
+        return position - overlap;
+    }
+
+    /**
+     * Keeps only the events which have not been processed yet, and which are not older than the last event applied to
+     * their API / dictionary.
+     */
+    List<Event> next(List<Event> events) {
+        return events
+                .stream()
+                .filter(event -> !processed.containsKey(event.getId()))
+                .filter(event -> {
+                    Long lastApplied = applied.get(reference(event));
+                    return lastApplied == null || createdAt(event) >= lastApplied;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records the given events as processed, once they have been applied.
+     */
+    void commit(List<Event> events) {
+        events.forEach(event -> {
+            final long createdAt = createdAt(event);
+            processed.putIfAbsent(event.getId(), createdAt);
+
+            String referenceId = reference(event);
+            if (referenceId != null) {
+                applied.merge(referenceId, createdAt, Math::max);
+            }
+        });
+    }
+
+    /**
+     * Moves the cursor once the events read up to the given time have been processed.
+     */
+    void moveTo(long position) {
+        this.position = position;
+
+        // Events created before the overlap window are not read anymore
+        final long from = from();
+        processed.values().removeIf(createdAt -> createdAt < from);
+        // Events older than these ones are not read anymore either
+        applied.values().removeIf(createdAt -> createdAt < from);
+    }
+
+    int getProcessedCount() {
+        return processed.size();
+    }
+
+    private String reference(Event event) {
+        return event.getProperties() == null ? null : event.getProperties().get(reference.getValue());
+    }
+
+    private long createdAt(Event event) {
+        return event.getCreatedAt() == null ? position : event.getCreatedAt().getTime();
+    }
+}
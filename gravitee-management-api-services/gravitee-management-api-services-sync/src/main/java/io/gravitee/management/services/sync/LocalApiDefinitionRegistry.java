@@ -0,0 +1,298 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.management.model.api.ApiEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Deploys the API definitions stored as JSON files in a local directory, instead of synchronizing them from the
+ * repository.
+ *
+ * All the files are read at startup, then the directory is watched: the files created, modified or deleted are
+ * collected until no change has been notified during the debounce delay, so that a burst of changes (an editor saving
+ * a file several times, a whole directory being copied) ends in a single deployment per file. The changes are
+ * deployed anyway once they have been waiting for the maximum wait, so that a file modified continuously is still
+ * deployed. Only these files are read again, and a file whose content has not changed is not deployed again.
+ *
+ * When several files declare the same API, the last one read is deployed, and the API is undeployed once none of them
+ * declares it anymore.
+ *
+ * @author GraviteeSource Team
+ */
+public class LocalApiDefinitionRegistry {
+
+    /**
+     * Logger.
+     */
+    private final Logger logger = LoggerFactory.getLogger(LocalApiDefinitionRegistry.class);
+
+    private static final String DEFINITION_EXTENSION = ".json";
+
+    @Value("${services.local.path:${gravitee.home}/apis}")
+    private String registryPath;
+
+    @Value("${services.local.debounce:500}")
+    private long debounce;
+
+    @Value("${services.local.maxWait:5000}")
+    private long maxWait;
+
+    @Autowired
+    private ApiManager apiManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Definitions deployed from the registry, by file name. Only accessed by the watcher thread.
+     */
+    private final Map<Path, DeployedDefinition> definitions = new HashMap<>();
+
+    /**
+     * Files declaring each deployed API, by API id. Only accessed by the watcher thread.
+     */
+    private final Map<String, Set<Path>> apis = new HashMap<>();
+
+    private ExecutorService executor;
+
+    private WatchService watchService;
+
+    public void start() throws IOException {
+        final Path registry = Paths.get(registryPath);
+        if (!Files.isDirectory(registry)) {
+            logger.error("Local registry {} does not exist or is not a directory, no API is deployed", registry);
+            return;
+        }
+
+        // Watch the directory before reading it, so that the files changed in the meantime are read again
+        watchService = registry.getFileSystem().newWatchService();
+        registry.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+        logger.info("Deploying the API definitions of the local registry {}", registry);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(registry, "*" + DEFINITION_EXTENSION)) {
+            for (Path file : files) {
+                refresh(file);
+            }
+        }
+
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gio-local-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> watch(registry, watchService));
+    }
+
+    public void stop() throws Exception {
+        if (watchService != null) {
+            // Closing the watch service wakes up the watcher thread
+            watchService.close();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    void watch(Path registry, WatchService watchService) {
+        final Set<Path> changes = new LinkedHashSet<>();
+        long firstChangeAt = 0;
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // Wait for a first change, then for the end of the burst, but no longer than the maximum wait
+                WatchKey key;
+                if (changes.isEmpty()) {
+                    key = watchService.take();
+                    firstChangeAt = System.nanoTime();
+                } else {
+                    long remaining = maxWait - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstChangeAt);
+                    key = (remaining > 0) ?
+                            watchService.poll(Math.min(debounce, remaining), TimeUnit.MILLISECONDS) : null;
+                }
+
+                if (key == null) {
+                    changes.forEach(this::refresh);
+                    changes.clear();
+                    continue;
+                }
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        // Some changes have been lost, all the files have to be checked again
+                        logger.warn("Too many changes in the local registry, checking all the API definitions");
+                        changes.addAll(definitions.keySet());
+                        try (DirectoryStream<Path> files = Files.newDirectoryStream(registry, "*" + DEFINITION_EXTENSION)) {
+                            files.forEach(changes::add);
+                        }
+                    } else {
+                        Path file = registry.resolve((Path) event.context());
+                        if (file.getFileName().toString().endsWith(DEFINITION_EXTENSION)) {
+                            changes.add(file);
+                        }
+                    }
+                }
+
+                if (!key.reset()) {
+                    logger.error("Local registry {} is no longer accessible, its changes are not deployed anymore",
+                            registry);
+                    return;
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException cwse) {
+            logger.debug("Local registry {} is not watched anymore", registry);
+        } catch (Exception ex) {
+            logger.error("Unexpected error while watching the local registry {}", registry, ex);
+        }
+    }
+
+    private void refresh(Path file) {
+        refresh(file, false);
+    }
+
+    /**
+     * Deploys the definition of the file, or undeploys it if the file has been removed.
+     *
+     * @param force <code>true</code> to deploy the definition even if the file has not changed.
+     */
+    private void refresh(Path file, boolean force) {
+        final DeployedDefinition deployed = definitions.get(file);
+
+        if (!Files.exists(file)) {
+            if (deployed != null) {
+                logger.info("API definition {} has been removed from the local registry", file.getFileName());
+                definitions.remove(file);
+                release(deployed.apiId, file);
+            }
+            return;
+        }
+
+        try {
+            final byte[] content = Files.readAllBytes(file);
+            final byte[] digest = digest(content);
+            if (!force && deployed != null && digest != null && deployed.digest != null
+                    && MessageDigest.isEqual(deployed.digest, digest)) {
+                logger.debug("API definition {} has not changed", file.getFileName());
+                return;
+            }
+
+            final ApiEntity api = objectMapper.readValue(content, ApiEntity.class);
+            if (api.getId() == null) {
+                logger.error("API definition {} has no id, it can not be deployed", file.getFileName());
+                return;
+            }
+
+            if (deployed != null && !deployed.apiId.equals(api.getId())) {
+                // The file now defines another API
+                definitions.remove(file);
+                release(deployed.apiId, file);
+            }
+
+            definitions.put(file, new DeployedDefinition(api.getId(), digest));
+
+            final Set<Path> files = apis.computeIfAbsent(api.getId(), id -> new TreeSet<>());
+            files.add(file);
+            if (files.size() > 1) {
+                logger.warn("API {} is declared by several files of the local registry {}, {} is deployed",
+                        api.getId(), files, file.getFileName());
+            }
+
+            if (apiManager.get(api.getId()) == null) {
+                apiManager.deploy(api);
+            } else {
+                apiManager.update(api);
+            }
+        } catch (Exception ex) {
+            logger.error("Unable to deploy the API definition {} from the local registry", file.getFileName(), ex);
+        }
+    }
+
+    /**
+     * Forgets that the file declares the API. The API is undeployed if no other file declares it, or deployed again
+     * from one of them otherwise.
+     */
+    private void release(String apiId, Path file) {
+        final Set<Path> files = apis.get(apiId);
+        if (files != null) {
+            files.remove(file);
+        }
+
+        if (files == null || files.isEmpty()) {
+            apis.remove(apiId);
+            apiManager.undeploy(apiId);
+        } else {
+            refresh(files.iterator().next(), true);
+        }
+    }
+
+    private static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException nsae) {
+            // Without digest, the definition is deployed each time its file is modified
+            return null;
+        }
+    }
+
+    public void setRegistryPath(String registryPath) {
+        this.registryPath = registryPath;
+    }
+
+    public void setDebounce(long debounce) {
+        this.debounce = debounce;
+    }
+
+    public void setMaxWait(long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public void setApiManager(ApiManager apiManager) {
+        this.apiManager = apiManager;
+    }
+
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    private static class DeployedDefinition {
+
+        private final String apiId;
+        private final byte[] digest;
+
+        DeployedDefinition(String apiId, byte[] digest) {
+            this.apiId = apiId;
+            this.digest = digest;
+        }
+    }
+}
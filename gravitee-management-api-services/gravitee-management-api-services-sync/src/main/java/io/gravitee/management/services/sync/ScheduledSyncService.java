@@ -15,7 +15,12 @@
  */
 package io.gravitee.management.services.sync;
 
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.service.AbstractService;
+import io.gravitee.management.model.EventEntity;
+import io.gravitee.management.service.event.ManagementEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,13 +29,14 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 
 import java.time.Instant;
+import java.util.Date;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ScheduledSyncService extends AbstractService implements Runnable {
+public class ScheduledSyncService extends AbstractService implements Runnable, EventListener<ManagementEvent, EventEntity> {
 
     /**
      * Logger.
@@ -49,33 +55,81 @@ public class ScheduledSyncService extends AbstractService implements Runnable {
     @Value("${services.local.enabled:false}")
     private boolean localRegistryEnabled;
 
+    /**
+     * Instead of the cron, wait between minDelay and maxDelay (in milliseconds) between two synchronizations: the delay
+     * is doubled each time nothing has been synchronized, and the synchronization runs as soon as this node creates an
+     * event.
+     */
+    @Value("${services.sync.adaptive.enabled:false}")
+    private boolean adaptive;
+
+    @Value("${services.sync.adaptive.minDelay:5000}")
+    private long minDelay;
+
+    @Value("${services.sync.adaptive.maxDelay:60000}")
+    private long maxDelay;
+
     @Autowired
     private SyncManager syncStateManager;
 
+    @Autowired
+    private EventManager eventManager;
+
+    @Autowired
+    private LocalApiDefinitionRegistry localApiDefinitionRegistry;
+
     private final AtomicLong counter = new AtomicLong(0);
 
+    private volatile long delay;
+
     @Override
     protected void doStart() throws Exception {
         if (! localRegistryEnabled) {
             if (enabled) {
                 super.doStart();
-                logger.info("Sync service has been initialized with cron [{}]", cronTrigger);
                 // Sync must start only when doStart() is invoked, that's the reason why we are not
                 // using @Scheduled annotation on doSync() method.
-                scheduler.schedule(this, new CronTrigger(cronTrigger));
+                if (adaptive) {
+                    logger.info("Sync service has been initialized with an adaptive delay from {} ms to {} ms",
+                            minDelay, maxDelay);
+                    delay = minDelay;
+                    scheduler.schedule(this, triggerContext -> triggerContext.lastCompletionTime() == null ?
+                            new Date() : new Date(triggerContext.lastCompletionTime().getTime() + delay));
+                    eventManager.subscribeForEvents(this, ManagementEvent.class);
+                } else {
+                    logger.info("Sync service has been initialized with cron [{}]", cronTrigger);
+                    scheduler.schedule(this, new CronTrigger(cronTrigger));
+                }
             } else {
                 logger.warn("Sync service has been disabled");
             }
         } else {
-            logger.warn("Sync service is disabled because local registry mode is enabled");
+            logger.warn("Sync service is disabled because local registry mode is enabled, APIs are deployed from the local registry");
+            super.doStart();
+            localApiDefinitionRegistry.start();
         }
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        if (localRegistryEnabled) {
+            localApiDefinitionRegistry.stop();
+        }
+        super.doStop();
+    }
+
     @Override
     public void run() {
         doSync();
     }
 
+    @Override
+    public void onEvent(Event<ManagementEvent, EventEntity> event) {
+        // An event has been created by this node, synchronize it without waiting for the next schedule
+        delay = minDelay;
+        scheduler.schedule(this::doSync, new Date());
+    }
+
     /**
      * Synchronization done when Gravitee node is starting.
      * This sync phase must be done by all node before starting.
@@ -83,7 +137,11 @@ public class ScheduledSyncService extends AbstractService implements Runnable {
     private void doSync() {
         logger.debug("Synchronization #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
 
-        syncStateManager.refresh();
+        boolean synchronizedEvents = syncStateManager.refresh();
+
+        if (adaptive) {
+            delay = synchronizedEvents ? minDelay : Math.min(delay * 2, maxDelay);
+        }
 
         logger.debug("Synchronization #{} ended at {}", counter.get(), Instant.now().toString());
     }
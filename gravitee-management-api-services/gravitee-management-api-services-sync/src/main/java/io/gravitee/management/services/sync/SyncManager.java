@@ -26,7 +26,6 @@ import io.gravitee.management.model.PrimaryOwnerEntity;
 import io.gravitee.management.model.UserEntity;
 import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.service.UserService;
-import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.DictionaryRepository;
 import io.gravitee.repository.management.api.EventRepository;
@@ -39,12 +38,15 @@ import io.gravitee.repository.management.model.Dictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.util.Comparator.comparing;
@@ -58,9 +60,27 @@ public class SyncManager {
 
     private final Logger logger = LoggerFactory.getLogger(SyncManager.class);
 
-    private static final int TIMEFRAME_BEFORE_DELAY = 10 * 60 * 1000;
     private static final int TIMEFRAME_AFTER_DELAY = 1 * 60 * 1000;
 
+    /**
+     * Events are read again during this delay (in milliseconds) to catch events stored late by other nodes.
+     */
+    @Value("${services.sync.overlap:30000}")
+    private long overlap;
+
+    /**
+     * At startup, the last event of each API / dictionary is found by reading the latest events, page by page, up to
+     * maxPages. The APIs / dictionaries not found in these pages are looked up one by one, by concurrency threads.
+     */
+    @Value("${services.sync.initial.pageSize:200}")
+    private int initialPageSize;
+
+    @Value("${services.sync.initial.maxPages:50}")
+    private int initialMaxPages;
+
+    @Value("${services.sync.initial.concurrency:10}")
+    private int initialConcurrency;
+
     @Autowired
     private ApiRepository apiRepository;
     @Autowired
@@ -80,37 +100,77 @@ public class SyncManager {
     @Autowired
     private UserService userService;
 
+    /**
+     * Maximum number of users (API primary owners) kept in cache between two synchronizations.
+     */
+    @Value("${services.sync.users.cacheSize:200}")
+    private int usersCacheSize;
+
     private final AtomicLong counter = new AtomicLong(0);
 
-    private long lastRefreshAt = -1;
+    private final Map<String, UserEntity> users = new LinkedHashMap<String, UserEntity>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserEntity> eldest) {
+            return size() > usersCacheSize;
+        }
+    };
+
+    private EventCursor apiCursor;
+
+    private EventCursor dictionaryCursor;
+
+    private volatile long initialSyncDuration = -1;
+
+    private volatile long lastSyncDuration = -1;
 
-    public void refresh() {
+    /**
+     * @return <code>true</code> if new events have been synchronized.
+     */
+    public synchronized boolean refresh() {
         logger.debug("Synchronization #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
         logger.debug("Refreshing state...");
 
+        if (apiCursor == null) {
+            apiCursor = new EventCursor(Event.EventProperties.API_ID, overlap);
+            dictionaryCursor = new EventCursor(Event.EventProperties.DICTIONARY_ID, overlap);
+        }
+
+        final boolean initial = !apiCursor.isInitialized() || !dictionaryCursor.isInitialized();
         long nextLastRefreshAt = System.currentTimeMillis();
+        int synchronizedEvents = 0;
 
         try {
-            synchronizeApis(nextLastRefreshAt);
+            synchronizedEvents += synchronizeApis(nextLastRefreshAt);
+            apiCursor.moveTo(nextLastRefreshAt);
         } catch (Exception ex) {
             logger.error("An error occurs while synchronizing APIs", ex);
         }
 
         try {
-            synchronizeDictionaries(nextLastRefreshAt);
+            synchronizedEvents += synchronizeDictionaries(nextLastRefreshAt);
+            dictionaryCursor.moveTo(nextLastRefreshAt);
         } catch (Exception ex) {
             logger.error("An error occurs while synchronizing dictionaries", ex);
         }
 
-        lastRefreshAt = nextLastRefreshAt;
-        logger.debug("Synchronization #{} ended at {}", counter.get(), Instant.now().toString());
+        lastSyncDuration = System.currentTimeMillis() - nextLastRefreshAt;
+        if (initial && apiCursor.isInitialized() && dictionaryCursor.isInitialized()) {
+            initialSyncDuration = lastSyncDuration;
+            logger.info("Initial synchronization of {} events done in {} ms", synchronizedEvents, initialSyncDuration);
+        }
+
+        logger.debug("Synchronization #{} ended at {}: {} new events", counter.get(), Instant.now().toString(),
+                synchronizedEvents);
+
+        return synchronizedEvents > 0;
     }
 
-    private void synchronizeApis(long nextLastRefreshAt) throws Exception {
+    private int synchronizeApis(long nextLastRefreshAt) throws Exception {
+        List<Event> events;
         Map<String, Event> apiEvents;
 
         // Initial synchronization
-        if (lastRefreshAt == -1) {
+        if (!apiCursor.isInitialized()) {
             // Extract all registered APIs
             List<io.gravitee.repository.management.model.Api> apis =
                     apiRepository.search(null, new ApiFieldExclusionFilter.Builder()
@@ -118,10 +178,14 @@ public class SyncManager {
                             .excludePicture().build());
 
             // Get last event by API
-            apiEvents = apis
+            events = apiCursor.next(getLastEvents(
+                    apis.stream().map(Api::getId).collect(Collectors.toSet()),
+                    Event.EventProperties.API_ID,
+                    this::getLastApiEvent,
+                    EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API));
+
+            apiEvents = events
                     .stream()
-                    .map(api -> getLastApiEvent(api.getId()))
-                    .filter(Objects::nonNull)
                     .collect(
                             toMap(
                                     event -> event.getProperties().get(Event.EventProperties.API_ID.getValue()),
@@ -129,8 +193,8 @@ public class SyncManager {
                             )
                     );
         } else {
-            // Get latest API events
-            List<Event> events = getLatestApiEvents(nextLastRefreshAt);
+            // Get the API events which have not been processed yet
+            events = apiCursor.next(getLatestApiEvents(nextLastRefreshAt));
 
             // Extract only the latest event by API
             apiEvents = events
@@ -142,25 +206,33 @@ public class SyncManager {
                                     BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
         }
 
-        // Then, compute events
+        // Then, compute events, and only then record them as processed so that they are read again on failure
         computeApiEvents(apiEvents);
+        apiCursor.commit(events);
+
+        return apiEvents.size();
     }
 
-    private void synchronizeDictionaries(long nextLastRefreshAt) throws Exception {
+    private int synchronizeDictionaries(long nextLastRefreshAt) throws Exception {
+        List<Event> events;
         Map<String, Event> dictionaryEvents;
 
         // Initial synchronization
-        if (lastRefreshAt == -1) {
+        if (!dictionaryCursor.isInitialized()) {
             List<Dictionary> dictionaries = dictionaryRepository.findAll()
                     .stream()
                     .filter(dictionary -> dictionary.getType() == DictionaryType.DYNAMIC)
                     .collect(Collectors.toList());
 
             // Get last event by dictionary
-            dictionaryEvents = dictionaries
+            events = dictionaryCursor.next(getLastEvents(
+                    dictionaries.stream().map(Dictionary::getId).collect(Collectors.toSet()),
+                    Event.EventProperties.DICTIONARY_ID,
+                    this::getLastDictionaryEvent,
+                    EventType.START_DICTIONARY, EventType.STOP_DICTIONARY));
+
+            dictionaryEvents = events
                     .stream()
-                    .map(api -> getLastDictionaryEvent(api.getId()))
-                    .filter(Objects::nonNull)
                     .collect(
                             toMap(
                                     event -> event.getProperties().get(Event.EventProperties.DICTIONARY_ID.getValue()),
@@ -168,8 +240,8 @@ public class SyncManager {
                             )
                     );
         } else {
-            // Get latest dictionary events
-            List<Event> events = getLatestDictionaryEvents(nextLastRefreshAt);
+            // Get the dictionary events which have not been processed yet
+            events = dictionaryCursor.next(getLatestDictionaryEvents(nextLastRefreshAt));
 
             // Extract only the latest event by API
             dictionaryEvents = events
@@ -181,8 +253,10 @@ public class SyncManager {
                                     BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
         }
 
-
         computeDictionaryEvents(dictionaryEvents);
+        dictionaryCursor.commit(events);
+
+        return dictionaryEvents.size();
     }
 
     private void computeDictionaryEvents(Map<String, Event> dictionaryEvents) {
@@ -203,6 +277,8 @@ public class SyncManager {
     }
 
     private void computeApiEvents(Map<String, Event> apiEvents) {
+        final Map<String, Api> apisToDeploy = new HashMap<>();
+
         apiEvents.forEach((apiId, apiEvent) -> {
             switch (apiEvent.getType()) {
                 case UNPUBLISH_API:
@@ -212,25 +288,16 @@ public class SyncManager {
                 case START_API:
                 case PUBLISH_API:
                     try {
-                        // Read API definition from event
+                        // Read API from event
                         io.gravitee.repository.management.model.Api payloadApi =
                                 objectMapper.readValue(apiEvent.getPayload(), io.gravitee.repository.management.model.Api.class);
 
-                        // API to deploy
-                        ApiEntity apiToDeploy = convert(payloadApi);
-
-                        if (apiToDeploy != null) {
-                            // Get deployed API
-                            ApiEntity deployedApi = apiManager.get(apiToDeploy.getId());
-
-                            // API is not yet deployed, so let's do it !
-                            if (deployedApi == null) {
-                                apiManager.deploy(apiToDeploy);
-                            } else {
-                                if (deployedApi.getDeployedAt().before(apiToDeploy.getDeployedAt())) {
-                                    apiManager.update(apiToDeploy);
-                                }
-                            }
+                        // Get deployed API
+                        ApiEntity deployedApi = apiManager.get(payloadApi.getId());
+
+                        // API is not yet deployed or has been deployed again, its definition has to be read
+                        if (deployedApi == null || deployedApi.getDeployedAt().before(payloadApi.getDeployedAt())) {
+                            apisToDeploy.put(payloadApi.getId(), payloadApi);
                         }
                     } catch (Exception e) {
                         logger.error("Error while determining deployed APIs store into events payload", e);
@@ -238,6 +305,134 @@ public class SyncManager {
                     break;
             }
         });
+
+        if (apisToDeploy.isEmpty()) {
+            return;
+        }
+
+        final Map<String, UserEntity> primaryOwners = getPrimaryOwners(apisToDeploy.keySet());
+
+        apisToDeploy.values().forEach(payloadApi -> {
+            try {
+                // API to deploy
+                ApiEntity apiToDeploy = convert(payloadApi, primaryOwners.get(payloadApi.getId()));
+
+                if (apiManager.get(apiToDeploy.getId()) == null) {
+                    // API is not yet deployed, so let's do it !
+                    apiManager.deploy(apiToDeploy);
+                } else {
+                    apiManager.update(apiToDeploy);
+                }
+            } catch (Exception e) {
+                logger.error("Error while deploying API {} from events payload", payloadApi.getId(), e);
+            }
+        });
+    }
+
+    /**
+     * Resolves the primary owners of all the APIs at once, the users being kept in a LRU cache between
+     * synchronizations.
+     */
+    private Map<String, UserEntity> getPrimaryOwners(Set<String> apiIds) {
+        final Map<String, UserEntity> primaryOwners = new HashMap<>(apiIds.size());
+
+        try {
+            final Map<String, String> primaryOwnerIds = membershipRepository.findByReferencesAndRole(
+                    MembershipReferenceType.API,
+                    new ArrayList<>(apiIds),
+                    RoleScope.API,
+                    SystemRole.PRIMARY_OWNER.name())
+                    .stream()
+                    .collect(toMap(Membership::getReferenceId, Membership::getUserId, (userId1, userId2) -> userId1));
+
+            final List<String> missingUserIds = primaryOwnerIds.values()
+                    .stream()
+                    .distinct()
+                    .filter(userId -> !users.containsKey(userId))
+                    .collect(Collectors.toList());
+            if (!missingUserIds.isEmpty()) {
+                userService.findByIds(missingUserIds).forEach(user -> users.put(user.getId(), user));
+            }
+
+            primaryOwnerIds.forEach((apiId, userId) -> {
+                UserEntity user = users.get(userId);
+                if (user != null) {
+                    primaryOwners.put(apiId, user);
+                }
+            });
+        } catch (final Exception e) {
+            logger.error("Error while trying to get primary owners of APIs " + apiIds, e);
+        }
+
+        return primaryOwners;
+    }
+
+    /**
+     * Gets the last event of each given reference (API or dictionary) in a single stream of events, sorted from the
+     * latest, instead of searching for the last event of each reference.
+     */
+    private List<Event> getLastEvents(Set<String> references, Event.EventProperties property,
+                                      Function<String, Event> lastEventFinder, EventType... types) throws Exception {
+        final Map<String, Event> lastEvents = new HashMap<>(references.size());
+        final Set<String> remaining = new HashSet<>(references);
+        final EventCriteria criteria = new EventCriteria.Builder().types(types).build();
+
+        int page = 0;
+        while (!remaining.isEmpty() && page < initialMaxPages) {
+            List<Event> events = eventRepository.search(criteria,
+                    new PageableBuilder().pageNumber(page++).pageSize(initialPageSize).build()).getContent();
+
+            for (Event event : events) {
+                String reference = event.getProperties() == null ? null : event.getProperties().get(property.getValue());
+                if (reference != null && remaining.remove(reference)) {
+                    lastEvents.put(reference, event);
+                }
+            }
+
+            if (events.size() < initialPageSize) {
+                // All the events have been read, the remaining references do not have any event
+                remaining.clear();
+            }
+        }
+
+        if (!remaining.isEmpty()) {
+            logger.debug("Last event not found in the {} latest events for {} references, search them one by one",
+                    page * initialPageSize, remaining.size());
+
+            final ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(initialConcurrency, remaining.size())));
+            try {
+                List<Future<Event>> futures = executor.invokeAll(remaining
+                        .stream()
+                        .map(reference -> (Callable<Event>) () -> lastEventFinder.apply(reference))
+                        .collect(Collectors.toList()));
+
+                for (Future<Event> future : futures) {
+                    Event event = future.get();
+                    if (event != null) {
+                        lastEvents.put(event.getProperties().get(property.getValue()), event);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        return new ArrayList<>(lastEvents.values());
+    }
+
+    /**
+     * @return the duration (in milliseconds) of the initial synchronization, -1 if not done yet.
+     */
+    public long getInitialSyncDuration() {
+        return initialSyncDuration;
+    }
+
+    /**
+     * @return the duration (in milliseconds) of the last synchronization.
+     */
+    public long getLastSyncDuration() {
+        return lastSyncDuration;
     }
 
     private Event getLastDictionaryEvent(final String dictionary) {
@@ -255,7 +450,7 @@ public class SyncManager {
     private List<Event> getLatestDictionaryEvents(long nextLastRefreshAt) {
         final EventCriteria.Builder builder = new EventCriteria.Builder()
                 .types(EventType.START_DICTIONARY, EventType.STOP_DICTIONARY)
-                .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
+                .from(dictionaryCursor.from())
                 .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY);
 
         return eventRepository.search(builder.build());
@@ -264,7 +459,7 @@ public class SyncManager {
     private List<Event> getLatestApiEvents(long nextLastRefreshAt) {
         final EventCriteria.Builder builder = new EventCriteria.Builder()
                 .types(EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API)
-                .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
+                .from(apiCursor.from())
                 .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY);
 
         return eventRepository.search(builder.build());
@@ -282,7 +477,7 @@ public class SyncManager {
         return (!events.isEmpty()) ? events.get(0) : null;
     }
 
-    private ApiEntity convert(Api api) {
+    private ApiEntity convert(Api api, UserEntity primaryOwner) {
         ApiEntity apiEntity = new ApiEntity();
 
         apiEntity.setId(api.getId());
@@ -322,20 +517,8 @@ public class SyncManager {
             apiEntity.setVisibility(io.gravitee.management.model.Visibility.valueOf(api.getVisibility().toString()));
         }
 
-        try {
-            final Optional<Membership> primaryOwnerMembership = membershipRepository.findByReferenceAndRole(
-                    MembershipReferenceType.API,
-                    api.getId(),
-                    RoleScope.API,
-                    SystemRole.PRIMARY_OWNER.name())
-                    .stream()
-                    .findFirst();
-            if (primaryOwnerMembership.isPresent()) {
-                final UserEntity user = userService.findById(primaryOwnerMembership.get().getUserId());
-                apiEntity.setPrimaryOwner(new PrimaryOwnerEntity(user));
-            }
-        } catch (final TechnicalException e) {
-            logger.error("Error while trying to get primary owner of api " + api.getId(), e);
+        if (primaryOwner != null) {
+            apiEntity.setPrimaryOwner(new PrimaryOwnerEntity(primaryOwner));
         }
         return apiEntity;
     }
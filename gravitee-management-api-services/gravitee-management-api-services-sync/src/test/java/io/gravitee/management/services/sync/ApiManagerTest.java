@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.sync;
+
+import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.service.event.ApiEvent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiManagerTest {
+
+    @InjectMocks
+    private ApiManager apiManager = new ApiManager();
+
+    @Mock
+    private EventManager eventManager;
+
+    @Test
+    public void shouldVersionChanges() {
+        ApiEntity api = api("api-1", Lifecycle.State.STARTED);
+
+        apiManager.deploy(api);
+        assertEquals(1, apiManager.getVersion());
+        assertEquals(1, apiManager.getVersion("api-1"));
+        assertSame(api, apiManager.get("api-1"));
+
+        apiManager.update(api);
+        assertEquals(2, apiManager.getVersion());
+        assertEquals(2, apiManager.getVersion("api-1"));
+
+        apiManager.undeploy("api-1");
+        assertEquals(3, apiManager.getVersion());
+        assertEquals(-1, apiManager.getVersion("api-1"));
+        assertNull(apiManager.get("api-1"));
+
+        // Undeploying an unknown API is not a change
+        apiManager.undeploy("api-1");
+        assertEquals(3, apiManager.getVersion());
+    }
+
+    @Test
+    public void shouldReturnSnapshotOfDeployedApis() {
+        apiManager.deploy(api("api-1", Lifecycle.State.STARTED));
+
+        Collection<ApiEntity> apis = apiManager.apis();
+        apiManager.deploy(api("api-2", Lifecycle.State.STARTED));
+
+        assertEquals(1, apis.size());
+        assertEquals(2, apiManager.apis().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotModifySnapshot() {
+        apiManager.apis().add(api("api-1", Lifecycle.State.STARTED));
+    }
+
+    @Test
+    public void shouldNotPublishDeployOfStoppedApi() {
+        apiManager.deploy(api("api-1", Lifecycle.State.STOPPED));
+
+        assertNotNull(apiManager.get("api-1"));
+        verifyZeroInteractions(eventManager);
+    }
+
+    @Test
+    public void shouldDispatchEventsOfAnApiInOrder() throws Exception {
+        setField(apiManager, "dispatcherThreads", 2);
+        apiManager.afterPropertiesSet();
+
+        ApiEntity api1 = api("api-1", Lifecycle.State.STARTED);
+        ApiEntity api2 = api("api-2", Lifecycle.State.STARTED);
+        apiManager.deploy(api1);
+        apiManager.deploy(api2);
+        apiManager.update(api1);
+        apiManager.undeploy("api-1");
+
+        // Pending events are drained on shutdown
+        apiManager.destroy();
+
+        InOrder inOrder = inOrder(eventManager);
+        inOrder.verify(eventManager).publishEvent(ApiEvent.DEPLOY, api1);
+        inOrder.verify(eventManager).publishEvent(ApiEvent.UPDATE, api1);
+        inOrder.verify(eventManager).publishEvent(ApiEvent.UNDEPLOY, api1);
+        verify(eventManager).publishEvent(ApiEvent.DEPLOY, api2);
+    }
+
+    @Test
+    public void shouldKeepDispatchingAfterListenerFailure() throws Exception {
+        setField(apiManager, "dispatcherThreads", 1);
+        apiManager.afterPropertiesSet();
+
+        ApiEntity api = api("api-1", Lifecycle.State.STARTED);
+        doThrow(new IllegalStateException("Listener failure")).when(eventManager).publishEvent(ApiEvent.DEPLOY, api);
+
+        apiManager.deploy(api);
+        apiManager.update(api);
+        apiManager.destroy();
+
+        verify(eventManager).publishEvent(ApiEvent.UPDATE, api);
+    }
+
+    private static ApiEntity api(String id, Lifecycle.State state) {
+        ApiEntity api = new ApiEntity();
+        api.setId(id);
+        api.setState(state);
+        return api;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.sync;
+
+import io.gravitee.repository.management.model.Event;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EventCursorTest {
+
+    private final EventCursor cursor = new EventCursor(Event.EventProperties.API_ID, 1000);
+
+    @Test
+    public void shouldReadFromPositionMinusOverlap() {
+        assertFalse(cursor.isInitialized());
+
+        cursor.moveTo(5000);
+
+        assertTrue(cursor.isInitialized());
+        assertEquals(4000, cursor.from());
+    }
+
+    @Test
+    public void shouldReturnEventsAgainUntilCommitted() {
+        Event event1 = event("event-1", 4500);
+        Event event2 = event("event-2", 4800);
+
+        assertEquals(Collections.singletonList(event1), cursor.next(Collections.singletonList(event1)));
+        // Not applied yet, the event is still to be processed
+        assertEquals(Collections.singletonList(event1), cursor.next(Collections.singletonList(event1)));
+        assertEquals(0, cursor.getProcessedCount());
+
+        cursor.commit(Collections.singletonList(event1));
+
+        assertEquals(Collections.singletonList(event2), cursor.next(Arrays.asList(event1, event2)));
+        assertEquals(1, cursor.getProcessedCount());
+    }
+
+    @Test
+    public void shouldForgetEventsOutOfTheOverlap() {
+        cursor.commit(Arrays.asList(event("event-1", 3500), event("event-2", 4500)));
+        assertEquals(2, cursor.getProcessedCount());
+
+        cursor.moveTo(5000);
+
+        assertEquals(1, cursor.getProcessedCount());
+        assertTrue(cursor.next(Collections.singletonList(event("event-2", 4500))).isEmpty());
+    }
+
+    @Test
+    public void shouldSkipOlderEventStoredLate() {
+        cursor.moveTo(5000);
+
+        Event stop = event("event-2", 4800, "api-1");
+        assertEquals(Collections.singletonList(stop), cursor.next(Collections.singletonList(stop)));
+        cursor.commit(Collections.singletonList(stop));
+
+        // The publication of api-1 happened before its stop, but has been stored after it: it must not be applied
+        Event publish = event("event-1", 4500, "api-1");
+        Event other = event("event-3", 4000, "api-2");
+        assertEquals(Collections.singletonList(other), cursor.next(Arrays.asList(stop, publish, other)));
+    }
+
+    @Test
+    public void shouldForgetLastAppliedEventsOutOfTheOverlap() {
+        cursor.commit(Collections.singletonList(event("event-2", 3500, "api-1")));
+        cursor.moveTo(5000);
+
+        Event publish = event("event-1", 3000, "api-1");
+        assertEquals(Collections.singletonList(publish), cursor.next(Collections.singletonList(publish)));
+    }
+
+    private static Event event(String id, long createdAt) {
+        Event event = new Event();
+        event.setId(id);
+        event.setCreatedAt(new Date(createdAt));
+        return event;
+    }
+
+    private static Event event(String id, long createdAt, String apiId) {
+        Event event = event(id, createdAt);
+        event.setProperties(Collections.singletonMap(Event.EventProperties.API_ID.getValue(), apiId));
+        return event;
+    }
+}
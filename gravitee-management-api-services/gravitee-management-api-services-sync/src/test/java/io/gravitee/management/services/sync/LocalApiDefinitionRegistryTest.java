@@ -0,0 +1,253 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.management.model.api.ApiEntity;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LocalApiDefinitionRegistryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private ApiManager apiManager;
+
+    private LocalApiDefinitionRegistry registry;
+
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath();
+
+        registry = new LocalApiDefinitionRegistry();
+        registry.setApiManager(apiManager);
+        registry.setObjectMapper(new ObjectMapper());
+        registry.setDebounce(500);
+        registry.setMaxWait(5000);
+    }
+
+    @Test
+    public void shouldDeployBurstOfChangesOnce() throws Exception {
+        write("api.json", "api-1", "v1");
+
+        ScriptedWatchService watchService = new ScriptedWatchService(
+                key(event(ENTRY_CREATE, "api.json")),
+                key(event(ENTRY_MODIFY, "api.json"), event(ENTRY_MODIFY, "api.json")),
+                // No more change during the debounce delay
+                null);
+        registry.watch(directory, watchService);
+
+        verify(apiManager, times(1)).deploy(any(ApiEntity.class));
+        assertEquals(Arrays.asList(500L, 500L), watchService.timeouts);
+    }
+
+    @Test
+    public void shouldNotWaitForEndOfBurstLongerThanMaxWait() throws Exception {
+        registry.setMaxWait(300);
+        write("api.json", "api-1", "v1");
+
+        ScriptedWatchService watchService = new ScriptedWatchService(
+                key(event(ENTRY_CREATE, "api.json")),
+                key(event(ENTRY_MODIFY, "api.json")),
+                null);
+        registry.watch(directory, watchService);
+
+        verify(apiManager, times(1)).deploy(any(ApiEntity.class));
+        assertEquals(2, watchService.timeouts.size());
+        watchService.timeouts.forEach(timeout -> assertTrue(timeout > 0 && timeout <= 300));
+    }
+
+    @Test
+    public void shouldDeployChangesOnceMaxWaitIsOver() throws Exception {
+        registry.setMaxWait(0);
+        write("api.json", "api-1", "v1");
+
+        ScriptedWatchService watchService = new ScriptedWatchService(
+                key(event(ENTRY_CREATE, "api.json")),
+                key(event(ENTRY_MODIFY, "api.json")));
+        registry.watch(directory, watchService);
+
+        // Deployed before the next change is notified
+        verify(apiManager, times(1)).deploy(any(ApiEntity.class));
+        assertTrue(watchService.timeouts.isEmpty());
+    }
+
+    @Test
+    public void shouldCheckAllDefinitionsOnOverflow() throws Exception {
+        write("api-1.json", "api-1", "v1");
+        write("api-2.json", "api-2", "v1");
+
+        registry.watch(directory, new ScriptedWatchService(key(event(OVERFLOW, null)), null));
+
+        verify(apiManager).deploy(argThat(api -> "api-1".equals(api.getId())));
+        verify(apiManager).deploy(argThat(api -> "api-2".equals(api.getId())));
+    }
+
+    @Test
+    public void shouldUndeployApiOnceNoFileDeclaresIt() throws Exception {
+        when(apiManager.get("api-1")).thenReturn(null, new ApiEntity());
+        write("first.json", "api-1", "v1");
+        write("second.json", "api-1", "v2");
+
+        registry.watch(directory, new ScriptedWatchService(
+                key(event(ENTRY_CREATE, "first.json"), event(ENTRY_CREATE, "second.json")), null));
+
+        verify(apiManager, times(1)).deploy(any(ApiEntity.class));
+        verify(apiManager, times(1)).update(any(ApiEntity.class));
+
+        // The API is still declared by the other file, which is deployed again
+        Files.delete(directory.resolve("first.json"));
+        registry.watch(directory, new ScriptedWatchService(key(event(ENTRY_DELETE, "first.json")), null));
+
+        verify(apiManager, never()).undeploy(any());
+        verify(apiManager, times(2)).update(argThat(api -> "v2".equals(api.getName())));
+
+        Files.delete(directory.resolve("second.json"));
+        registry.watch(directory, new ScriptedWatchService(key(event(ENTRY_DELETE, "second.json")), null));
+
+        verify(apiManager, times(1)).undeploy("api-1");
+    }
+
+    private void write(String file, String id, String name) throws IOException {
+        Files.write(directory.resolve(file),
+                ("{\"id\":\"" + id + "\",\"name\":\"" + name + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static WatchKey key(WatchEvent<?>... events) {
+        return new ScriptedWatchKey(Arrays.asList(events));
+    }
+
+    private static WatchEvent<Path> event(WatchEvent.Kind<?> kind, String file) {
+        return new WatchEvent<Path>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Kind<Path> kind() {
+                return (Kind<Path>) kind;
+            }
+
+            @Override
+            public int count() {
+                return 1;
+            }
+
+            @Override
+            public Path context() {
+                return (file == null) ? null : Paths.get(file);
+            }
+        };
+    }
+
+    /**
+     * Returns the given keys, <code>null</code> meaning that no change has been notified before the timeout, then
+     * behaves as a closed watch service.
+     */
+    private static class ScriptedWatchService implements WatchService {
+
+        private final LinkedList<WatchKey> keys;
+
+        private final List<Long> timeouts = new ArrayList<>();
+
+        private ScriptedWatchService(WatchKey... keys) {
+            this.keys = new LinkedList<>(Arrays.asList(keys));
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public WatchKey poll() {
+            return next();
+        }
+
+        @Override
+        public WatchKey poll(long timeout, TimeUnit unit) {
+            timeouts.add(unit.toMillis(timeout));
+            return next();
+        }
+
+        @Override
+        public WatchKey take() {
+            return next();
+        }
+
+        private WatchKey next() {
+            if (keys.isEmpty()) {
+                throw new ClosedWatchServiceException();
+            }
+            return keys.removeFirst();
+        }
+    }
+
+    private static class ScriptedWatchKey implements WatchKey {
+
+        private final List<WatchEvent<?>> events;
+
+        private ScriptedWatchKey(List<WatchEvent<?>> events) {
+            this.events = events;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public List<WatchEvent<?>> pollEvents() {
+            return events;
+        }
+
+        @Override
+        public boolean reset() {
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public Watchable watchable() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.management.model.configuration.dictionary.DictionaryEntity;
+import io.gravitee.management.service.UserService;
+import io.gravitee.management.service.configuration.dictionary.DictionaryService;
+import io.gravitee.management.service.event.DictionaryEvent;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.DictionaryRepository;
+import io.gravitee.repository.management.api.EventRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SyncManagerTest {
+
+    private static final String API_ID = "my-api";
+    private static final String DICTIONARY_ID = "my-dictionary";
+
+    @InjectMocks
+    private SyncManager syncManager = new SyncManager();
+
+    @Mock
+    private ApiRepository apiRepository;
+    @Mock
+    private DictionaryService dictionaryService;
+    @Mock
+    private DictionaryRepository dictionaryRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private ApiManager apiManager;
+    @Mock
+    private ObjectMapper objectMapper;
+    @Mock
+    private EventManager eventManager;
+    @Mock
+    private MembershipRepository membershipRepository;
+    @Mock
+    private UserService userService;
+
+    @Before
+    public void setUp() {
+        setField(syncManager, "overlap", 30000L);
+        setField(syncManager, "initialPageSize", 200);
+        setField(syncManager, "initialMaxPages", 50);
+        setField(syncManager, "initialConcurrency", 10);
+    }
+
+    @Test
+    public void shouldFindLastEventOfAllApisInBulk() {
+        mockApis("api-1", "api-2");
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class))).thenReturn(page(
+                event("event-3", EventType.STOP_API, Event.EventProperties.API_ID, "api-1"),
+                event("event-2", EventType.START_API, Event.EventProperties.API_ID, "api-1"),
+                event("event-1", EventType.STOP_API, Event.EventProperties.API_ID, "api-2")));
+
+        assertTrue(syncManager.refresh());
+
+        // All the events have been read with a single search, only the last event of each API is applied
+        verify(eventRepository, times(1)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).undeploy("api-1");
+        verify(apiManager).undeploy("api-2");
+        verifyZeroInteractions(objectMapper);
+        assertTrue(syncManager.getInitialSyncDuration() >= 0);
+    }
+
+    @Test
+    public void shouldSearchLastEventOfMissingApisOneByOne() {
+        setField(syncManager, "initialPageSize", 1);
+        setField(syncManager, "initialMaxPages", 1);
+
+        mockApis("api-1", "api-2");
+        when(eventRepository.search(any(EventCriteria.class), any(Pageable.class))).thenReturn(
+                page(event("event-2", EventType.STOP_API, Event.EventProperties.API_ID, "api-1")),
+                page(event("event-1", EventType.STOP_API, Event.EventProperties.API_ID, "api-2")));
+
+        assertTrue(syncManager.refresh());
+
+        // One page of the latest events, then the last event of the API not found in this page
+        verify(eventRepository, times(2)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).undeploy("api-1");
+        verify(apiManager).undeploy("api-2");
+    }
+
+    @Test
+    public void shouldApplyDictionaryEventAgainAfterFailure() {
+        // Initial synchronization, without any API nor dictionary
+        syncManager.refresh();
+
+        Event event = event("event-1", EventType.START_DICTIONARY, Event.EventProperties.DICTIONARY_ID, DICTIONARY_ID);
+        mockLatestEvents(Collections.emptyList(), Collections.singletonList(event));
+
+        DictionaryEntity dictionary = new DictionaryEntity();
+        when(dictionaryService.findById(DICTIONARY_ID))
+                .thenThrow(new IllegalStateException("Repository unavailable"))
+                .thenReturn(dictionary);
+
+        assertFalse(syncManager.refresh());
+        verify(eventManager, never()).publishEvent(any(DictionaryEvent.class), any());
+
+        assertTrue(syncManager.refresh());
+        verify(eventManager).publishEvent(DictionaryEvent.START, dictionary);
+
+        // Once applied, the event is not processed anymore
+        assertFalse(syncManager.refresh());
+        verify(eventManager, times(1)).publishEvent(DictionaryEvent.START, dictionary);
+    }
+
+    @Test
+    public void shouldApplyApiEventAgainAfterFailure() {
+        // Initial synchronization, without any API nor dictionary
+        syncManager.refresh();
+
+        Event event = event("event-1", EventType.STOP_API, Event.EventProperties.API_ID, API_ID);
+        mockLatestEvents(Collections.singletonList(event), Collections.emptyList());
+
+        doThrow(new IllegalStateException("Undeploy failure")).doNothing().when(apiManager).undeploy(API_ID);
+
+        assertFalse(syncManager.refresh());
+        assertTrue(syncManager.refresh());
+        assertFalse(syncManager.refresh());
+
+        verify(apiManager, times(2)).undeploy(API_ID);
+    }
+
+    /**
+     * Each synchronization reads the API events, then the dictionary events.
+     */
+    private void mockLatestEvents(List<Event> apiEvents, List<Event> dictionaryEvents) {
+        when(eventRepository.search(any(EventCriteria.class)))
+                .thenReturn(apiEvents, dictionaryEvents, apiEvents, dictionaryEvents, apiEvents, dictionaryEvents);
+    }
+
+    private void mockApis(String... ids) {
+        when(apiRepository.search(isNull(), any(ApiFieldExclusionFilter.class))).thenReturn(Arrays.stream(ids)
+                .map(id -> {
+                    Api api = new Api();
+                    api.setId(id);
+                    return api;
+                })
+                .collect(Collectors.toList()));
+    }
+
+    private static Page<Event> page(Event... events) {
+        return new Page<>(Arrays.asList(events), 0, events.length, events.length);
+    }
+
+    private static Event event(String id, EventType type, Event.EventProperties property, String reference) {
+        Event event = new Event();
+        event.setId(id);
+        event.setType(type);
+        event.setCreatedAt(new Date());
+        event.setProperties(Collections.singletonMap(property.getValue(), reference));
+        return event;
+    }
+}